@@ -0,0 +1,35 @@
+package hu.elte.inf.projects.quizme;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.mongo.ReactiveMongoClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+
+/**
+ * The reactive MongoDB client behind the question streams. It keeps a
+ * connection pool of its own next to the blocking client's, so its size is
+ * capped separately with {@code app.mongo.reactive.max-pool-size} instead of
+ * doubling the connections per instance. Everything else is configured like
+ * Spring Boot's default client, from the {@code spring.data.mongodb}
+ * properties.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ReactiveMongoConfig {
+
+    @Bean
+    public MongoClient reactiveStreamsMongoClient(ObjectProvider<MongoClientSettingsBuilderCustomizer> customizers,
+            MongoClientSettings settings, @Value("${app.mongo.reactive.max-pool-size:10}") int maxPoolSize) {
+        List<MongoClientSettingsBuilderCustomizer> reactiveCustomizers = new ArrayList<>(
+                customizers.orderedStream().toList());
+        reactiveCustomizers.add(builder -> builder.applyToConnectionPoolSettings(pool -> pool.maxSize(maxPoolSize)));
+        return new ReactiveMongoClientFactory(reactiveCustomizers).createMongoClient(settings);
+    }
+}
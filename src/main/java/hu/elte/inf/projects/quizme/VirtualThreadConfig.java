@@ -0,0 +1,29 @@
+package hu.elte.inf.projects.quizme;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Virtual-thread execution mode, switched on with
+ * {@code spring.threads.virtual.enabled}. Spring Boot then runs {@code @Async}
+ * and {@code @Scheduled} work on virtual threads, but only moves Tomcat and
+ * Jetty requests onto them; this dispatches Undertow's blocking servlet
+ * requests to a virtual thread per request instead of the
+ * {@code server.undertow.threads.worker} pool.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowVirtualThreadsCustomizer() {
+        return factory -> factory.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo
+                .setExecutor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("undertow-", 0).factory())));
+    }
+}
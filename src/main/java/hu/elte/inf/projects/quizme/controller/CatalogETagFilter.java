@@ -0,0 +1,77 @@
+package hu.elte.inf.projects.quizme.controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.zip.CRC32;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import hu.elte.inf.projects.quizme.service.catalog.CatalogGeneration;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Answers conditional GETs of the quiz pages with 304 before they reach a
+ * controller. The pages only change with the catalog, so their ETag is the
+ * {@link CatalogGeneration} combined with everything else a page is rendered
+ * from besides its path: the query string, the locale and the signed-in user.
+ * <p>
+ * Registered after the security filter chain, so the user is known and
+ * unauthenticated requests are redirected before they get here.
+ */
+@Component
+@ConditionalOnProperty(name = "app.catalog.etags", havingValue = "true")
+public class CatalogETagFilter extends OncePerRequestFilter {
+
+    private static final String CATALOG_PAGES = "/quiz/";
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private final CatalogGeneration catalogGeneration;
+
+    public CatalogETagFilter(CatalogGeneration catalogGeneration) {
+        this.catalogGeneration = catalogGeneration;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith(CATALOG_PAGES);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String eTag = eTag(request);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE);
+        // Sets the ETag header, and the 304 status on a match
+        if (new ServletWebRequest(request, response).checkNotModified(eTag)) {
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private String eTag(HttpServletRequest request) {
+        Principal user = request.getUserPrincipal();
+        String queryString = request.getQueryString();
+        String page = (queryString != null ? queryString : "") + '\u0000'
+                + request.getLocale().toLanguageTag() + '\u0000'
+                + (user != null ? user.getName() : "");
+        CRC32 variant = new CRC32();
+        variant.update(page.getBytes(StandardCharsets.UTF_8));
+        return "\"" + Long.toHexString(catalogGeneration.getBootId()) + "-" + catalogGeneration.current() + "-"
+                + Long.toHexString(variant.getValue()) + "\"";
+    }
+}
@@ -1,33 +1,35 @@
 package hu.elte.inf.projects.quizme.controller;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.List;
-import java.util.Optional;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import hu.elte.inf.projects.quizme.repository.dto.QuizData;
-import hu.elte.inf.projects.quizme.service.json.QuizImportService;
+import hu.elte.inf.projects.quizme.service.json.ImportJob;
+import hu.elte.inf.projects.quizme.service.json.QuizImportExecutor;
 
 @RestController
 @RequestMapping("import")
 public class ImportController {
 
-    private final QuizImportService quizImportService;
+    private final QuizImportExecutor quizImportExecutor;
 
-    public ImportController(QuizImportService quizImportService) {
-        this.quizImportService = quizImportService;
+    public ImportController(QuizImportExecutor quizImportExecutor) {
+        this.quizImportExecutor = quizImportExecutor;
     }
 
     @PostMapping("/single")
-    public ResponseEntity<String> importSingleQuiz(@RequestParam("inputFile") MultipartFile file) {
+    public ResponseEntity<?> importSingleQuiz(@RequestParam("inputFile") MultipartFile file) {
         if (file == null || file.isEmpty()) {
             return ResponseEntity.badRequest().body("File is required and cannot be empty");
         }
@@ -36,17 +38,11 @@ public class ImportController {
             return ResponseEntity.badRequest().body("Only JSON files are allowed");
         }
 
-        try {
-            Optional<QuizData> quizData = quizImportService.importQuizFile(file.getBytes());
-            quizImportService.persist(quizData);
-            return new ResponseEntity<>(HttpStatus.OK);
-        } catch (IOException e) {
-            return new ResponseEntity<>("Failed to upload file: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+        return submit(List.of(file));
     }
 
     @PostMapping("/multi")
-    public ResponseEntity<String> importMultiQuizzes(@RequestParam("files") List<MultipartFile> files) {
+    public ResponseEntity<?> importMultiQuizzes(@RequestParam("files") List<MultipartFile> files) {
         if (files == null || files.isEmpty()) {
             return ResponseEntity.badRequest().body("At least one file is required and cannot be empty");
         }
@@ -58,15 +54,23 @@ public class ImportController {
             if (!MediaType.APPLICATION_JSON_VALUE.equals(file.getContentType())) {
                 return ResponseEntity.badRequest().body("Only JSON files are allowed");
             }
-            try {
-                Optional<QuizData> quizData = quizImportService.importQuizFile(file.getBytes());
-                quizImportService.persist(quizData);
-            } catch (IOException e) {
-                return new ResponseEntity<>("Failed to upload file: " + e.getMessage(),
-                        HttpStatus.INTERNAL_SERVER_ERROR);
-            }
         }
-        return new ResponseEntity<>(HttpStatus.OK);
+
+        return submit(files);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ImportJob> getImportJob(@PathVariable String id) {
+        return ResponseEntity.of(quizImportExecutor.findJob(id));
+    }
+
+    private ResponseEntity<?> submit(List<MultipartFile> files) {
+        try {
+            ImportJob job = quizImportExecutor.submit(files);
+            return ResponseEntity.accepted().location(URI.create("/import/jobs/" + job.getId())).body(job);
+        } catch (IOException e) {
+            return new ResponseEntity<>("Failed to upload file: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
     }
 
 }
@@ -0,0 +1,94 @@
+package hu.elte.inf.projects.quizme.controller;
+
+import static hu.elte.inf.projects.quizme.util.QuizConstants.API_TITLE_QUESTIONS;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.API_TOPIC_QUESTIONS;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import hu.elte.inf.projects.quizme.repository.dto.Title;
+import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import hu.elte.inf.projects.quizme.service.QuizService;
+import hu.elte.inf.projects.quizme.service.cache.QuestionPayload;
+import hu.elte.inf.projects.quizme.service.cache.QuestionPayloadService;
+
+/**
+ * Read-only question API for the quiz player. Responses carry an ETag derived
+ * from the owning title, so browsers revalidate with a conditional GET and get
+ * a 304 until the title is re-imported or an import adds questions to it.
+ * There is no Last-Modified: titles only store the date they were created,
+ * which imports do not move, and a date validator would answer 304 for
+ * questions added since.
+ */
+@RestController
+@RequestMapping("/api")
+public class QuizApiController {
+
+    // Cacheable by the browser only, and always revalidated
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private final QuizService quizService;
+    private final QuestionPayloadService questionPayloadService;
+
+    public QuizApiController(QuizService quizService, QuestionPayloadService questionPayloadService) {
+        this.quizService = quizService;
+        this.questionPayloadService = questionPayloadService;
+    }
+
+    @GetMapping(API_TITLE_QUESTIONS)
+    public ResponseEntity<byte[]> titleQuestions(@PathVariable String titleName, WebRequest request) {
+        Title title = quizService.findTitleByName(titleName);
+        if (title.getId() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return questions(title, request, () -> questionPayloadService.getTitlePayload(titleName));
+    }
+
+    @GetMapping(API_TOPIC_QUESTIONS)
+    public ResponseEntity<byte[]> topicQuestions(@PathVariable String topicId, WebRequest request) {
+        Topic topic = quizService.findTopicById(topicId);
+        if (topic == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Title title = quizService.findTitleByName(topic.getTitleName());
+        return questions(title, request, () -> questionPayloadService.getTopicPayload(topicId));
+    }
+
+    private static ResponseEntity<byte[]> questions(Title title, WebRequest request,
+            Supplier<QuestionPayload> payload) {
+        String eTag = eTag(title);
+        // Answered before the payload is looked up
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CACHE_CONTROL).build();
+        }
+
+        QuestionPayload questions = payload.get();
+        if (questions == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .cacheControl(CACHE_CONTROL)
+                .body(questions.getJson());
+    }
+
+    /**
+     * Changes whenever the title is re-created, its version is bumped or an
+     * import adds questions to it.
+     */
+    static String eTag(Title title) {
+        String version = title.getVersion() != null ? title.getVersion() : "0";
+        return "\"" + title.getId() + "-" + version.replaceAll("[^A-Za-z0-9._-]", "_") + "-"
+                + title.getTotalQuestions() + "\"";
+    }
+}
@@ -2,7 +2,9 @@ package hu.elte.inf.projects.quizme.controller;
 
 import static hu.elte.inf.projects.quizme.util.QuizConstants.ATTR_CATEGORIES;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.ATTR_CATEGORY;
-import static hu.elte.inf.projects.quizme.util.QuizConstants.ATTR_QUESTIONS;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.API_TOPIC_QUESTIONS;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.ATTR_QUESTIONS_JSON;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.ATTR_QUESTIONS_URL;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.ATTR_QUIZ_TITLE;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.ATTR_SELECTED_COUNT;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.ATTR_SELECTED_DIFFICULTY;
@@ -14,12 +16,16 @@ import static hu.elte.inf.projects.quizme.util.QuizConstants.ATTR_TITLE_ALIAS;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.ATTR_TITLE_OBJECT;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.ATTR_TOPICS;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.ATTR_TOPIC_ALIAS;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.ATTR_TOPIC_ID;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.ATTR_TOTAL;
-import static hu.elte.inf.projects.quizme.util.QuizConstants.DIFFICULTY_LEVELS;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.DIFFICULTY_MIXED;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.ERROR_NO_QUESTIONS;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.ERROR_QUIZ_NOT_FOUND;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.ERROR_RESULTS_BUSY;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.MODE_BALANCED;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.MODE_REVIEW;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.PARAM_DIFFICULTY;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.PARAM_MODE;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.PARAM_QUESTION_COUNT;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.QUIZ_CATEGORIES;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.QUIZ_CATEGORY;
@@ -31,11 +37,18 @@ import static hu.elte.inf.projects.quizme.util.QuizConstants.QUIZ_START;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.QUIZ_SUBMIT_RESULTS;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.REDIRECT;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.REDIRECT_ERROR_PARAM;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.RESULT_COMPLETED_AT;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.RESULT_CORRECT;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.RESULT_MESSAGE;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.RESULT_QUESTION_IDS;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.RESULT_SCORE;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.RESULT_SUCCESS;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.RESULT_TITLE_NAME;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.RESULT_TOPIC_ID;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.RESULT_TOTAL;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.RESULT_WRONG_ANSWERS;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.SAMPLING_INDEX;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.SAMPLING_SERVER;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.SUCCESS_RESULTS_MESSAGE;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.USER_MANUAL;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.VIEW_CATEGORIES;
@@ -46,16 +59,22 @@ import static hu.elte.inf.projects.quizme.util.QuizConstants.VIEW_TITLES;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.VIEW_TOPICS;
 import static hu.elte.inf.projects.quizme.util.QuizConstants.VIEW_USER_MANUAL;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
@@ -68,15 +87,26 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import hu.elte.inf.projects.quizme.repository.dto.Category;
 import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.QuizAttempt;
 import hu.elte.inf.projects.quizme.repository.dto.SubCategory;
 import hu.elte.inf.projects.quizme.repository.dto.Title;
+import hu.elte.inf.projects.quizme.repository.dto.TitleSummary;
 import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import hu.elte.inf.projects.quizme.repository.dto.TopicSummary;
 import hu.elte.inf.projects.quizme.service.JsonDifficultyService;
+import hu.elte.inf.projects.quizme.service.LookupExecutor;
 import hu.elte.inf.projects.quizme.service.QuizService;
+import hu.elte.inf.projects.quizme.service.attempt.QuizAttemptWriter;
+import hu.elte.inf.projects.quizme.service.cache.QuestionPayloadService;
+import hu.elte.inf.projects.quizme.service.index.QuestionIndexService;
+import hu.elte.inf.projects.quizme.service.index.QuestionSampler;
+import hu.elte.inf.projects.quizme.service.index.QuestionSamplingService;
+import hu.elte.inf.projects.quizme.service.index.TitleQuestionIndex;
+import hu.elte.inf.projects.quizme.service.review.ReviewScheduler;
 
 @RequestMapping("/quiz")
 @Controller
@@ -85,13 +115,39 @@ public class QuizController {
 
     private final QuizService quizService;
     private final JsonDifficultyService difficultyService;
+    private final QuestionIndexService questionIndexService;
+    private final QuestionSamplingService questionSamplingService;
+    private final QuestionSampler questionSampler;
+    private final QuestionPayloadService questionPayloadService;
+    private final LookupExecutor lookupExecutor;
+    private final QuizAttemptWriter quizAttemptWriter;
+    private final ReviewScheduler reviewScheduler;
 
     @Value("${app.security.enabled:true}")
     private boolean securityEnabled;
 
-    public QuizController(QuizService quizService, JsonDifficultyService difficultyService) {
+    @Value("${app.quiz.sampling:" + SAMPLING_INDEX + "}")
+    private String samplingMode;
+
+    @Value("${app.review.max-questions:50}")
+    private int maxReviewQuestions;
+
+    @Value("${app.attempts.max-questions:1000}")
+    private int maxAttemptQuestions;
+
+    public QuizController(QuizService quizService, JsonDifficultyService difficultyService,
+            QuestionIndexService questionIndexService, QuestionSamplingService questionSamplingService,
+            QuestionSampler questionSampler, QuestionPayloadService questionPayloadService,
+            LookupExecutor lookupExecutor, QuizAttemptWriter quizAttemptWriter, ReviewScheduler reviewScheduler) {
         this.quizService = quizService;
         this.difficultyService = difficultyService;
+        this.questionIndexService = questionIndexService;
+        this.questionSamplingService = questionSamplingService;
+        this.questionSampler = questionSampler;
+        this.questionPayloadService = questionPayloadService;
+        this.lookupExecutor = lookupExecutor;
+        this.quizAttemptWriter = quizAttemptWriter;
+        this.reviewScheduler = reviewScheduler;
     }
 
     @GetMapping(QUIZ_CATEGORIES)
@@ -120,7 +176,7 @@ public class QuizController {
 
     @GetMapping(QUIZ_CATEGORY_SUB)
     public String showTitles(@PathVariable String category, @PathVariable String subcategory, Model model) {
-        List<Title> titles = quizService.findTitlesByCategoryAndSubCategory(category, subcategory);
+        List<TitleSummary> titles = quizService.findTitleSummaries(category, subcategory);
         model.addAttribute(ATTR_TITLES, titles);
         model.addAttribute(ATTR_CATEGORY, category);
         model.addAttribute(ATTR_SUBCATEGORY, subcategory);
@@ -130,14 +186,12 @@ public class QuizController {
     @GetMapping(QUIZ_CATEGORY_SUB_TITLE)
     public String showTopics(@PathVariable String category, @PathVariable String subcategory,
             @PathVariable String title, Model model) {
-        List<Topic> topics = quizService.findTopicsTitleByName(title);
-
-        // Get the full Title object for the modal
-        Title titleObject = quizService.findTitleByName(title);
-
-        // Calculate total questions if not set
-        List<Question> questions = quizService.findQuestionsByTitle(title);
-        titleObject.setTotalQuestions(questions.size());
+        CompletableFuture<List<TopicSummary>> topicsLookup = lookupExecutor.submit(
+                () -> quizService.findTopicSummaries(title));
+        // Get the full Title object for the modal, total_questions is kept up to date by imports
+        CompletableFuture<Title> titleLookup = lookupExecutor.submit(() -> quizService.findTitleByName(title));
+        List<TopicSummary> topics = LookupExecutor.join(topicsLookup);
+        Title titleObject = LookupExecutor.join(titleLookup);
 
         model.addAttribute(ATTR_TOPICS, topics);
         model.addAttribute(ATTR_TITLE, title);
@@ -161,17 +215,15 @@ public class QuizController {
             return REDIRECT + "/quiz" + QUIZ_CATEGORIES + REDIRECT_ERROR_PARAM + ERROR_NO_QUESTIONS;
         }
 
-        List<Question> questions = quizService.getQuestionsByTopic(topic.getTopicId());
-        if (CollectionUtils.isEmpty(questions)) {
-            return REDIRECT + QUIZ_CATEGORIES + REDIRECT_ERROR_PARAM + ERROR_NO_QUESTIONS;
-        }
-
-        model.addAttribute(ATTR_QUESTIONS, questions);
-        model.addAttribute(ATTR_TOTAL, questions.size());
-        model.addAttribute(ATTR_SELECTED_COUNT, questions.size());
+        // The page only carries the API URL, quiz-play.js fetches and revalidates the questions
+        model.addAttribute(ATTR_QUESTIONS_URL,
+                UriComponentsBuilder.fromPath("/api" + API_TOPIC_QUESTIONS).build(topic.getTopicId()).toString());
+        model.addAttribute(ATTR_TOTAL, topic.getQuestionCount());
+        model.addAttribute(ATTR_SELECTED_COUNT, topic.getQuestionCount());
         model.addAttribute(ATTR_SELECTED_DIFFICULTY, DIFFICULTY_MIXED);
         model.addAttribute(ATTR_QUIZ_TITLE, topic.getTopicName());
         model.addAttribute(ATTR_TOPIC_ALIAS, topic.getAlias());
+        model.addAttribute(ATTR_TOPIC_ID, topic.getTopicId());
         model.addAttribute(ATTR_TITLE, title);
         model.addAttribute("title", title);
         model.addAttribute(ATTR_CATEGORY, category);
@@ -197,18 +249,25 @@ public class QuizController {
     public String startQuiz(@PathVariable String titleId,
             @RequestParam(name = PARAM_QUESTION_COUNT, defaultValue = "0") int questionCount,
             @RequestParam(name = PARAM_DIFFICULTY, defaultValue = DIFFICULTY_MIXED) String difficulty,
+            @RequestParam(name = PARAM_MODE, defaultValue = MODE_BALANCED) String mode,
+            @AuthenticationPrincipal OAuth2User principal,
             Model model) {
-        Title title = quizService.findTitleByName(titleId);
-        List<Question> questions = quizService.findQuestionsByTitle(titleId);
-        if (!CollectionUtils.isEmpty(questions)) {
-            List<Question> balancedQuestions = selectBalancedQuestions(questions, questionCount, difficulty);
-
-            model.addAttribute(ATTR_QUESTIONS, balancedQuestions);
+        // The sub-category needs the title, both are looked up while the questions are selected
+        CompletableFuture<Title> titleLookup = lookupExecutor.submit(() -> quizService.findTitleByName(titleId));
+        CompletableFuture<Optional<SubCategory>> subCategoryLookup = titleLookup.thenCompose(
+                title -> lookupExecutor.submit(() -> quizService.findSubCategoryByName(title.getSubCategoryName())));
+        String email = principal != null ? principal.getAttribute("email") : null;
+        List<Question> balancedQuestions = MODE_REVIEW.equalsIgnoreCase(mode) && email != null
+                ? selectDueQuestions(email, titleId, questionCount, difficulty)
+                : selectQuestions(titleId, questionCount, difficulty);
+        if (!CollectionUtils.isEmpty(balancedQuestions)) {
+            Title title = LookupExecutor.join(titleLookup);
+            model.addAttribute(ATTR_QUESTIONS_JSON, questionPayloadService.serialize(balancedQuestions).asString());
             model.addAttribute(ATTR_TOTAL, balancedQuestions.size());
             model.addAttribute(ATTR_SELECTED_COUNT, questionCount);
             model.addAttribute(ATTR_SELECTED_DIFFICULTY, difficulty);
             model.addAttribute(ATTR_QUIZ_TITLE, title.getName());
-            Optional<SubCategory> subCategory = quizService.findSubCategoryByName(title.getSubCategoryName());
+            Optional<SubCategory> subCategory = LookupExecutor.join(subCategoryLookup);
             if (subCategory.isPresent()) {
                 model.addAttribute(ATTR_TITLE, title);
                 model.addAttribute(ATTR_SUBCATEGORY, subCategory.get().getName());
@@ -220,142 +279,138 @@ public class QuizController {
         return REDIRECT + QUIZ_CATEGORIES + REDIRECT_ERROR_PARAM + ERROR_QUIZ_NOT_FOUND;
     }
 
-    private List<Question> selectBalancedQuestions(List<Question> questions, int requestedCount, String difficulty) {
-        // Special handling for "mixed" difficulty - distribute evenly across all
-        // difficulty levels
-        if (DIFFICULTY_MIXED.equalsIgnoreCase(difficulty)) {
-            return selectMixedDifficultyQuestions(questions, requestedCount);
+    /**
+     * Due questions of the requested difficulty, most overdue first. When some
+     * due questions have another difficulty or no longer exist, the quiz is
+     * topped up with regular questions to the number due; cards of missing
+     * questions are removed on the way.
+     */
+    private List<Question> selectDueQuestions(String email, String titleName, int requestedCount,
+            String difficulty) {
+        int limit = requestedCount > 0 ? Math.min(requestedCount, maxReviewQuestions) : maxReviewQuestions;
+        List<String> dueIds = reviewScheduler.findDueQuestionIds(email, titleName, limit, Instant.now());
+        List<Question> due = quizService.findQuestionsByIds(dueIds);
+        if (due.size() < dueIds.size()) {
+            Set<String> found = new HashSet<>(due.stream().map(Question::getId).toList());
+            reviewScheduler.removeCards(dueIds.stream().filter(id -> !found.contains(id)).toList());
         }
-
-        // Get all questions filtered by difficulty and set subcategory names
-        List<Question> allQuestions = questions.stream()
-                .filter(q -> difficultyService.matchesDifficulty(q.getDifficulty(), difficulty))
-                .collect(Collectors.toList());
-
-        // If no questions match the difficulty, fall back to all questions
-        if (allQuestions.isEmpty()) {
-            allQuestions = questions;
+        List<Question> questions = new ArrayList<>(due.stream()
+                .filter(question -> difficultyService.matchesDifficulty(question.getDifficulty(), difficulty))
+                .toList());
+        // Nothing to review yet, play a regular quiz whose answers start the schedule
+        if (questions.isEmpty()) {
+            return selectQuestions(titleName, requestedCount, difficulty);
         }
-
-        // If no limit specified or limit >= total, return all filtered questions
-        // shuffled
-        if (requestedCount <= 0 || requestedCount >= allQuestions.size()) {
-            Collections.shuffle(allQuestions);
-            return allQuestions;
+        if (questions.size() < dueIds.size()) {
+            Set<String> chosen = new HashSet<>(questions.stream().map(Question::getId).toList());
+            // Enough for the top-up even if the whole review is sampled again
+            for (Question question : selectQuestions(titleName, dueIds.size() + questions.size(), difficulty)) {
+                if (questions.size() == dueIds.size()) {
+                    break;
+                }
+                if (chosen.add(question.getId())) {
+                    questions.add(question);
+                }
+            }
         }
+        return questions;
+    }
 
-        // Calculate questions per subcategory (ensure each subcategory gets at least 1
-        // question)
-        Map<String, List<Question>> questionsByTopicName = allQuestions.stream()
-                .collect(Collectors.groupingBy(Question::getTopicId));
-
-        int questionsPerTopic = Math.max(1, requestedCount / questionsByTopicName.size());
-        int remainder = requestedCount % questionsByTopicName.size();
-
-        List<Question> selectedQuestions = new ArrayList<>();
-
-        // Select questions from each subcategory
-        for (Map.Entry<String, List<Question>> entry : questionsByTopicName.entrySet()) {
-            List<Question> questionsList = entry.getValue();
-            Collections.shuffle(questionsList);
-            int questionsFromThisTopic = questionsPerTopic + (questionsList.size() < remainder ? 1 : 0);
-            questionsFromThisTopic = Math.min(questionsFromThisTopic, questionsList.size());
-
-            selectedQuestions.addAll(questionsList.subList(0, questionsFromThisTopic));
+    private List<Question> selectQuestions(String titleName, int requestedCount, String difficulty) {
+        if (SAMPLING_SERVER.equalsIgnoreCase(samplingMode)) {
+            return questionSamplingService.sampleBalanced(titleName, requestedCount, difficulty);
         }
-
-        // If we still need more questions (some topics had fewer questions), fill from
-        // remaining
-        if (selectedQuestions.size() < requestedCount) {
-            List<Question> remaining = allQuestions.stream()
-                    .filter(q -> !selectedQuestions.contains(q))
-                    .collect(Collectors.toList());
-            Collections.shuffle(remaining);
-
-            int needed = requestedCount - selectedQuestions.size();
-            selectedQuestions.addAll(remaining.subList(0, Math.min(needed, remaining.size())));
+        TitleQuestionIndex index = questionIndexService.getIndex(titleName);
+        if (index.isEmpty()) {
+            return List.of();
         }
-
-        // Final shuffle
-        Collections.shuffle(selectedQuestions);
-        return selectedQuestions;
+        return quizService.findQuestionsByIds(selectBalancedQuestions(index, requestedCount, difficulty));
     }
 
-    private List<Question> selectMixedDifficultyQuestions(List<Question> questions, int requestedCount) {
-        List<String> difficultyLevels = DIFFICULTY_LEVELS;
-        Map<String, List<Question>> questionsByDifficultyLevel = questions.stream()
-                .collect(Collectors.groupingBy(Question::getDifficulty));
-
-        // Calculate total available questions
-        int totalAvailable = questionsByDifficultyLevel.values().stream().mapToInt(List::size).sum();
-
-        // If no limit specified or limit >= total, return all questions shuffled
-        if (requestedCount <= 0 || requestedCount >= totalAvailable) {
-            List<Question> allQuestions = questionsByDifficultyLevel.values().stream()
-                    .flatMap(List::stream)
-                    .collect(Collectors.toList());
-            Collections.shuffle(allQuestions);
-            return allQuestions;
+    private List<String> selectBalancedQuestions(TitleQuestionIndex index, int requestedCount, String difficulty) {
+        // "mixed" distributes evenly across difficulty levels, anything else across topics
+        int[] positions = DIFFICULTY_MIXED.equalsIgnoreCase(difficulty)
+                ? questionSampler.sampleByDifficulty(index, requestedCount)
+                : questionSampler.sampleByTopic(index, requestedCount,
+                        difficultyService.getDifficultyOrdinalForUiLevel(difficulty));
+
+        List<String> questionIds = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            questionIds.add(index.questionId(position));
         }
+        return questionIds;
+    }
 
-        // Distribute questions evenly across difficulty levels
-        List<Question> selectedQuestions = new ArrayList<>();
-        int questionsPerDifficulty = requestedCount / questionsByDifficultyLevel.values().size();
-        int remainder = requestedCount % questionsByDifficultyLevel.size();
+    @PostMapping(QUIZ_SUBMIT_RESULTS)
+    public ResponseEntity<Map<String, Object>> submitQuizResults(@RequestBody Map<String, Object> results,
+            @AuthenticationPrincipal OAuth2User principal) {
 
-        for (int i = 0; i < difficultyLevels.size(); i++) {
-            String level = difficultyLevels.get(i);
-            List<Question> questionsForLevel = questionsByDifficultyLevel.get(level);
+        String email = principal != null ? principal.getAttribute("email") : null;
+        Map<String, Object> response = new HashMap<>();
+        response.put(RESULT_SCORE, results.get(RESULT_CORRECT) + "/" + results.get(RESULT_TOTAL));
 
-            if (questionsForLevel == null || questionsForLevel.isEmpty()) {
-                continue;
-            }
+        // Queued for a background batch insert, the request does not wait for MongoDB
+        if (!quizAttemptWriter.submit(toAttempt(results, email))) {
+            response.put(RESULT_SUCCESS, false);
+            response.put(RESULT_MESSAGE, ERROR_RESULTS_BUSY);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(response);
+        }
+        response.put(RESULT_SUCCESS, true);
+        response.put(RESULT_MESSAGE, SUCCESS_RESULTS_MESSAGE);
 
-            Collections.shuffle(questionsForLevel);
+        LOG.info("User {} completed a quiz with score {}", email != null ? email : "Anonymous",
+                response.get(RESULT_SCORE));
 
-            // Add extra question to some levels if there's remainder
-            int questionsFromThisLevel = questionsPerDifficulty + (i < remainder ? 1 : 0);
-            questionsFromThisLevel = Math.min(questionsFromThisLevel, questionsForLevel.size());
+        return ResponseEntity.ok(response);
+    }
 
-            selectedQuestions.addAll(questionsForLevel.subList(0, questionsFromThisLevel));
+    private QuizAttempt toAttempt(Map<String, Object> results, String email) {
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setUserEmail(email);
+        attempt.setTitleName(asString(results.get(RESULT_TITLE_NAME)));
+        attempt.setTopicId(asString(results.get(RESULT_TOPIC_ID)));
+        attempt.setCorrectAnswers(asInt(results.get(RESULT_CORRECT)));
+        attempt.setTotalQuestions(asInt(results.get(RESULT_TOTAL)));
+        // Client supplied, an oversized attempt would fail the insert of its whole batch
+        int maxQuestions = attempt.getTotalQuestions() > 0
+                ? Math.min(attempt.getTotalQuestions(), maxAttemptQuestions)
+                : maxAttemptQuestions;
+        if (results.get(RESULT_QUESTION_IDS) instanceof List<?> questionIds) {
+            questionIds.stream().map(QuizController::asString).filter(Objects::nonNull)
+                    .limit(maxQuestions)
+                    .forEach(attempt.getQuestionIds()::add);
         }
-
-        // If we still need more questions (some levels had fewer questions), fill from
-        // remaining
-        if (selectedQuestions.size() < requestedCount) {
-            List<Question> remaining = new ArrayList<>();
-            for (String level : difficultyLevels) {
-                List<Question> levelQuestions = questionsByDifficultyLevel.get(level);
-                if (levelQuestions != null) {
-                    remaining.addAll(levelQuestions.stream()
-                            .filter(q -> !selectedQuestions.contains(q))
-                            .toList());
+        if (results.get(RESULT_WRONG_ANSWERS) instanceof List<?> wrongAnswers) {
+            for (Object wrongAnswer : wrongAnswers) {
+                if (attempt.getWrongQuestionIds().size() >= maxQuestions) {
+                    break;
+                }
+                if (wrongAnswer instanceof Map<?, ?> answer && answer.get("question") instanceof Map<?, ?> question
+                        && question.get("id") != null) {
+                    attempt.getWrongQuestionIds().add(question.get("id").toString());
                 }
             }
-            Collections.shuffle(remaining);
-
-            int needed = requestedCount - selectedQuestions.size();
-            selectedQuestions.addAll(remaining.subList(0, Math.min(needed, remaining.size())));
         }
-
-        // Final shuffle to mix difficulty levels
-        Collections.shuffle(selectedQuestions);
-        return selectedQuestions;
+        Instant now = Instant.now();
+        attempt.setSubmittedAt(now);
+        attempt.setCompletedAt(now);
+        if (results.get(RESULT_COMPLETED_AT) instanceof String completedAt) {
+            try {
+                attempt.setCompletedAt(Instant.parse(completedAt));
+            } catch (DateTimeParseException e) {
+                LOG.debug("Ignoring completion time {}", completedAt);
+            }
+        }
+        return attempt;
     }
 
-    @PostMapping(QUIZ_SUBMIT_RESULTS)
-    @ResponseBody
-    public Map<String, Object> submitQuizResults(@RequestBody Map<String, Object> results,
-            @AuthenticationPrincipal OAuth2User principal) {
-
-        Map<String, Object> response = new HashMap<>();
-        response.put(RESULT_SUCCESS, true);
-        response.put(RESULT_MESSAGE, SUCCESS_RESULTS_MESSAGE);
-        response.put(RESULT_SCORE, results.get(RESULT_CORRECT) + "/" + results.get(RESULT_TOTAL));
-
-        LOG.info("User {} completed a quiz with results: {}",
-                principal != null ? principal.getAttribute("email") : "Anonymous", results);
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
 
-        return response;
+    private static int asInt(Object value) {
+        return value instanceof Number number ? number.intValue() : 0;
     }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package hu.elte.inf.projects.quizme.controller;
+
+import static hu.elte.inf.projects.quizme.util.QuizConstants.API_TITLE_QUESTIONS_STREAM;
+import static hu.elte.inf.projects.quizme.util.QuizConstants.API_TOPIC_QUESTIONS_STREAM;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import hu.elte.inf.projects.quizme.repository.ReactiveQuestionRepository;
+import hu.elte.inf.projects.quizme.repository.ReactiveTopicRepository;
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streams quiz questions as newline-delimited JSON while the MongoDB cursor
+ * yields them. Handlers return before any document is read, so open quiz
+ * sessions do not hold a request thread while waiting on MongoDB.
+ * <p>
+ * The application runs on Spring MVC, not WebFlux: the returned {@link Flux}
+ * is subscribed to through async servlet processing, and each question is
+ * written with blocking servlet I/O on the reactive driver's thread that
+ * emitted it. A slow client therefore stalls that driver thread for the
+ * duration of the write. The streams also use a second MongoDB client with a
+ * connection pool of its own, capped by
+ * {@code app.mongo.reactive.max-pool-size} (see {@code ReactiveMongoConfig}).
+ */
+@RestController
+@RequestMapping("/api")
+public class QuizStreamController {
+
+    private final ReactiveTopicRepository topicRepository;
+    private final ReactiveQuestionRepository questionRepository;
+
+    public QuizStreamController(ReactiveTopicRepository topicRepository,
+            ReactiveQuestionRepository questionRepository) {
+        this.topicRepository = topicRepository;
+        this.questionRepository = questionRepository;
+    }
+
+    @GetMapping(value = API_TITLE_QUESTIONS_STREAM, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<Question>>> titleQuestions(@PathVariable String titleName) {
+        return topicRepository.findTopicIdsByTitleName(titleName)
+                .map(Topic::getTopicId)
+                .collectList()
+                .map(topicIds -> topicIds.isEmpty()
+                        ? ResponseEntity.notFound().build()
+                        : stream(questionRepository.findByTopicIdIn(topicIds)));
+    }
+
+    @GetMapping(value = API_TOPIC_QUESTIONS_STREAM, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<Question>>> topicQuestions(@PathVariable String topicId) {
+        // The status is decided before the first question, streaming commits the response
+        return topicRepository.existsByTopicId(topicId)
+                .map(exists -> exists
+                        ? stream(questionRepository.findByTopicId(topicId))
+                        : ResponseEntity.notFound().build());
+    }
+
+    private static ResponseEntity<Flux<Question>> stream(Flux<Question> questions) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(questions);
+    }
+}
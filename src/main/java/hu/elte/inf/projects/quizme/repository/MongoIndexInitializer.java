@@ -0,0 +1,216 @@
+package hu.elte.inf.projects.quizme.repository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.ExplainVerbosity;
+
+import hu.elte.inf.projects.quizme.repository.dto.Category;
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.QuizAttempt;
+import hu.elte.inf.projects.quizme.repository.dto.ReviewCard;
+import hu.elte.inf.projects.quizme.repository.dto.SubCategory;
+import hu.elte.inf.projects.quizme.repository.dto.Title;
+import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import hu.elte.inf.projects.quizme.repository.dto.User;
+import hu.elte.inf.projects.quizme.service.DifficultyMappingsChangedEvent;
+import hu.elte.inf.projects.quizme.service.JsonDifficultyService;
+import hu.elte.inf.projects.quizme.service.catalog.CatalogChangedEvent;
+
+/**
+ * Ensures the indexes behind every repository query once the context is up,
+ * then optionally explains each query path and logs whether it is served by
+ * an index. Indexes are declared here rather than with {@code @Indexed},
+ * because the catalog documents embed each other and annotation based
+ * resolution would also index the embedded copies.
+ */
+@Component
+public class MongoIndexInitializer {
+    private static final Logger LOG = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final QuestionRepository questionRepository;
+    private final JsonDifficultyService difficultyService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean explainQueries;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate, QuestionRepository questionRepository,
+            JsonDifficultyService difficultyService, ApplicationEventPublisher eventPublisher,
+            @Value("${app.mongo.explain-queries:true}") boolean explainQueries) {
+        this.mongoTemplate = mongoTemplate;
+        this.questionRepository = questionRepository;
+        this.difficultyService = difficultyService;
+        this.eventPublisher = eventPublisher;
+        this.explainQueries = explainQueries;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        // Catalog names are natural keys: concurrent imports rely on them to upsert safely
+        ensureIndex(Category.class, new Index().on("name", Sort.Direction.ASC).unique());
+        ensureIndex(SubCategory.class, new Index().on("name", Sort.Direction.ASC).unique());
+        ensureIndex(SubCategory.class, new Index().on("categoryName", Sort.Direction.ASC));
+        // The prefix also serves findByCategoryName
+        ensureIndex(Title.class, new Index().on("name", Sort.Direction.ASC).unique());
+        ensureIndex(Title.class, new Index().on("category_name", Sort.Direction.ASC)
+                .on("sub_category_name", Sort.Direction.ASC));
+        ensureIndex(Title.class, new Index().on("sub_category_name", Sort.Direction.ASC));
+
+        ensureIndex(Topic.class, new Index().on("topic_id", Sort.Direction.ASC));
+        ensureIndex(Topic.class, new Index().on("title_name", Sort.Direction.ASC));
+        ensureIndex(Topic.class, new Index().on("topic_name", Sort.Direction.ASC));
+
+        // topic_id alone and topic_id + difficulty (server-side sampling) share this one
+        ensureIndex(Question.class, new Index().on("topic_id", Sort.Direction.ASC)
+                .on("difficulty", Sort.Direction.ASC));
+
+        // Import upserts are keyed on the content hash; older questions get theirs first
+        try {
+            int backfilled = questionRepository.backfillContentHashes();
+            if (backfilled > 0) {
+                LOG.info("Backfilled content hash of {} questions", backfilled);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Could not backfill question content hashes", e);
+        }
+        backfillDifficultyLevels();
+        ensureIndex(Question.class, new Index().on("content_hash", Sort.Direction.ASC).unique().sparse());
+
+        ensureIndex(User.class, new Index().on("email", Sort.Direction.ASC).unique());
+        // A user's attempt history, newest first
+        ensureIndex(QuizAttempt.class, new Index().on("user_email", Sort.Direction.ASC)
+                .on("completed_at", Sort.Direction.DESC));
+        // Only attempts some listener has not processed yet carry folded_by
+        ensureIndex(QuizAttempt.class, new Index().on("folded_by", Sort.Direction.ASC).sparse());
+        // One card per user and question, the key review updates upsert on
+        ensureIndex(ReviewCard.class, new Index().on("user_email", Sort.Direction.ASC)
+                .on("question_id", Sort.Direction.ASC).unique());
+        // Due questions of a user in a title: equality prefix, range on due, question_id covers the projection
+        ensureIndex(ReviewCard.class, new Index().on("user_email", Sort.Direction.ASC)
+                .on("title_name", Sort.Direction.ASC)
+                .on("due", Sort.Direction.ASC)
+                .on("question_id", Sort.Direction.ASC));
+        // Cards of deleted questions, removed for every user
+        ensureIndex(ReviewCard.class, new Index().on("question_id", Sort.Direction.ASC));
+
+        if (explainQueries) {
+            explainQueryPaths();
+        }
+    }
+
+    /**
+     * Brings the difficulty ordinals stored on questions in line with the
+     * current mappings, at startup and whenever they change. Question indexes
+     * built from the old ordinals are dropped afterwards.
+     */
+    @EventListener(DifficultyMappingsChangedEvent.class)
+    public void backfillDifficultyLevels() {
+        try {
+            int backfilled = questionRepository.backfillDifficultyLevels(difficultyService::getDifficultyOrdinal);
+            if (backfilled > 0) {
+                LOG.info("Updated difficulty level of {} questions", backfilled);
+                eventPublisher.publishEvent(CatalogChangedEvent.all());
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Could not backfill question difficulty levels", e);
+        }
+    }
+
+    private void ensureIndex(Class<?> entityClass, Index index) {
+        try {
+            String name = mongoTemplate.indexOps(entityClass).createIndex(index);
+            LOG.debug("Ensured index {} on {}", name, mongoTemplate.getCollectionName(entityClass));
+        } catch (RuntimeException e) {
+            // Do not block startup, e.g. when existing data violates a unique key
+            LOG.warn("Could not create index {} on {}", index.getIndexKeys(),
+                    mongoTemplate.getCollectionName(entityClass), e);
+        }
+    }
+
+    /**
+     * Explains the filter of every derived and annotated repository query.
+     * Only the shape matters to the planner, so placeholder values are used.
+     */
+    private void explainQueryPaths() {
+        Document anyOf = new Document("$in", List.of(""));
+        explain("CategoryRepository.findByName", Category.class, new Document("name", ""));
+        explain("SubCategoryRepository.findByName", SubCategory.class, new Document("name", ""));
+        explain("SubCategoryRepository.findByCategoryName", SubCategory.class, new Document("categoryName", ""));
+        explain("TitleRepository.findByName", Title.class, new Document("name", ""));
+        explain("TitleRepository.findByCategoryName", Title.class, new Document("category_name", ""));
+        explain("TitleRepository.findBySubCategoryName", Title.class, new Document("sub_category_name", ""));
+        explain("TitleRepository.findByCategoryNameAndSubCategoryName", Title.class,
+                new Document("category_name", "").append("sub_category_name", ""));
+        explain("TopicRepository.findByTopicId", Topic.class, new Document("topic_id", ""));
+        explain("TopicRepository.findByTopicIdIn", Topic.class, new Document("topic_id", anyOf));
+        explain("TopicRepository.findByTitleName", Topic.class, new Document("title_name", ""));
+        explain("TopicRepository.findByTopicName", Topic.class, new Document("topic_name", ""));
+        explain("QuestionRepository.findByTopicId", Question.class, new Document("topic_id", ""));
+        explain("QuestionRepository.findByTopicIdIn", Question.class, new Document("topic_id", anyOf));
+        explain("QuestionRepository.findByTopicIdInAndDifficultyIn", Question.class,
+                new Document("topic_id", anyOf).append("difficulty", anyOf));
+        explain("QuestionRepository.findIndexEntriesByIdIn", Question.class, new Document("_id", anyOf));
+        explain("QuestionRepository.findContentHashesByContentHashIn", Question.class,
+                new Document("content_hash", anyOf));
+        explain("UserRepository.findByEmail", User.class, new Document("email", ""));
+        explain("QuizAttemptRepository.findByUserEmailOrderByCompletedAtDesc", QuizAttempt.class,
+                new Document("user_email", ""));
+        explain("ReviewCardRepository.findByUserEmail", ReviewCard.class, new Document("user_email", ""));
+        explain("ReviewScheduler.findDueQuestionIds", ReviewCard.class, new Document("user_email", "")
+                .append("title_name", "").append("due", new Document("$lte", new Date(0))));
+        explain("ReviewScheduler.removeCards", ReviewCard.class, new Document("question_id", anyOf));
+    }
+
+    private void explain(String queryPath, Class<?> entityClass, Document filter) {
+        String collection = mongoTemplate.getCollectionName(entityClass);
+        try {
+            Document explanation = mongoTemplate.getCollection(collection).find(filter)
+                    .explain(ExplainVerbosity.QUERY_PLANNER);
+            Document queryPlanner = explanation.get("queryPlanner", Document.class);
+            List<String> stages = new ArrayList<>();
+            if (queryPlanner != null) {
+                collectStages(queryPlanner.get("winningPlan"), stages);
+            }
+
+            if (stages.isEmpty()) {
+                LOG.debug("{}: no query plan reported", queryPath);
+            } else if (stages.contains("COLLSCAN")) {
+                LOG.warn("{}: collection scan on {} ({})", queryPath, collection, String.join(" <- ", stages));
+            } else {
+                LOG.info("{}: {}", queryPath, String.join(" <- ", stages));
+            }
+        } catch (RuntimeException e) {
+            LOG.debug("Could not explain {} on {}", queryPath, collection, e);
+        }
+    }
+
+    /**
+     * Walks a plan tree, collecting stages top-down together with the index
+     * used by each index scan.
+     */
+    private static void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document plan) {
+            Object stage = plan.get("stage");
+            if (stage != null) {
+                Object indexName = plan.get("indexName");
+                stages.add(indexName != null ? stage + "(" + indexName + ")" : stage.toString());
+            }
+            plan.values().forEach(child -> collectStages(child, stages));
+        } else if (node instanceof List<?> children) {
+            children.forEach(child -> collectStages(child, stages));
+        }
+    }
+}
@@ -2,15 +2,25 @@ package hu.elte.inf.projects.quizme.repository;
 
 import hu.elte.inf.projects.quizme.repository.dto.Question;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface QuestionRepository extends MongoRepository<Question, String> {
+public interface QuestionRepository extends MongoRepository<Question, String>, QuestionRepositoryCustom {
     List<Question> findByTopicId(String topicId);
 
     List<Question> findByIdIn(List<String> questionIds);
 
-    List<Question> findByQuestionIn(List<String> questions);
-
     List<Question> findByTopicIdIn(List<String> topicIds);
+
+    List<Question> findByTopicIdInAndDifficultyIn(Collection<String> topicIds, Collection<String> difficulties);
+
+    // Only the fields needed for quiz selection, used to build the per-title question index
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'topic_id': 1, 'difficulty': 1, 'difficulty_level': 1 }")
+    List<Question> findIndexEntriesByIdIn(List<String> questionIds);
+
+    // Duplicate check on import, served from the unique content_hash index
+    @Query(value = "{ 'content_hash': { $in: ?0 } }", fields = "{ 'content_hash': 1 }")
+    List<Question> findContentHashesByContentHashIn(Collection<String> contentHashes);
 }
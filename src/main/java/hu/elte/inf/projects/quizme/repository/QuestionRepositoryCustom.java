@@ -0,0 +1,41 @@
+package hu.elte.inf.projects.quizme.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.StratumCount;
+import hu.elte.inf.projects.quizme.repository.dto.StratumSample;
+
+public interface QuestionRepositoryCustom {
+
+    /**
+     * Counts the questions of the given topics grouped by topic id and raw
+     * difficulty label.
+     */
+    List<StratumCount> countByTopicAndDifficulty(Collection<String> topicIds);
+
+    /**
+     * Draws a random sample for every stratum, each with its own indexed
+     * {@code $match} + {@code $sample} aggregation.
+     */
+    List<Question> sampleStrata(List<StratumSample> samples);
+
+    /**
+     * Sets the content hash on questions stored before it was introduced.
+     *
+     * @return number of questions updated
+     */
+    int backfillContentHashes();
+
+    /**
+     * Sets the difficulty ordinal on every question whose stored ordinal is
+     * missing or differs from the one its label maps to now, so ordinals follow
+     * changed mappings and sort orders. One update per distinct label.
+     *
+     * @param classifier maps a difficulty label to its ordinal
+     * @return number of questions updated
+     */
+    int backfillDifficultyLevels(ToIntFunction<String> classifier);
+}
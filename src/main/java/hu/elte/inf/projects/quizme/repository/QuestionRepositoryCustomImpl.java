@@ -0,0 +1,128 @@
+package hu.elte.inf.projects.quizme.repository;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.sample;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.StratumCount;
+import hu.elte.inf.projects.quizme.repository.dto.StratumSample;
+
+public class QuestionRepositoryCustomImpl implements QuestionRepositoryCustom {
+
+    private static final String TOPIC_ID = "topic_id";
+    private static final String DIFFICULTY = "difficulty";
+    private static final String CONTENT_HASH = "content_hash";
+    private static final String DIFFICULTY_LEVEL = "difficulty_level";
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    public QuestionRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<StratumCount> countByTopicAndDifficulty(Collection<String> topicIds) {
+        Aggregation aggregation = newAggregation(
+                match(Criteria.where(TOPIC_ID).in(topicIds)),
+                group(TOPIC_ID, DIFFICULTY).count().as("count"));
+
+        List<StratumCount> counts = new ArrayList<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, Question.class, Document.class)) {
+            Document id = result.get("_id", Document.class);
+            counts.add(new StratumCount(id.getString(TOPIC_ID), id.getString(DIFFICULTY),
+                    result.getInteger("count")));
+        }
+        return counts;
+    }
+
+    @Override
+    public List<Question> sampleStrata(List<StratumSample> samples) {
+        // One aggregation per stratum: a leading $match can use the (topic_id, difficulty) index,
+        // which a $facet branch cannot, and no result is bound by the 16 MB document limit
+        List<Question> questions = new ArrayList<>();
+        for (StratumSample stratum : samples) {
+            if (stratum.getSize() <= 0) {
+                continue;
+            }
+            Criteria criteria = Criteria.where(TOPIC_ID).in(stratum.getTopicIds())
+                    .and(DIFFICULTY).in(stratum.getDifficulties());
+            questions.addAll(mongoTemplate.aggregate(newAggregation(match(criteria), sample(stratum.getSize())),
+                    Question.class, Question.class).getMappedResults());
+        }
+        return questions;
+    }
+
+    @Override
+    public int backfillContentHashes() {
+        Query query = Query.query(Criteria.where(CONTENT_HASH).exists(false))
+                .cursorBatchSize(BACKFILL_BATCH_SIZE);
+        query.fields().include("question", "options", TOPIC_ID);
+
+        int updated = 0;
+        BulkOperations updates = null;
+        int pending = 0;
+        // Read through the cursor, only one batch of questions is held at a time
+        try (Stream<Question> questions = mongoTemplate.stream(query, Question.class)) {
+            Iterator<Question> iterator = questions.iterator();
+            while (iterator.hasNext()) {
+                Question question = iterator.next();
+                question.createAndSetContentHash();
+                if (updates == null) {
+                    updates = mongoTemplate.bulkOps(BulkMode.UNORDERED, Question.class);
+                }
+                updates.updateOne(Query.query(Criteria.where("_id").is(question.getId())),
+                        Update.update(CONTENT_HASH, question.getContentHash()));
+                if (++pending == BACKFILL_BATCH_SIZE) {
+                    updated += updates.execute().getModifiedCount();
+                    updates = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (updates != null) {
+            updated += updates.execute().getModifiedCount();
+        }
+        return updated;
+    }
+
+    @Override
+    public int backfillDifficultyLevels(ToIntFunction<String> classifier) {
+        // One update per distinct label instead of one per question
+        List<String> labels = mongoTemplate.findDistinct(new Query(), DIFFICULTY, Question.class, String.class);
+
+        int updated = 0;
+        for (String label : labels) {
+            if (label != null) {
+                updated += updateDifficultyLevel(Criteria.where(DIFFICULTY).is(label), classifier.applyAsInt(label));
+            }
+        }
+        // Missing and null labels
+        updated += updateDifficultyLevel(Criteria.where(DIFFICULTY).is(null), classifier.applyAsInt(null));
+        return updated;
+    }
+
+    // $ne also matches questions stored without an ordinal
+    private int updateDifficultyLevel(Criteria label, int level) {
+        return (int) mongoTemplate.updateMulti(Query.query(label.and(DIFFICULTY_LEVEL).ne(level)),
+                Update.update(DIFFICULTY_LEVEL, level), Question.class).getModifiedCount();
+    }
+}
@@ -0,0 +1,11 @@
+package hu.elte.inf.projects.quizme.repository;
+
+import hu.elte.inf.projects.quizme.repository.dto.QuestionStats;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+// Keyed by question id, maintained by QuestionStatsService
+public interface QuestionStatsRepository extends MongoRepository<QuestionStats, String> {
+    List<QuestionStats> findByAnsweredGreaterThanEqual(long answered);
+}
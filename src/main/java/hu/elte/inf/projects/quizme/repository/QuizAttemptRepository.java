@@ -0,0 +1,33 @@
+package hu.elte.inf.projects.quizme.repository;
+
+import hu.elte.inf.projects.quizme.repository.dto.QuizAttempt;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+// Attempts are written in batches by QuizAttemptWriter
+public interface QuizAttemptRepository extends MongoRepository<QuizAttempt, String> {
+    List<QuizAttempt> findByUserEmailOrderByCompletedAtDesc(String userEmail);
+
+    // Attempts not processed by every listener yet and retried fewer than maxRetries times,
+    // served by the sparse folded_by index
+    @Query("{ 'folded_by': { $exists: true }, 'submitted_at': { $lt: ?0 }, 'fold_retries': { $not: { $gte: ?1 } } }")
+    List<QuizAttempt> findUnfoldedSubmittedBefore(Instant submittedBefore, int maxRetries, Pageable pageable);
+
+    @Query("{ '_id': { $in: ?0 } }")
+    @Update("{ $inc: { 'fold_retries': 1 } }")
+    long incrementFoldRetries(Collection<String> ids);
+
+    @Query("{ '_id': { $in: ?0 } }")
+    @Update("{ $set: { 'folded_at': ?1 }, $unset: { 'folded_by': '' } }")
+    long markFolded(Collection<String> ids, Instant foldedAt);
+
+    @Query("{ '_id': { $in: ?0 } }")
+    @Update("{ $addToSet: { 'folded_by': { $each: ?1 } } }")
+    long markFoldedBy(Collection<String> ids, Collection<String> listeners);
+}
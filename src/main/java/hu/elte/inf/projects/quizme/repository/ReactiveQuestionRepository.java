@@ -0,0 +1,14 @@
+package hu.elte.inf.projects.quizme.repository;
+
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+// Non-blocking reads for streamed question delivery, writes stay on QuestionRepository
+public interface ReactiveQuestionRepository extends ReactiveMongoRepository<Question, String> {
+    Flux<Question> findByTopicId(String topicId);
+
+    Flux<Question> findByTopicIdIn(Collection<String> topicIds);
+}
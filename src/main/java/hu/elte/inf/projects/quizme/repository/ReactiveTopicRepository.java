@@ -0,0 +1,16 @@
+package hu.elte.inf.projects.quizme.repository;
+
+import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking reads for streamed question delivery, writes stay on TopicRepository
+public interface ReactiveTopicRepository extends ReactiveMongoRepository<Topic, String> {
+    Mono<Boolean> existsByTopicId(String topicId);
+
+    // Topic ids only, without the question_ids arrays
+    @Query(value = "{ 'title_name': ?0 }", fields = "{ 'topic_id': 1 }")
+    Flux<Topic> findTopicIdsByTitleName(String titleName);
+}
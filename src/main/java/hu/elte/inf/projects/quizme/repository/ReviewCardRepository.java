@@ -0,0 +1,11 @@
+package hu.elte.inf.projects.quizme.repository;
+
+import hu.elte.inf.projects.quizme.repository.dto.ReviewCard;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+// Maintained by ReviewScheduler, due questions are read through it with a covered index scan
+public interface ReviewCardRepository extends MongoRepository<ReviewCard, String> {
+    List<ReviewCard> findByUserEmail(String userEmail);
+}
@@ -1,7 +1,9 @@
 package hu.elte.inf.projects.quizme.repository;
 
 import hu.elte.inf.projects.quizme.repository.dto.Title;
+import hu.elte.inf.projects.quizme.repository.dto.TitleSummary;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.util.List;
 
@@ -13,4 +15,13 @@ public interface TitleRepository extends MongoRepository<Title, String> {
     List<Title> findByCategoryName(String categoryName);
 
     List<Title> findByCategoryNameAndSubCategoryName(String categoryName, String subCategoryName);
+
+    // Listing page fields only, without study tips, topic ids and media links
+    @Query(value = "{ 'category_name': ?0, 'sub_category_name': ?1 }",
+            fields = "{ 'name': 1, 'alias': 1, 'description': 1, 'learning_objectives': 1 }")
+    List<TitleSummary> findSummariesByCategoryNameAndSubCategoryName(String categoryName, String subCategoryName);
+
+    // Navigation fields only, for the catalog snapshot
+    @Query(value = "{}", fields = "{ 'name': 1, 'category_name': 1, 'sub_category_name': 1 }")
+    List<Title> findNavigationEntries();
 }
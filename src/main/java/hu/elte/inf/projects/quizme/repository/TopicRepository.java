@@ -1,8 +1,12 @@
 package hu.elte.inf.projects.quizme.repository;
 
 import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import hu.elte.inf.projects.quizme.repository.dto.TopicSummary;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +19,24 @@ public interface TopicRepository extends MongoRepository<Topic, String> {
     List<Topic> findByTitleName(String titleName);
 
     List<Topic> findByTopicName(String topicName);
+
+    // Topic ids only, without the question_ids arrays
+    @Query(value = "{ 'title_name': ?0 }", fields = "{ 'topic_id': 1 }")
+    List<Topic> findTopicIdsByTitleName(String titleName);
+
+    // Topic ids with their title, without the question_ids arrays
+    @Query(value = "{ 'title_name': { $in: ?0 } }", fields = "{ 'topic_id': 1, 'title_name': 1 }")
+    List<Topic> findTopicIdsByTitleNameIn(Collection<String> titleNames);
+
+    // Topic ids with their title, for topics an import names
+    @Query(value = "{ 'topic_id': { $in: ?0 } }", fields = "{ 'topic_id': 1, 'title_name': 1 }")
+    List<Topic> findTopicIdsByTopicIdIn(Collection<String> topicIds);
+
+    // Listing page fields with the stored question count instead of the question_ids array
+    @Aggregation(pipeline = {
+            "{ $match: { 'title_name': ?0 } }",
+            "{ $project: { 'topic_id': 1, 'topic_name': 1, 'alias': 1, 'description': 1,"
+                    + " 'question_count': { $ifNull: ['$question_count', 0] } } }"
+    })
+    List<TopicSummary> findSummariesByTitleName(String titleName);
 }
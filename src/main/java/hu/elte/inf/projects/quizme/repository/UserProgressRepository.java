@@ -0,0 +1,8 @@
+package hu.elte.inf.projects.quizme.repository;
+
+import hu.elte.inf.projects.quizme.repository.dto.UserProgress;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+// Keyed by email, maintained by UserProgressService
+public interface UserProgressRepository extends MongoRepository<UserProgress, String> {
+}
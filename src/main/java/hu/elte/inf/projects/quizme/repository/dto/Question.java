@@ -1,11 +1,18 @@
 package hu.elte.inf.projects.quizme.repository.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
 
 @Document(collection = "questions")
 public class Question {
@@ -19,6 +26,11 @@ public class Question {
 
     private String difficulty;
 
+    // Ordinal of the difficulty label, set at import; 0 when unknown, see JsonDifficultyService
+    @Field("difficulty_level")
+    @JsonIgnore
+    private byte difficultyLevel;
+
     @Field("correct_answer")
     @JsonProperty("correct_answer")
     private int correctAnswer;
@@ -41,6 +53,40 @@ public class Question {
     @Field("category_name")
     private String categoryName;
 
+    // Identifies the same question across imports, see createAndSetContentHash()
+    @Field("content_hash")
+    @JsonIgnore
+    private String contentHash;
+
+    /**
+     * Sets the content hash: SHA-256 of the normalized question text, options
+     * and topic id. Case, Unicode composition and whitespace differences do
+     * not change the hash.
+     */
+    public void createAndSetContentHash() {
+        StringBuilder content = new StringBuilder(normalize(question));
+        if (options != null) {
+            options.forEach(option -> content.append('\u0000').append(normalize(option)));
+        }
+        content.append('\u0001').append(normalize(topicId));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            setContentHash(HexFormat.of().formatHex(digest));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return Normalizer.normalize(value, Normalizer.Form.NFC).strip().replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+
     // Getters and Setters
     public String getId() {
         return id;
@@ -129,4 +175,20 @@ public class Question {
     public void setCategoryName(String categoryName) {
         this.categoryName = categoryName;
     }
-}
\ No newline at end of file
+
+    public byte getDifficultyLevel() {
+        return difficultyLevel;
+    }
+
+    public void setDifficultyLevel(byte difficultyLevel) {
+        this.difficultyLevel = difficultyLevel;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+}
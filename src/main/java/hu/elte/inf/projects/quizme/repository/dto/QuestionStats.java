@@ -0,0 +1,57 @@
+package hu.elte.inf.projects.quizme.repository.dto;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * How often a question was answered and answered correctly, accumulated with
+ * {@code $inc} upserts by QuestionStatsService. Keyed by question id.
+ */
+@Document(collection = "question_stats")
+public class QuestionStats {
+
+    @Id
+    private String id;
+
+    private long answered;
+
+    private long correct;
+
+    @Field("updated_at")
+    private Instant updatedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getAnswered() {
+        return answered;
+    }
+
+    public void setAnswered(long answered) {
+        this.answered = answered;
+    }
+
+    public long getCorrect() {
+        return correct;
+    }
+
+    public void setCorrect(long correct) {
+        this.correct = correct;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,164 @@
+package hu.elte.inf.projects.quizme.repository.dto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * One finished quiz of a user, as submitted by the quiz player.
+ */
+@Document(collection = "quiz_attempts")
+public class QuizAttempt {
+
+    @Id
+    private String id;
+
+    // Null for anonymous players when security is disabled
+    @Field("user_email")
+    private String userEmail;
+
+    @Field("title_name")
+    private String titleName;
+
+    // Only set when a single topic was played
+    @Field("topic_id")
+    private String topicId;
+
+    @Field("question_ids")
+    private List<String> questionIds = new ArrayList<>();
+
+    @Field("wrong_question_ids")
+    private List<String> wrongQuestionIds = new ArrayList<>();
+
+    @Field("correct_answers")
+    private int correctAnswers;
+
+    @Field("total_questions")
+    private int totalQuestions;
+
+    @Field("completed_at")
+    private Instant completedAt;
+
+    @Field("submitted_at")
+    private Instant submittedAt;
+
+    // Listeners that processed the attempt, only present until all of them did
+    @Field("folded_by")
+    private List<String> foldedBy;
+
+    // When every listener had processed the attempt
+    @Field("folded_at")
+    private Instant foldedAt;
+
+    // Times the attempt was handed to its listeners again
+    @Field("fold_retries")
+    private int foldRetries;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public String getTitleName() {
+        return titleName;
+    }
+
+    public void setTitleName(String titleName) {
+        this.titleName = titleName;
+    }
+
+    public String getTopicId() {
+        return topicId;
+    }
+
+    public void setTopicId(String topicId) {
+        this.topicId = topicId;
+    }
+
+    public List<String> getQuestionIds() {
+        return questionIds;
+    }
+
+    public void setQuestionIds(List<String> questionIds) {
+        this.questionIds = questionIds;
+    }
+
+    public List<String> getWrongQuestionIds() {
+        return wrongQuestionIds;
+    }
+
+    public void setWrongQuestionIds(List<String> wrongQuestionIds) {
+        this.wrongQuestionIds = wrongQuestionIds;
+    }
+
+    public int getCorrectAnswers() {
+        return correctAnswers;
+    }
+
+    public void setCorrectAnswers(int correctAnswers) {
+        this.correctAnswers = correctAnswers;
+    }
+
+    public int getTotalQuestions() {
+        return totalQuestions;
+    }
+
+    public void setTotalQuestions(int totalQuestions) {
+        this.totalQuestions = totalQuestions;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public List<String> getFoldedBy() {
+        return foldedBy;
+    }
+
+    public void setFoldedBy(List<String> foldedBy) {
+        this.foldedBy = foldedBy;
+    }
+
+    public Instant getFoldedAt() {
+        return foldedAt;
+    }
+
+    public void setFoldedAt(Instant foldedAt) {
+        this.foldedAt = foldedAt;
+    }
+
+    public int getFoldRetries() {
+        return foldRetries;
+    }
+
+    public void setFoldRetries(int foldRetries) {
+        this.foldRetries = foldRetries;
+    }
+}
@@ -0,0 +1,114 @@
+package hu.elte.inf.projects.quizme.repository.dto;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Spaced-repetition state of one question for one user, maintained by
+ * ReviewScheduler. Only what the next review needs is kept: when the question
+ * is due and the SM-2 ease, interval and streak that set that date.
+ */
+@Document(collection = "review_cards")
+public class ReviewCard {
+
+    @Id
+    private String id;
+
+    @Field("user_email")
+    private String userEmail;
+
+    @Field("question_id")
+    private String questionId;
+
+    @Field("title_name")
+    private String titleName;
+
+    private Instant due;
+
+    private double ease;
+
+    @Field("interval_days")
+    private int intervalDays;
+
+    // Correct answers in a row
+    private int repetitions;
+
+    // Submission time of the last attempt applied, a retried attempt is not applied twice
+    @Field("reviewed_at")
+    private Instant reviewedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public String getQuestionId() {
+        return questionId;
+    }
+
+    public void setQuestionId(String questionId) {
+        this.questionId = questionId;
+    }
+
+    public String getTitleName() {
+        return titleName;
+    }
+
+    public void setTitleName(String titleName) {
+        this.titleName = titleName;
+    }
+
+    public Instant getDue() {
+        return due;
+    }
+
+    public void setDue(Instant due) {
+        this.due = due;
+    }
+
+    public double getEase() {
+        return ease;
+    }
+
+    public void setEase(double ease) {
+        this.ease = ease;
+    }
+
+    public int getIntervalDays() {
+        return intervalDays;
+    }
+
+    public void setIntervalDays(int intervalDays) {
+        this.intervalDays = intervalDays;
+    }
+
+    public int getRepetitions() {
+        return repetitions;
+    }
+
+    public void setRepetitions(int repetitions) {
+        this.repetitions = repetitions;
+    }
+
+    public Instant getReviewedAt() {
+        return reviewedAt;
+    }
+
+    public void setReviewedAt(Instant reviewedAt) {
+        this.reviewedAt = reviewedAt;
+    }
+}
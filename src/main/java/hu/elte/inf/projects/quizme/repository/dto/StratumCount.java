@@ -0,0 +1,29 @@
+package hu.elte.inf.projects.quizme.repository.dto;
+
+/**
+ * Number of questions sharing a topic id and a raw difficulty label.
+ */
+public class StratumCount {
+
+    private final String topicId;
+    private final String difficulty;
+    private final int count;
+
+    public StratumCount(String topicId, String difficulty, int count) {
+        this.topicId = topicId;
+        this.difficulty = difficulty;
+        this.count = count;
+    }
+
+    public String getTopicId() {
+        return topicId;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,32 @@
+package hu.elte.inf.projects.quizme.repository.dto;
+
+import java.util.Collection;
+
+/**
+ * A random sample request: {@code size} questions whose topic id and raw
+ * difficulty label are among the given values.
+ */
+public class StratumSample {
+
+    private final Collection<String> topicIds;
+    private final Collection<String> difficulties;
+    private final int size;
+
+    public StratumSample(Collection<String> topicIds, Collection<String> difficulties, int size) {
+        this.topicIds = topicIds;
+        this.difficulties = difficulties;
+        this.size = size;
+    }
+
+    public Collection<String> getTopicIds() {
+        return topicIds;
+    }
+
+    public Collection<String> getDifficulties() {
+        return difficulties;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
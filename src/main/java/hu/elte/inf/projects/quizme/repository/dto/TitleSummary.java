@@ -0,0 +1,41 @@
+package hu.elte.inf.projects.quizme.repository.dto;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * The part of a {@link Title} rendered on the title listing page.
+ */
+public class TitleSummary {
+
+    private final String name;
+    private final String alias;
+    private final String description;
+
+    @Field("learning_objectives")
+    private final List<String> learningObjectives;
+
+    public TitleSummary(String name, String alias, String description, List<String> learningObjectives) {
+        this.name = name;
+        this.alias = alias;
+        this.description = description;
+        this.learningObjectives = learningObjectives;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<String> getLearningObjectives() {
+        return learningObjectives;
+    }
+}
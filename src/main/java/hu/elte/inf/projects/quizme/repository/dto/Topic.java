@@ -40,6 +40,9 @@ public class Topic {
     @Field("question_ids")
     private List<String> questionIds = new ArrayList<>(); // References to Question documents
 
+    @Field("question_count")
+    private int questionCount; // Size of question_ids, maintained on import
+
     public void setId(String id) {
         this.id = id;
     }
@@ -111,4 +114,12 @@ public class Topic {
     public void setAlias(String alias) {
         this.alias = alias;
     }
-}
\ No newline at end of file
+
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    public void setQuestionCount(int questionCount) {
+        this.questionCount = questionCount;
+    }
+}
@@ -0,0 +1,50 @@
+package hu.elte.inf.projects.quizme.repository.dto;
+
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * The part of a {@link Topic} rendered on the topic listing page, with the
+ * size of its question list instead of the list itself.
+ */
+public class TopicSummary {
+
+    @Field("topic_id")
+    private final String topicId;
+
+    @Field("topic_name")
+    private final String topicName;
+
+    private final String alias;
+    private final String description;
+
+    @Field("question_count")
+    private final int questionCount;
+
+    public TopicSummary(String topicId, String topicName, String alias, String description, int questionCount) {
+        this.topicId = topicId;
+        this.topicName = topicName;
+        this.alias = alias;
+        this.description = description;
+        this.questionCount = questionCount;
+    }
+
+    public String getTopicId() {
+        return topicId;
+    }
+
+    public String getTopicName() {
+        return topicName;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public int getQuestionCount() {
+        return questionCount;
+    }
+}
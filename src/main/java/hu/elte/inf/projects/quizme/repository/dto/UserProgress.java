@@ -0,0 +1,177 @@
+package hu.elte.inf.projects.quizme.repository.dto;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Quiz statistics of one user, kept up to date with {@code $inc} upserts as
+ * attempts are stored, so the progress page reads a single document by id.
+ * Map keys are escaped names, the names themselves are stored in the values.
+ */
+@Document(collection = "user_progress")
+public class UserProgress {
+
+    @Id
+    private String email;
+
+    private long attempts;
+
+    private Map<String, TitleProgress> titles = new HashMap<>();
+
+    private Map<String, TopicProgress> topics = new HashMap<>();
+
+    private Map<String, DifficultyProgress> difficulties = new HashMap<>();
+
+    @Field("updated_at")
+    private Instant updatedAt;
+
+    public UserProgress() {
+    }
+
+    public UserProgress(String email) {
+        this.email = email;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(long attempts) {
+        this.attempts = attempts;
+    }
+
+    public Map<String, TitleProgress> getTitles() {
+        return titles;
+    }
+
+    public void setTitles(Map<String, TitleProgress> titles) {
+        this.titles = titles;
+    }
+
+    public Map<String, TopicProgress> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(Map<String, TopicProgress> topics) {
+        this.topics = topics;
+    }
+
+    public Map<String, DifficultyProgress> getDifficulties() {
+        return difficulties;
+    }
+
+    public void setDifficulties(Map<String, DifficultyProgress> difficulties) {
+        this.difficulties = difficulties;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public static class TitleProgress {
+        private String name;
+        private long attempts;
+
+        // Highest share of correct answers in one attempt, in percent
+        @Field("best_percent")
+        private int bestPercent;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public long getAttempts() {
+            return attempts;
+        }
+
+        public void setAttempts(long attempts) {
+            this.attempts = attempts;
+        }
+
+        public int getBestPercent() {
+            return bestPercent;
+        }
+
+        public void setBestPercent(int bestPercent) {
+            this.bestPercent = bestPercent;
+        }
+    }
+
+    public static class TopicProgress {
+        @Field("topic_id")
+        private String topicId;
+
+        private long attempts;
+
+        public String getTopicId() {
+            return topicId;
+        }
+
+        public void setTopicId(String topicId) {
+            this.topicId = topicId;
+        }
+
+        public long getAttempts() {
+            return attempts;
+        }
+
+        public void setAttempts(long attempts) {
+            this.attempts = attempts;
+        }
+    }
+
+    public static class DifficultyProgress {
+        private String level;
+        private long answered;
+        private long correct;
+
+        public String getLevel() {
+            return level;
+        }
+
+        public void setLevel(String level) {
+            this.level = level;
+        }
+
+        public long getAnswered() {
+            return answered;
+        }
+
+        public void setAnswered(long answered) {
+            this.answered = answered;
+        }
+
+        public long getCorrect() {
+            return correct;
+        }
+
+        public void setCorrect(long correct) {
+            this.correct = correct;
+        }
+
+        public int getAccuracyPercent() {
+            return answered > 0 ? (int) (correct * 100 / answered) : 0;
+        }
+    }
+}
@@ -10,11 +10,18 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import hu.elte.inf.projects.quizme.service.UserService;
 import hu.elte.inf.projects.quizme.util.QuizConstants;
 
 @Controller
 public class LoginController {
 
+    private final UserService userService;
+
+    public LoginController(UserService userService) {
+        this.userService = userService;
+    }
+
     @GetMapping("/login")
     public String login() {
         return "login";
@@ -31,7 +38,13 @@ public class LoginController {
     }
 
     @GetMapping("/my-data")
-    public String myData() {
+    public String myData(Model model, Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof OAuth2User oauth2User) {
+            String email = oauth2User.getAttribute("email");
+            if (email != null) {
+                model.addAttribute("progress", userService.findUserQuizProgress(email));
+            }
+        }
         return "my-data";
     }
 
@@ -0,0 +1,141 @@
+package hu.elte.inf.projects.quizme.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable label to difficulty ordinal lookup, compiled once from the
+ * difficulty mappings. The table is a perfect hash: a multiplier is searched
+ * at build time under which every label lands in its own slot, so a lookup
+ * hashes the label once, probes one slot and compares it character by
+ * character. Case and surrounding whitespace are ignored while hashing and
+ * comparing, which keeps {@link #classify} free of allocations.
+ */
+public final class DifficultyClassifier {
+
+    private static final int MAX_SEEDS_PER_SIZE = 4096;
+    private static final int MAX_LOAD_SHIFT = 6;
+
+    private final String[] labels;
+    private final byte[] ordinals;
+    private final int multiplier;
+    private final int mask;
+
+    private DifficultyClassifier(String[] labels, byte[] ordinals, int multiplier) {
+        this.labels = labels;
+        this.ordinals = ordinals;
+        this.multiplier = multiplier;
+        this.mask = labels.length - 1;
+    }
+
+    /**
+     * Compiles the lookup. Labels are normalized like lookups are, a label
+     * mapped twice keeps its last ordinal.
+     *
+     * @throws IllegalStateException if no collision-free table is found, which
+     *                               takes labels with identical hashes under
+     *                               thousands of multipliers
+     */
+    public static DifficultyClassifier of(Map<String, Byte> ordinalsByLabel) {
+        Map<String, Byte> normalized = new LinkedHashMap<>();
+        ordinalsByLabel.forEach((label, ordinal) -> {
+            if (label != null) {
+                normalized.put(normalize(label), ordinal);
+            }
+        });
+        String[] keys = normalized.keySet().toArray(new String[0]);
+
+        int minSize = Integer.highestOneBit(Math.max(1, keys.length * 2 - 1)) << 1;
+        for (int size = minSize; size <= minSize << MAX_LOAD_SHIFT; size <<= 1) {
+            // Odd multipliers keep every character significant in the hash
+            for (int seed = 0, multiplier = 31; seed < MAX_SEEDS_PER_SIZE; seed++, multiplier += 2) {
+                String[] labels = place(keys, size, multiplier);
+                if (labels != null) {
+                    byte[] ordinals = new byte[size];
+                    for (int slot = 0; slot < size; slot++) {
+                        if (labels[slot] != null) {
+                            ordinals[slot] = normalized.get(labels[slot]);
+                        }
+                    }
+                    return new DifficultyClassifier(labels, ordinals, multiplier);
+                }
+            }
+        }
+        throw new IllegalStateException("No perfect hash found for " + keys.length + " difficulty labels");
+    }
+
+    /**
+     * Ordinal of a difficulty label, or
+     * {@link JsonDifficultyService#DIFFICULTY_UNKNOWN} when it is missing or not
+     * mapped.
+     */
+    public byte classify(String label) {
+        if (label == null) {
+            return JsonDifficultyService.DIFFICULTY_UNKNOWN;
+        }
+        int start = 0;
+        int end = label.length();
+        // Same whitespace as String.trim()
+        while (start < end && label.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && label.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        int slot = slot(hash(label, start, end, multiplier));
+        String candidate = labels[slot];
+        if (candidate == null || candidate.length() != end - start) {
+            return JsonDifficultyService.DIFFICULTY_UNKNOWN;
+        }
+        for (int i = 0; i < candidate.length(); i++) {
+            if (Character.toLowerCase(label.charAt(start + i)) != candidate.charAt(i)) {
+                return JsonDifficultyService.DIFFICULTY_UNKNOWN;
+            }
+        }
+        return ordinals[slot];
+    }
+
+    /**
+     * Number of slots of the table, at least twice the number of labels.
+     */
+    int tableSize() {
+        return labels.length;
+    }
+
+    // Returns the table, or null if two labels collide under this multiplier
+    private static String[] place(String[] keys, int size, int multiplier) {
+        String[] table = new String[size];
+        for (String key : keys) {
+            int hash = hash(key, 0, key.length(), multiplier);
+            int slot = (hash ^ (hash >>> 16)) & (size - 1);
+            if (table[slot] != null) {
+                return null;
+            }
+            table[slot] = key;
+        }
+        return table;
+    }
+
+    private int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static int hash(String label, int start, int end, int multiplier) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = hash * multiplier + Character.toLowerCase(label.charAt(i));
+        }
+        return hash;
+    }
+
+    // Per character, so a normalized label is as long as the labels it matches
+    private static String normalize(String label) {
+        String trimmed = label.trim();
+        char[] chars = new char[trimmed.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(trimmed.charAt(i));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,9 @@
+package hu.elte.inf.projects.quizme.service;
+
+/**
+ * Published by {@link JsonDifficultyService} after its label mappings or
+ * level sort orders were reloaded or extended at runtime, so ordinals stored
+ * on questions can be brought in line with them.
+ */
+public class DifficultyMappingsChangedEvent {
+}
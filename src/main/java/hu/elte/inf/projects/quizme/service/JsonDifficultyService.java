@@ -1,30 +1,46 @@
 package hu.elte.inf.projects.quizme.service;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.service.cache.CacheConfig;
+
 @Service
 public class JsonDifficultyService {
 
     private static final Logger LOG = LoggerFactory.getLogger(JsonDifficultyService.class);
 
+    /** Ordinal of questions whose difficulty label is missing or not mapped. */
+    public static final byte DIFFICULTY_UNKNOWN = 0;
+
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
     private JsonNode difficultyConfig;
-    private Map<String, String> dataValueToUiLevelCache;
-
-    public JsonDifficultyService(ObjectMapper objectMapper) {
+    // Source of the classifier in file order, runtime mappings are appended
+    // and recompiled; of labels equal but for case and padding the last wins
+    private Map<String, Byte> labelOrdinals;
+    private volatile DifficultyClassifier classifier;
+    private Map<String, Byte> uiLevelOrdinals;
+    private String[] uiLevelsByOrdinal;
+
+    public JsonDifficultyService(ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher) {
         this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
         loadConfiguration();
     }
 
@@ -40,25 +56,35 @@ public class JsonDifficultyService {
         }
     }
 
-    private void buildCache() {
-        dataValueToUiLevelCache = new HashMap<>();
+    private synchronized void buildCache() {
+        Map<String, Byte> labels = new LinkedHashMap<>();
+        Map<String, Byte> uiLevels = new HashMap<>();
         JsonNode levels = difficultyConfig.get("difficultyLevels");
 
         levels.fields().forEachRemaining(entry -> {
             String uiLevel = entry.getKey();
             JsonNode levelConfig = entry.getValue();
             JsonNode mappings = levelConfig.get("mappings");
+            byte ordinal = (byte) levelConfig.get("sortOrder").asInt();
+            uiLevels.put(uiLevel, ordinal);
 
             mappings.fields().forEachRemaining(langEntry -> {
                 JsonNode values = langEntry.getValue();
                 if (values.isArray()) {
                     for (JsonNode value : values) {
-                        String normalizedValue = value.asText().toLowerCase().trim();
-                        dataValueToUiLevelCache.put(normalizedValue, uiLevel);
+                        labels.put(value.asText(), ordinal);
                     }
                 }
             });
         });
+
+        String[] byOrdinal = new String[uiLevels.values().stream().mapToInt(Byte::intValue).max().orElse(0) + 1];
+        uiLevels.forEach((uiLevel, ordinal) -> byOrdinal[ordinal] = uiLevel);
+
+        uiLevelOrdinals = Map.copyOf(uiLevels);
+        uiLevelsByOrdinal = byOrdinal;
+        labelOrdinals = labels;
+        classifier = DifficultyClassifier.of(labels);
     }
 
     public boolean matchesDifficulty(String questionDifficulty, String uiDifficultyLevel) {
@@ -70,22 +96,64 @@ public class JsonDifficultyService {
             return true;
         }
 
-        String normalizedQuestion = questionDifficulty.toLowerCase().trim();
-        String mappedLevel = dataValueToUiLevelCache.get(normalizedQuestion);
-
-        return uiDifficultyLevel.equalsIgnoreCase(mappedLevel);
+        byte ordinal = getDifficultyOrdinal(questionDifficulty);
+        return ordinal != DIFFICULTY_UNKNOWN && ordinal == getDifficultyOrdinalForUiLevel(uiDifficultyLevel);
     }
 
     public Optional<String> getUiLevelForQuestionDifficulty(String questionDifficulty) {
-        if (questionDifficulty == null) {
-            return Optional.empty();
+        return getUiLevel(getDifficultyOrdinal(questionDifficulty));
+    }
+
+    /**
+     * UI level of a difficulty ordinal, empty for
+     * {@link #DIFFICULTY_UNKNOWN} and ordinals of no level.
+     */
+    public Optional<String> getUiLevel(byte ordinal) {
+        String[] byOrdinal = uiLevelsByOrdinal;
+        return ordinal > DIFFICULTY_UNKNOWN && ordinal < byOrdinal.length
+                ? Optional.ofNullable(byOrdinal[ordinal])
+                : Optional.empty();
+    }
+
+    /**
+     * Maps a question's difficulty label to the sort order of its UI level, or
+     * {@link #DIFFICULTY_UNKNOWN} when the label is missing or not mapped.
+     * Case and surrounding whitespace are ignored, nothing is allocated.
+     */
+    public byte getDifficultyOrdinal(String questionDifficulty) {
+        return classifier.classify(questionDifficulty);
+    }
+
+    /**
+     * The ordinal stored on the question at import, or the one of its label
+     * for questions stored without one or with a label mapped since.
+     */
+    public byte getDifficultyOrdinal(Question question) {
+        byte stored = question.getDifficultyLevel();
+        return stored != DIFFICULTY_UNKNOWN ? stored : getDifficultyOrdinal(question.getDifficulty());
+    }
+
+    public byte getDifficultyOrdinalForUiLevel(String uiDifficultyLevel) {
+        if (uiDifficultyLevel == null) {
+            return DIFFICULTY_UNKNOWN;
         }
+        return uiLevelOrdinals.getOrDefault(uiDifficultyLevel.toLowerCase().trim(), DIFFICULTY_UNKNOWN);
+    }
 
-        String normalizedQuestion = questionDifficulty.toLowerCase().trim();
-        return Optional.ofNullable(dataValueToUiLevelCache.get(normalizedQuestion));
+    /**
+     * Ordinals of all configured UI levels in ascending sort order.
+     */
+    public byte[] getDifficultyOrdinals() {
+        byte[] ordinals = new byte[uiLevelOrdinals.size()];
+        int i = 0;
+        for (Byte ordinal : uiLevelOrdinals.values()) {
+            ordinals[i++] = ordinal;
+        }
+        Arrays.sort(ordinals);
+        return ordinals;
     }
 
-    @Cacheable("jsonDifficultyLevels")
+    @Cacheable(CacheConfig.DIFFICULTY_LEVELS)
     public Map<String, DifficultyLevelDto> getAllDifficultyLevels() {
         Map<String, DifficultyLevelDto> levels = new HashMap<>();
         JsonNode levelsNode = difficultyConfig.get("difficultyLevels");
@@ -108,11 +176,14 @@ public class JsonDifficultyService {
     }
 
     /**
-     * Reload configuration from file (useful for runtime updates)
+     * Reload configuration from file (useful for runtime updates). Ordinals
+     * stored on questions are updated through a
+     * {@link DifficultyMappingsChangedEvent}.
      */
     public void reloadConfiguration() {
         loadConfiguration();
         LOG.info("Reloaded difficulty mappings configuration");
+        eventPublisher.publishEvent(new DifficultyMappingsChangedEvent());
     }
 
     /**
@@ -120,9 +191,19 @@ public class JsonDifficultyService {
      * Note: This updates runtime cache only, not the JSON file
      */
     public void addRuntimeMapping(String dataValue, String uiLevel) {
-        String normalizedValue = dataValue.toLowerCase().trim();
-        dataValueToUiLevelCache.put(normalizedValue, uiLevel);
+        byte ordinal = getDifficultyOrdinalForUiLevel(uiLevel);
+        if (ordinal == DIFFICULTY_UNKNOWN) {
+            LOG.warn("Ignoring runtime mapping '{}' to unknown level {}", dataValue, uiLevel);
+            return;
+        }
+        synchronized (this) {
+            // Moved to the end, so it wins over labels it equals but for case and padding
+            labelOrdinals.remove(dataValue);
+            labelOrdinals.put(dataValue, ordinal);
+            classifier = DifficultyClassifier.of(labelOrdinals);
+        }
         LOG.info("Added runtime mapping: '{}' -> {}", dataValue, uiLevel);
+        eventPublisher.publishEvent(new DifficultyMappingsChangedEvent());
     }
 
     public static class DifficultyLevelDto {
@@ -0,0 +1,50 @@
+package hu.elte.inf.projects.quizme.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Issues the independent lookups of one page concurrently, each on its own
+ * virtual thread, so the page waits for its slowest lookup instead of their
+ * sum.
+ */
+@Component
+public class LookupExecutor {
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("lookup-", 0).factory());
+
+    public <T> CompletableFuture<T> submit(Supplier<T> lookup) {
+        return CompletableFuture.supplyAsync(lookup, executor);
+    }
+
+    /**
+     * Waits for a lookup and rethrows its failure unwrapped, as if it had run
+     * on the calling thread.
+     */
+    public static <T> T join(CompletableFuture<T> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
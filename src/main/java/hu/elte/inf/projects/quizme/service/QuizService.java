@@ -3,11 +3,15 @@ package hu.elte.inf.projects.quizme.service;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
@@ -21,7 +25,12 @@ import hu.elte.inf.projects.quizme.repository.dto.Category;
 import hu.elte.inf.projects.quizme.repository.dto.Question;
 import hu.elte.inf.projects.quizme.repository.dto.SubCategory;
 import hu.elte.inf.projects.quizme.repository.dto.Title;
+import hu.elte.inf.projects.quizme.repository.dto.TitleSummary;
 import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import hu.elte.inf.projects.quizme.repository.dto.TopicSummary;
+import hu.elte.inf.projects.quizme.service.cache.CacheConfig;
+import hu.elte.inf.projects.quizme.service.catalog.CatalogChangedEvent;
+import hu.elte.inf.projects.quizme.service.review.ReviewScheduler;
 
 @Service
 public class QuizService {
@@ -31,25 +40,32 @@ public class QuizService {
     private final TitleRepository titleRepository;
     private final TopicRepository topicRepository;
     private final QuestionRepository questionRepository;
+    private final ReviewScheduler reviewScheduler;
+    private final ApplicationEventPublisher eventPublisher;
 
     public QuizService(CategoryRepository categoryRepository,
             SubCategoryRepository subCategoryRepository,
             TitleRepository titleRepository,
             TopicRepository topicRepository,
-            QuestionRepository questionRepository) {
+            QuestionRepository questionRepository,
+            ReviewScheduler reviewScheduler,
+            ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
         this.subCategoryRepository = subCategoryRepository;
         this.titleRepository = titleRepository;
         this.topicRepository = topicRepository;
         this.questionRepository = questionRepository;
+        this.reviewScheduler = reviewScheduler;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Category> findAllDistinctCategories() {
         return categoryRepository.findAll();
     }
 
+    @Cacheable(CacheConfig.SUB_CATEGORIES)
     public List<SubCategory> findDistinctSubCategories(String categoryName) {
-        return subCategoryRepository.findByCategoryName(categoryName);
+        return List.copyOf(subCategoryRepository.findByCategoryName(categoryName));
     }
 
     public Optional<SubCategory> findSubCategoryByName(String subCategoryName) {
@@ -60,6 +76,10 @@ public class QuizService {
         return titleRepository.findByCategoryNameAndSubCategoryName(categoryName, subCategoryName);
     }
 
+    public List<TitleSummary> findTitleSummaries(String categoryName, String subCategoryName) {
+        return titleRepository.findSummariesByCategoryNameAndSubCategoryName(categoryName, subCategoryName);
+    }
+
     public List<Question> findQuestionsByTitle(String titleId) {
         List<String> questionIds = topicRepository.findByTitleName(titleId).stream()
                 .map(Topic::getQuestionIds)
@@ -68,14 +88,33 @@ public class QuizService {
         return questionRepository.findByIdIn(questionIds);
     }
 
+    /**
+     * Loads the given questions and returns them in the order of the ids.
+     */
+    public List<Question> findQuestionsByIds(List<String> questionIds) {
+        Map<String, Question> questionsById = questionRepository.findByIdIn(questionIds).stream()
+                .collect(Collectors.toMap(Question::getId, Function.identity()));
+        return questionIds.stream()
+                .map(questionsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Cacheable(CacheConfig.TOPIC_QUESTIONS)
     public List<Question> getQuestionsByTopic(String topicId) {
-        return questionRepository.findByTopicId(topicId);
+        return List.copyOf(questionRepository.findByTopicId(topicId));
     }
 
     public List<Topic> findTopicsTitleByName(String titleName) {
         return topicRepository.findByTitleName(titleName);
     }
 
+    public List<TopicSummary> findTopicSummaries(String titleName) {
+        return topicRepository.findSummariesByTitleName(titleName);
+    }
+
+    // Unknown titles get an unsaved placeholder, which is not cached
+    @Cacheable(cacheNames = CacheConfig.TITLES, unless = "#result.id == null")
     public Title findTitleByName(String titleName) {
         List<Title> titles = titleRepository.findByName(titleName);
         if (CollectionUtils.isEmpty(titles)) {
@@ -87,8 +126,9 @@ public class QuizService {
         return titles.get(0);
     }
 
+    @Cacheable(CacheConfig.TOPIC_QUESTIONS)
     public List<Question> findQuestionsByTopicId(String topicId) {
-        return questionRepository.findByTopicId(topicId);
+        return List.copyOf(questionRepository.findByTopicId(topicId));
     }
 
     public void updateTitleAudioOverview(String titleName, String audioOverviewUrl) throws MalformedURLException {
@@ -99,6 +139,7 @@ public class QuizService {
         Title title = titles.get(0); // Assuming titleName is unique or taking the first one
         title.setAudioOverview(new URL(audioOverviewUrl));
         titleRepository.save(title);
+        eventPublisher.publishEvent(new CatalogChangedEvent(title.getName()));
     }
 
     public void updateTitleAudioVideoOverview(String titleName, String audioOverviewUrl, String videoOverviewUrl)
@@ -111,34 +152,41 @@ public class QuizService {
         title.setAudioOverview(new URL(audioOverviewUrl));
         title.setVideoOverview(new URL(videoOverviewUrl));
         titleRepository.save(title);
+        eventPublisher.publishEvent(new CatalogChangedEvent(title.getName()));
     }
 
     public Topic findByTopicName(String topicName) {
         return topicRepository.findByTopicName(topicName).stream().findFirst().orElse(null);
     }
 
+    @Cacheable(cacheNames = CacheConfig.TOPICS, unless = "#result == null")
     public Topic findTopicById(String testTopicId) {
         return topicRepository.findByTopicId(testTopicId).orElse(null);
     }
 
     public void deleteAllQuestions() {
         questionRepository.deleteAll();
+        eventPublisher.publishEvent(CatalogChangedEvent.all());
     }
 
     public void deleteAllTopics() {
         topicRepository.deleteAll();
+        eventPublisher.publishEvent(CatalogChangedEvent.all());
     }
 
     public void deleteAllTitles() {
         titleRepository.deleteAll();
+        eventPublisher.publishEvent(CatalogChangedEvent.all());
     }
 
     public void deleteAllSubCategories() {
         subCategoryRepository.deleteAll();
+        eventPublisher.publishEvent(CatalogChangedEvent.all());
     }
 
     public void deleteAllCategories() {
         categoryRepository.deleteAll();
+        eventPublisher.publishEvent(CatalogChangedEvent.all());
     }
 
     public void processAndStoreAlias(List<AliasItem> aliasItems) {
@@ -169,6 +217,7 @@ public class QuizService {
                 });
             }
         }
+        eventPublisher.publishEvent(CatalogChangedEvent.all());
     }
 
     public boolean deleteTitleAndRelatedData(String titleName) {
@@ -187,12 +236,15 @@ public class QuizService {
                 .collect(Collectors.toList());
         List<Question> questionsToDelete = questionRepository.findByTopicIdIn(topicIds);
         questionRepository.deleteAll(questionsToDelete);
+        // Review cards of the deleted questions would otherwise stay due forever
+        reviewScheduler.removeCards(questionsToDelete.stream().map(Question::getId).toList());
         if (!CollectionUtils.isEmpty(topicsToDelete)) {
             topicRepository.deleteAll(topicsToDelete);
         }
 
         // Finally, delete the title itself
         titleRepository.delete(titleToDelete);
+        eventPublisher.publishEvent(new CatalogChangedEvent(titleToDelete.getName()));
         return true;
     }
 }
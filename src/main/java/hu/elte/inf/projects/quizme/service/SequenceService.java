@@ -1,5 +1,6 @@
 package hu.elte.inf.projects.quizme.service;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -33,26 +34,44 @@ public class SequenceService {
     }
 
     public String getNextQuestionId() {
+        return generateQuestionId(reserveQuestionIds(1));
+    }
+
+    /**
+     * Reserves a block of {@code count} consecutive question IDs with a single
+     * {@code $inc} on the sequence document and formats them locally.
+     *
+     * @return the reserved IDs in ascending order
+     */
+    public List<String> getNextQuestionIds(int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+        long last = reserveQuestionIds(count);
+        List<String> ids = new ArrayList<>(count);
+        for (long value = last - count + 1; value <= last; value++) {
+            ids.add(generateQuestionId(value));
+        }
+        return ids;
+    }
+
+    /**
+     * Advances the sequence by {@code count} and returns its new value, which
+     * is the last ID of the reserved block.
+     */
+    private long reserveQuestionIds(int count) {
         try {
             // Try to increment existing sequence
-            Sequence sequence = mongoTemplate.findAndModify(
-                    Query.query(Criteria.where("_id").is(QUESTION_ID_SEQUENCE)),
-                    new Update().inc("value", 1),
-                    FindAndModifyOptions.options().returnNew(true).upsert(true),
-                    Sequence.class);
+            Sequence sequence = incrementSequence(count);
 
             if (sequence == null) {
                 // if sequence is null, it means it was just created, so we need to initialize
                 // it
                 initializeQuestionSequence();
-                sequence = mongoTemplate.findAndModify(
-                        Query.query(Criteria.where("_id").is(QUESTION_ID_SEQUENCE)),
-                        new Update().inc("value", 1),
-                        FindAndModifyOptions.options().returnNew(true).upsert(true),
-                        Sequence.class);
+                sequence = incrementSequence(count);
             }
 
-            return generateQuestionId(sequence.getValue());
+            return sequence.getValue();
 
         } catch (Exception e) {
             LOG.error("Error generating next question ID", e);
@@ -60,6 +79,14 @@ public class SequenceService {
         }
     }
 
+    private Sequence incrementSequence(int count) {
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(QUESTION_ID_SEQUENCE)),
+                new Update().inc("value", count),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                Sequence.class);
+    }
+
     private void initializeQuestionSequence() {
         // Initialize sequence starting from 101 (or higher based on existing data)
         Long initialValue = findMaxQuestionIdFromDatabase();
@@ -1,10 +1,8 @@
 package hu.elte.inf.projects.quizme.service;
 
-import hu.elte.inf.projects.quizme.repository.dto.QuizData;
-
-import java.util.List;
+import hu.elte.inf.projects.quizme.repository.dto.UserProgress;
 
 public interface UserService {
     void saveOrUpdateUser(String email, String name);
-    List<QuizData> findUserQuizProgress(String email); // Placeholder
+    UserProgress findUserQuizProgress(String email);
 }
@@ -1,13 +1,12 @@
 package hu.elte.inf.projects.quizme.service;
 
+import hu.elte.inf.projects.quizme.repository.UserProgressRepository;
 import hu.elte.inf.projects.quizme.repository.UserRepository;
 import hu.elte.inf.projects.quizme.repository.dto.User;
-import hu.elte.inf.projects.quizme.repository.dto.QuizData;
+import hu.elte.inf.projects.quizme.repository.dto.UserProgress;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -16,6 +15,9 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
     @Override
     public void saveOrUpdateUser(String email, String name) {
         Optional<User> userOptional = userRepository.findByEmail(email);
@@ -32,10 +34,8 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<QuizData> findUserQuizProgress(String email) {
-        // This is a placeholder implementation.
-        // You would need to implement the logic to retrieve quiz progress for the user.
-        // This might involve another repository call.
-        return Collections.emptyList();
+    public UserProgress findUserQuizProgress(String email) {
+        // One read by id, the aggregates are maintained as attempts are stored
+        return userProgressRepository.findById(email).orElseGet(() -> new UserProgress(email));
     }
 }
@@ -0,0 +1,265 @@
+package hu.elte.inf.projects.quizme.service.attempt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import hu.elte.inf.projects.quizme.repository.QuizAttemptRepository;
+import hu.elte.inf.projects.quizme.repository.dto.QuizAttempt;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind store for quiz attempts. Submissions go into a bounded ring
+ * buffer and a single background thread inserts whatever has queued up with
+ * one insertMany of at most {@code app.attempts.batch-size}, so batches grow
+ * with the load. When the buffer is full, {@link #submit} waits at most
+ * {@code app.attempts.offer-timeout} and then rejects, which pushes a slow
+ * MongoDB back on the clients instead of on the heap. Queued attempts are
+ * written before shutdown. A batch that keeps failing is inserted attempt by
+ * attempt, so only the attempts MongoDB rejects are dropped. Stored batches
+ * are announced with a
+ * {@link QuizAttemptsStoredEvent}, whose listeners run on the writer thread.
+ * <p>
+ * Attempts are stored with an empty {@code folded_by} list. Once every
+ * listener processed them it is replaced by {@code folded_at}; when one
+ * throws, the listeners that succeeded are added to {@code folded_by}
+ * instead. Every {@code app.attempts.retry-interval} the writer publishes
+ * attempts still carrying {@code folded_by} again, oldest first, and each
+ * listener only gets the ones it has not processed. An attempt is retried at
+ * most {@code app.attempts.max-retries} times and then kept unprocessed, so
+ * attempts a listener always fails on do not hold back the others.
+ * <p>
+ * Listeners get attempts at least once: when a listener's bulk write partly
+ * succeeds before it throws, the retry hands it the same attempts again.
+ * ReviewScheduler skips attempts a card has already seen, the counters of
+ * UserProgressService count them a second time.
+ */
+@Service
+// Shut down before the statistics it feeds, so attempts drained at shutdown are still flushed
+@DependsOn("questionStatsService")
+public class QuizAttemptWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(QuizAttemptWriter.class);
+
+    // How often the idle writer checks for shutdown
+    private static final long POLL_MILLIS = 200;
+    private static final int MAX_TRIES = 3;
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<QuizAttempt> queue;
+    private final int batchSize;
+    private final Duration offerTimeout;
+    private final Duration retryInterval;
+    private final int maxRetries;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public QuizAttemptWriter(QuizAttemptRepository quizAttemptRepository, ApplicationEventPublisher eventPublisher,
+            @Value("${app.attempts.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.attempts.batch-size:500}") int batchSize,
+            @Value("${app.attempts.offer-timeout:PT0.1S}") Duration offerTimeout,
+            @Value("${app.attempts.retry-interval:PT5M}") Duration retryInterval,
+            @Value("${app.attempts.max-retries:5}") int maxRetries) {
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.offerTimeout = offerTimeout;
+        this.retryInterval = retryInterval;
+        this.maxRetries = maxRetries;
+        this.writer = Thread.ofPlatform().name("quiz-attempt-writer").daemon().unstarted(this::run);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    /**
+     * Queues an attempt for writing.
+     *
+     * @return false if the buffer stayed full or the application is shutting
+     *         down, the attempt is not stored then
+     */
+    public boolean submit(QuizAttempt attempt) {
+        if (!running) {
+            return false;
+        }
+        // Ids are assigned up front so a retried batch cannot store an attempt twice
+        if (attempt.getId() == null) {
+            attempt.setId(new ObjectId().toHexString());
+        }
+        if (attempt.getSubmittedAt() == null) {
+            attempt.setSubmittedAt(Instant.now());
+        }
+        attempt.setFoldedBy(new ArrayList<>());
+        try {
+            if (queue.offer(attempt, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOG.warn("Quiz attempt buffer is full, rejected attempt of {}", attempt.getUserEmail());
+        return false;
+    }
+
+    /**
+     * Number of attempts waiting to be written.
+     */
+    public int queued() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<QuizAttempt> batch = new ArrayList<>(batchSize);
+        long nextRetry = System.nanoTime() + retryInterval.toNanos();
+        while (running || !queue.isEmpty()) {
+            if (running && System.nanoTime() - nextRetry >= 0) {
+                retryUnfolded();
+                nextRetry = System.nanoTime() + retryInterval.toNanos();
+            }
+            try {
+                QuizAttempt first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<QuizAttempt> batch) {
+        List<QuizAttempt> stored = insert(batch);
+        if (!stored.isEmpty()) {
+            fold(stored);
+        }
+    }
+
+    /**
+     * Publishes the oldest attempts whose listeners did not all succeed again.
+     * Only attempts older than the retry interval are taken, so those another
+     * instance is still processing are left alone.
+     */
+    void retryUnfolded() {
+        try {
+            List<QuizAttempt> unfolded = quizAttemptRepository.findUnfoldedSubmittedBefore(
+                    Instant.now().minus(retryInterval), maxRetries,
+                    PageRequest.of(0, batchSize, Sort.by("submittedAt")));
+            if (!unfolded.isEmpty()) {
+                // Counted before the listeners run, a retry that fails again still counts
+                quizAttemptRepository.incrementFoldRetries(unfolded.stream().map(QuizAttempt::getId).toList());
+                long lastTries = unfolded.stream().filter(attempt -> attempt.getFoldRetries() + 1 >= maxRetries)
+                        .count();
+                LOG.info("Retrying {} quiz attempts not processed by every listener, {} for the last time",
+                        unfolded.size(), lastTries);
+                fold(unfolded);
+            }
+        } catch (DataAccessException e) {
+            LOG.warn("Could not look up unprocessed quiz attempts", e);
+        }
+    }
+
+    private void fold(List<QuizAttempt> attempts) {
+        QuizAttemptsStoredEvent event = new QuizAttemptsStoredEvent(attempts);
+        List<String> ids = attempts.stream().map(QuizAttempt::getId).toList();
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            // The attempts are stored, a failing listener must not stop the writer
+            LOG.error("Could not process {} stored quiz attempts, retrying in {}", attempts.size(), retryInterval, e);
+            if (!event.getFolded().isEmpty()) {
+                markFolded(() -> quizAttemptRepository.markFoldedBy(ids, event.getFolded()));
+            }
+            return;
+        }
+        markFolded(() -> quizAttemptRepository.markFolded(ids, Instant.now()));
+    }
+
+    private static void markFolded(Runnable update) {
+        try {
+            update.run();
+        } catch (DataAccessException e) {
+            // The next retry hands these attempts to their listeners again
+            LOG.error("Could not mark quiz attempts as processed", e);
+        }
+    }
+
+    // Returns the attempts of the batch that are now stored
+    private List<QuizAttempt> insert(List<QuizAttempt> batch) {
+        for (int tries = 1;; tries++) {
+            try {
+                quizAttemptRepository.insert(batch);
+                return batch;
+            } catch (DuplicateKeyException e) {
+                // An earlier try stored part of the batch before failing
+                return insertMissing(batch);
+            } catch (DataAccessException e) {
+                // Retrying the same batch cannot get past a rejected attempt
+                if (tries >= MAX_TRIES || e instanceof NonTransientDataAccessException) {
+                    LOG.warn("Could not insert {} quiz attempts together, inserting them one by one",
+                            batch.size(), e);
+                    return insertMissing(batch);
+                }
+                LOG.warn("Could not insert {} quiz attempts, retrying", batch.size(), e);
+                try {
+                    Thread.sleep(RETRY_BACKOFF.multipliedBy(tries));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return List.of();
+                }
+            }
+        }
+    }
+
+    private List<QuizAttempt> insertMissing(List<QuizAttempt> batch) {
+        List<QuizAttempt> stored = new ArrayList<>(batch.size());
+        for (QuizAttempt attempt : batch) {
+            try {
+                quizAttemptRepository.insert(attempt);
+                stored.add(attempt);
+            } catch (DuplicateKeyException e) {
+                // Stored by the failed try, ids are never reused
+                stored.add(attempt);
+            } catch (DataAccessException e) {
+                LOG.error("Dropped quiz attempt {}", attempt.getId(), e);
+            }
+        }
+        return stored;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(SHUTDOWN_TIMEOUT.toMillis());
+        if (!queue.isEmpty()) {
+            LOG.warn("{} quiz attempts were not written before shutdown", queue.size());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package hu.elte.inf.projects.quizme.service.attempt;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import hu.elte.inf.projects.quizme.repository.dto.QuizAttempt;
+
+/**
+ * Published by {@link QuizAttemptWriter} on its background thread after a
+ * batch of attempts has been stored, and again for attempts whose listeners
+ * did not all succeed. Listeners take their attempts with
+ * {@link #getAttempts(String)}, which leaves out the ones they already
+ * processed, and report success with {@link #folded(String)}.
+ */
+public class QuizAttemptsStoredEvent {
+
+    private final List<QuizAttempt> attempts;
+    private final Set<String> folded = new LinkedHashSet<>();
+
+    public QuizAttemptsStoredEvent(List<QuizAttempt> attempts) {
+        this.attempts = List.copyOf(attempts);
+    }
+
+    public List<QuizAttempt> getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Attempts the named listener has not processed yet.
+     */
+    public List<QuizAttempt> getAttempts(String listener) {
+        return attempts.stream()
+                .filter(attempt -> attempt.getFoldedBy() == null || !attempt.getFoldedBy().contains(listener))
+                .toList();
+    }
+
+    /**
+     * Records that the named listener processed its attempts of this event.
+     */
+    public void folded(String listener) {
+        folded.add(listener);
+    }
+
+    Set<String> getFolded() {
+        return folded;
+    }
+}
@@ -0,0 +1,128 @@
+package hu.elte.inf.projects.quizme.service.attempt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import hu.elte.inf.projects.quizme.repository.QuestionRepository;
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.QuizAttempt;
+import hu.elte.inf.projects.quizme.repository.dto.UserProgress;
+import hu.elte.inf.projects.quizme.service.JsonDifficultyService;
+
+/**
+ * Folds stored attempts into the {@link UserProgress} document of their user.
+ * Each attempt becomes one upsert of {@code $inc}, {@code $max} and
+ * {@code $set} operators, and a batch is sent as one unordered bulk write, so
+ * no attempt history is ever re-read. The updates are not idempotent: if the
+ * bulk write fails after part of it was applied, the writer's retry counts
+ * those attempts again.
+ */
+@Service
+public class UserProgressService {
+
+    static final String UNKNOWN_DIFFICULTY = "unknown";
+    // Marks the attempts folded into user progress, see QuizAttemptWriter
+    static final String LISTENER = "user_progress";
+
+    private final MongoTemplate mongoTemplate;
+    private final QuestionRepository questionRepository;
+    private final JsonDifficultyService difficultyService;
+
+    public UserProgressService(MongoTemplate mongoTemplate, QuestionRepository questionRepository,
+            JsonDifficultyService difficultyService) {
+        this.mongoTemplate = mongoTemplate;
+        this.questionRepository = questionRepository;
+        this.difficultyService = difficultyService;
+    }
+
+    @EventListener
+    public void onAttemptsStored(QuizAttemptsStoredEvent event) {
+        // Anonymous attempts have no progress to update
+        List<QuizAttempt> attempts = event.getAttempts(LISTENER).stream()
+                .filter(attempt -> attempt.getUserEmail() != null)
+                .toList();
+        if (!attempts.isEmpty()) {
+            Map<String, String> levels = difficultyLevels(attempts);
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserProgress.class);
+            for (QuizAttempt attempt : attempts) {
+                bulk.upsert(Query.query(Criteria.where("_id").is(attempt.getUserEmail())), update(attempt, levels));
+            }
+            bulk.execute();
+        }
+        event.folded(LISTENER);
+    }
+
+    static Update update(QuizAttempt attempt, Map<String, String> levels) {
+        Update update = new Update()
+                .inc("attempts", 1)
+                .set("updated_at", attempt.getSubmittedAt());
+
+        if (attempt.getTitleName() != null) {
+            String title = "titles." + key(attempt.getTitleName());
+            int percent = attempt.getTotalQuestions() > 0
+                    ? attempt.getCorrectAnswers() * 100 / attempt.getTotalQuestions()
+                    : 0;
+            update.set(title + ".name", attempt.getTitleName())
+                    .inc(title + ".attempts", 1)
+                    .max(title + ".best_percent", percent);
+        }
+        if (attempt.getTopicId() != null) {
+            String topic = "topics." + key(attempt.getTopicId());
+            update.set(topic + ".topic_id", attempt.getTopicId())
+                    .inc(topic + ".attempts", 1);
+        }
+
+        // answered and correct counts per difficulty level of the questions
+        Set<String> wrong = new HashSet<>(attempt.getWrongQuestionIds());
+        Map<String, int[]> counts = new HashMap<>();
+        for (String questionId : attempt.getQuestionIds()) {
+            int[] count = counts.computeIfAbsent(levels.getOrDefault(questionId, UNKNOWN_DIFFICULTY), l -> new int[2]);
+            count[0]++;
+            if (!wrong.contains(questionId)) {
+                count[1]++;
+            }
+        }
+        counts.forEach((level, count) -> {
+            String difficulty = "difficulties." + key(level);
+            update.set(difficulty + ".level", level)
+                    .inc(difficulty + ".answered", count[0])
+                    .inc(difficulty + ".correct", count[1]);
+        });
+        return update;
+    }
+
+    // Difficulty level of every answered question of the batch, in one query
+    private Map<String, String> difficultyLevels(List<QuizAttempt> attempts) {
+        Set<String> questionIds = new HashSet<>();
+        attempts.forEach(attempt -> questionIds.addAll(attempt.getQuestionIds()));
+        if (questionIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> levels = new HashMap<>();
+        for (Question question : questionRepository.findIndexEntriesByIdIn(new ArrayList<>(questionIds))) {
+            levels.put(question.getId(), difficultyService.getUiLevel(difficultyService.getDifficultyOrdinal(question))
+                    .orElse(UNKNOWN_DIFFICULTY));
+        }
+        return levels;
+    }
+
+    /**
+     * Escapes a name for use as a field name, MongoDB reads dots as paths and
+     * reserves a leading dollar sign.
+     */
+    static String key(String name) {
+        return name.replace("%", "%25").replace(".", "%2E").replace("$", "%24");
+    }
+}
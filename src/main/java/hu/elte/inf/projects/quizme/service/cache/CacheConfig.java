@@ -0,0 +1,86 @@
+package hu.elte.inf.projects.quizme.service.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * One bounded Caffeine cache per entity type. Caches are weighed by the
+ * number of documents they hold, so a cached question list of a large topic
+ * counts as much as that many single lookups. Entries expire after
+ * {@code app.cache.ttl} and are evicted earlier by {@link CatalogCacheEvictor}.
+ * Hit and miss counts are recorded and exported by Actuator as
+ * {@code cache.gets} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String TITLES = "titles";
+    public static final String TOPICS = "topics";
+    public static final String SUB_CATEGORIES = "subCategories";
+    public static final String TOPIC_QUESTIONS = "topicQuestions";
+    public static final String TOPIC_PAYLOADS = "topicPayloads";
+    public static final String TITLE_PAYLOADS = "titlePayloads";
+    public static final String DIFFICULTY_LEVELS = "jsonDifficultyLevels";
+
+    // Cached catalog data, cleared when the catalog changes
+    static final String[] CATALOG_CACHES = { TITLES, TOPICS, SUB_CATEGORIES, TOPIC_QUESTIONS,
+            TOPIC_PAYLOADS, TITLE_PAYLOADS };
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.ttl:PT10M}") Duration ttl,
+            @Value("${app.cache.max-weight.titles:500}") long titles,
+            @Value("${app.cache.max-weight.topics:2000}") long topics,
+            @Value("${app.cache.max-weight.sub-categories:2000}") long subCategories,
+            @Value("${app.cache.max-weight.topic-questions:20000}") long topicQuestions,
+            @Value("${app.cache.max-weight.topic-payloads-kb:16384}") long topicPayloadsKb,
+            @Value("${app.cache.max-weight.title-payloads-kb:16384}") long titlePayloadsKb) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        // Only the caches registered below exist, an unknown name fails instead of creating an unbounded cache
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(TITLES, weighted(titles, ttl));
+        cacheManager.registerCustomCache(TOPICS, weighted(topics, ttl));
+        cacheManager.registerCustomCache(SUB_CATEGORIES, weighted(subCategories, ttl));
+        cacheManager.registerCustomCache(TOPIC_QUESTIONS, weighted(topicQuestions, ttl));
+        cacheManager.registerCustomCache(TOPIC_PAYLOADS, payloads(topicPayloadsKb, ttl));
+        cacheManager.registerCustomCache(TITLE_PAYLOADS, payloads(titlePayloadsKb, ttl));
+        // Read from the bundled difficulty configuration, never changes at runtime
+        cacheManager.registerCustomCache(DIFFICULTY_LEVELS, Caffeine.newBuilder()
+                .maximumSize(1)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    // Serialized payloads are weighed in kilobytes
+    private static Cache<Object, Object> payloads(long maxKilobytes, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxKilobytes)
+                .weigher((Object key, Object value) -> Math.max(1, ((QuestionPayload) value).getJson().length >> 10))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    private static Cache<Object, Object> weighted(long maxWeight, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Object key, Object value) -> value instanceof Collection<?> c ? Math.max(1, c.size()) : 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package hu.elte.inf.projects.quizme.service.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import hu.elte.inf.projects.quizme.service.catalog.CatalogChangedEvent;
+
+/**
+ * Evicts cached catalog reads when imports, alias updates or deletes publish
+ * a {@link CatalogChangedEvent}.
+ */
+@Component
+public class CatalogCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    public CatalogCacheEvictor(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.affectsAllTitles()) {
+            for (String name : CacheConfig.CATALOG_CACHES) {
+                clear(name);
+            }
+            return;
+        }
+        evict(CacheConfig.TITLES, event.getTitleName());
+        evict(CacheConfig.TITLE_PAYLOADS, event.getTitleName());
+        // Topics and their questions are keyed by topic id, which the event
+        // does not carry; they are cheap to reload and changes are rare
+        clear(CacheConfig.TOPICS);
+        clear(CacheConfig.TOPIC_QUESTIONS);
+        clear(CacheConfig.TOPIC_PAYLOADS);
+        clear(CacheConfig.SUB_CATEGORIES);
+    }
+
+    private void evict(String name, String key) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
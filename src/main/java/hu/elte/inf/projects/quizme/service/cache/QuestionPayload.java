@@ -0,0 +1,30 @@
+package hu.elte.inf.projects.quizme.service.cache;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Questions already serialized to a UTF-8 JSON array, safe to embed in an
+ * HTML {@code <script>} block.
+ */
+public class QuestionPayload {
+
+    private final byte[] json;
+    private final int count;
+
+    public QuestionPayload(byte[] json, int count) {
+        this.json = json;
+        this.count = count;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public String asString() {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package hu.elte.inf.projects.quizme.service.cache;
+
+import java.util.List;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import hu.elte.inf.projects.quizme.repository.QuestionRepository;
+import hu.elte.inf.projects.quizme.repository.TopicRepository;
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+
+/**
+ * Serializes question lists for the quiz player. The payload of a topic or
+ * title is built once and kept as UTF-8 bytes until the catalog changes, so
+ * repeated plays copy bytes instead of serializing the question graph.
+ */
+@Service
+public class QuestionPayloadService {
+
+    private final TopicRepository topicRepository;
+    private final QuestionRepository questionRepository;
+    private final ObjectWriter writer;
+
+    public QuestionPayloadService(TopicRepository topicRepository, QuestionRepository questionRepository,
+            ObjectMapper objectMapper) {
+        this.topicRepository = topicRepository;
+        this.questionRepository = questionRepository;
+        this.writer = objectMapper.writerFor(new TypeReference<List<Question>>() {
+        }).with(new ScriptSafeEscapes());
+    }
+
+    /**
+     * @return the questions of the topic, or {@code null} if it has none
+     */
+    @Cacheable(cacheNames = CacheConfig.TOPIC_PAYLOADS, unless = "#result == null")
+    public QuestionPayload getTopicPayload(String topicId) {
+        List<Question> questions = questionRepository.findByTopicId(topicId);
+        return questions.isEmpty() ? null : serialize(questions);
+    }
+
+    /**
+     * @return the questions of every topic of the title, or {@code null} if
+     *         it has none
+     */
+    @Cacheable(cacheNames = CacheConfig.TITLE_PAYLOADS, unless = "#result == null")
+    public QuestionPayload getTitlePayload(String titleName) {
+        List<String> questionIds = topicRepository.findByTitleName(titleName).stream()
+                .flatMap(topic -> topic.getQuestionIds().stream())
+                .toList();
+        if (questionIds.isEmpty()) {
+            return null;
+        }
+        List<Question> questions = questionRepository.findByIdIn(questionIds);
+        return questions.isEmpty() ? null : serialize(questions);
+    }
+
+    public QuestionPayload serialize(List<Question> questions) {
+        try {
+            return new QuestionPayload(writer.writeValueAsBytes(questions), questions.size());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize questions", e);
+        }
+    }
+
+    /**
+     * Escapes the characters that could end the surrounding script block or
+     * start an HTML comment, the same ones Thymeleaf escapes when inlining.
+     */
+    private static final class ScriptSafeEscapes extends CharacterEscapes {
+        private static final int[] ESCAPES;
+
+        static {
+            ESCAPES = standardAsciiEscapesForJSON();
+            ESCAPES['<'] = ESCAPE_STANDARD;
+            ESCAPES['>'] = ESCAPE_STANDARD;
+            ESCAPES['&'] = ESCAPE_STANDARD;
+            ESCAPES['\''] = ESCAPE_STANDARD;
+        }
+
+        @Override
+        public int[] getEscapeCodesForAscii() {
+            return ESCAPES;
+        }
+
+        @Override
+        public SerializableString getEscapeSequence(int ch) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package hu.elte.inf.projects.quizme.service.catalog;
+
+/**
+ * Published whenever categories, subcategories, titles, topics or questions
+ * are created, renamed or deleted. A {@code null} title name means the change
+ * is not limited to a single title.
+ */
+public class CatalogChangedEvent {
+
+    private final String titleName;
+
+    public CatalogChangedEvent(String titleName) {
+        this.titleName = titleName;
+    }
+
+    public static CatalogChangedEvent all() {
+        return new CatalogChangedEvent(null);
+    }
+
+    public String getTitleName() {
+        return titleName;
+    }
+
+    public boolean affectsAllTitles() {
+        return titleName == null;
+    }
+}
@@ -0,0 +1,32 @@
+package hu.elte.inf.projects.quizme.service.catalog;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts catalog changes. Imports, alias updates and deletes publish a
+ * {@link CatalogChangedEvent}, each of which starts a new generation; pages
+ * rendered within one generation show the same catalog.
+ */
+@Component
+public class CatalogGeneration {
+
+    // Distinguishes generations of different application runs
+    private final long bootId = System.currentTimeMillis();
+    private final AtomicLong generation = new AtomicLong();
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    public long current() {
+        return generation.get();
+    }
+
+    public long getBootId() {
+        return bootId;
+    }
+}
@@ -0,0 +1,36 @@
+package hu.elte.inf.projects.quizme.service.catalog;
+
+import java.time.Instant;
+import java.util.List;
+
+import hu.elte.inf.projects.quizme.controller.dto.nav.NavCategory;
+
+/**
+ * Immutable category -> subcategory -> title tree. A new instance is built
+ * after every catalog change and swapped in as a whole, so readers never see
+ * a half-updated tree.
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final Instant builtAt;
+    private final List<NavCategory> navigation;
+
+    public CatalogSnapshot(long version, Instant builtAt, List<NavCategory> navigation) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.navigation = List.copyOf(navigation);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    public List<NavCategory> getNavigation() {
+        return navigation;
+    }
+}
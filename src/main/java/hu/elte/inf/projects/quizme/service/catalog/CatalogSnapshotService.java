@@ -0,0 +1,113 @@
+package hu.elte.inf.projects.quizme.service.catalog;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import hu.elte.inf.projects.quizme.controller.dto.nav.NavCategory;
+import hu.elte.inf.projects.quizme.controller.dto.nav.NavSubCategory;
+import hu.elte.inf.projects.quizme.controller.dto.nav.NavTitle;
+import hu.elte.inf.projects.quizme.repository.CategoryRepository;
+import hu.elte.inf.projects.quizme.repository.SubCategoryRepository;
+import hu.elte.inf.projects.quizme.repository.TitleRepository;
+import hu.elte.inf.projects.quizme.repository.dto.Category;
+import hu.elte.inf.projects.quizme.repository.dto.SubCategory;
+import hu.elte.inf.projects.quizme.repository.dto.Title;
+
+/**
+ * Serves the navigation tree from memory. The snapshot is built lazily with
+ * three collection reads and rebuilt whenever a {@link CatalogChangedEvent}
+ * is published, so page renders do not touch MongoDB for navigation.
+ */
+@Service
+public class CatalogSnapshotService {
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final CategoryRepository categoryRepository;
+    private final SubCategoryRepository subCategoryRepository;
+    private final TitleRepository titleRepository;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public CatalogSnapshotService(CategoryRepository categoryRepository,
+            SubCategoryRepository subCategoryRepository,
+            TitleRepository titleRepository) {
+        this.categoryRepository = categoryRepository;
+        this.subCategoryRepository = subCategoryRepository;
+        this.titleRepository = titleRepository;
+    }
+
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : initialize();
+    }
+
+    public List<NavCategory> getNavigation() {
+        return getSnapshot().getNavigation();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Drop the stale tree; the next reader retries the build
+            current.set(null);
+            LOG.warn("Failed to rebuild catalog snapshot, it will be rebuilt on next access", e);
+        }
+    }
+
+    private synchronized CatalogSnapshot initialize() {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : rebuild();
+    }
+
+    synchronized CatalogSnapshot rebuild() {
+        Map<String, List<SubCategory>> subCategoriesByCategory = new LinkedHashMap<>();
+        for (SubCategory subCategory : subCategoryRepository.findAll()) {
+            subCategoriesByCategory.computeIfAbsent(subCategory.getCategoryName(), k -> new ArrayList<>())
+                    .add(subCategory);
+        }
+
+        Map<String, List<Title>> titlesBySubCategory = new LinkedHashMap<>();
+        for (Title title : titleRepository.findNavigationEntries()) {
+            titlesBySubCategory.computeIfAbsent(key(title.getCategoryName(), title.getSubCategoryName()),
+                    k -> new ArrayList<>()).add(title);
+        }
+
+        List<NavCategory> navigation = new ArrayList<>();
+        for (Category category : categoryRepository.findAll()) {
+            String categoryUrl = "/quiz/" + category.getName();
+            List<NavSubCategory> subCategories = new ArrayList<>();
+
+            for (SubCategory subCategory : subCategoriesByCategory.getOrDefault(category.getName(), List.of())) {
+                String subCategoryUrl = categoryUrl + "/" + subCategory.getName();
+                List<NavTitle> titles = titlesBySubCategory
+                        .getOrDefault(key(category.getName(), subCategory.getName()), List.of()).stream()
+                        .map(title -> new NavTitle(title.getName(), subCategoryUrl + "/" + title.getName()))
+                        .toList();
+                subCategories.add(new NavSubCategory(subCategory.getName(), subCategoryUrl, titles));
+            }
+            navigation.add(new NavCategory(category.getName(), categoryUrl, List.copyOf(subCategories)));
+        }
+
+        CatalogSnapshot snapshot = new CatalogSnapshot(versions.incrementAndGet(), Instant.now(), navigation);
+        current.set(snapshot);
+        LOG.debug("Built catalog snapshot v{} with {} categories", snapshot.getVersion(), navigation.size());
+        return snapshot;
+    }
+
+    private static String key(String categoryName, String subCategoryName) {
+        return categoryName + '\u0000' + subCategoryName;
+    }
+}
@@ -0,0 +1,30 @@
+package hu.elte.inf.projects.quizme.service.catalog;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps imports and the {@link QuestionCountReconciler} apart. An import
+ * links questions to topics and moves the title total with separate writes;
+ * it holds the shared lock from the first of them to the last, so imports
+ * still run side by side. The reconciler holds the exclusive lock for a whole
+ * run and never sees topic counts whose title total is still to follow.
+ * <p>
+ * Only imports of this application instance are covered.
+ */
+@Component
+public class QuestionCountLock {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public Lock importLock() {
+        return lock.readLock();
+    }
+
+    public Lock reconcileLock() {
+        return lock.writeLock();
+    }
+}
@@ -0,0 +1,139 @@
+package hu.elte.inf.projects.quizme.service.catalog;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import hu.elte.inf.projects.quizme.repository.dto.Title;
+import hu.elte.inf.projects.quizme.repository.dto.Topic;
+
+/**
+ * Repairs drift in the denormalized question counts: {@code question_count}
+ * of a topic must equal the size of its {@code question_ids}, and
+ * {@code total_questions} of a title the sum of its topics' counts.
+ * <p>
+ * An import pushes question ids to topics and increments the title total with
+ * separate writes, so a run in between would count the new questions into the
+ * title once and the import's increment a second time. A run therefore holds
+ * {@link QuestionCountLock#reconcileLock()}, which waits for imports to finish
+ * their pending count writes and holds new ones back until the run is done.
+ * Repairs are still conditional on the values that were read, in case a count
+ * is written by something outside the lock.
+ */
+@Service
+public class QuestionCountReconciler {
+    private static final Logger LOG = LoggerFactory.getLogger(QuestionCountReconciler.class);
+
+    private static final String NAME = "name";
+    private static final String TOTAL_QUESTIONS = "total_questions";
+    private static final String TOPIC_ID = "topic_id";
+    private static final String TITLE_NAME = "title_name";
+    private static final String QUESTION_IDS = "question_ids";
+    private static final String QUESTION_COUNT = "question_count";
+    private static final String ACTUAL_COUNT = "actual_count";
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QuestionCountLock questionCountLock;
+
+    public QuestionCountReconciler(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher,
+            QuestionCountLock questionCountLock) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.questionCountLock = questionCountLock;
+    }
+
+    @Scheduled(initialDelayString = "${app.catalog.count-reconciliation.initial-delay:PT1M}",
+            fixedDelayString = "${app.catalog.count-reconciliation.interval:PT1H}")
+    public void scheduledReconcile() {
+        try {
+            int repaired = reconcile();
+            if (repaired > 0) {
+                LOG.info("Repaired {} drifted question counts", repaired);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Question count reconciliation failed, retrying on next run", e);
+        }
+    }
+
+    /**
+     * @return number of topics and titles whose count was corrected
+     */
+    public int reconcile() {
+        List<String> changedTitles = new ArrayList<>();
+        int repaired;
+        questionCountLock.reconcileLock().lock();
+        try {
+            repaired = repair(changedTitles);
+        } finally {
+            questionCountLock.reconcileLock().unlock();
+        }
+        // Listeners rebuild indexes, which should not hold imports back
+        changedTitles.forEach(title -> eventPublisher.publishEvent(new CatalogChangedEvent(title)));
+        return repaired;
+    }
+
+    private int repair(List<String> changedTitles) {
+        Query titleQuery = new Query();
+        titleQuery.fields().include(NAME, TOTAL_QUESTIONS);
+        Map<String, Integer> storedTotals = new HashMap<>();
+        for (Document title : mongoTemplate.find(titleQuery, Document.class,
+                mongoTemplate.getCollectionName(Title.class))) {
+            storedTotals.put(title.getString(NAME), title.getInteger(TOTAL_QUESTIONS));
+        }
+
+        int repaired = 0;
+        Map<String, Integer> actualTotals = new HashMap<>();
+        for (Document topic : mongoTemplate.aggregate(newAggregation(
+                project(TOPIC_ID, TITLE_NAME, QUESTION_COUNT)
+                        .and(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull(QUESTION_IDS).then(List.of())))
+                        .as(ACTUAL_COUNT)),
+                Topic.class, Document.class)) {
+            Integer stored = topic.getInteger(QUESTION_COUNT);
+            int actual = topic.getInteger(ACTUAL_COUNT);
+            actualTotals.merge(topic.getString(TITLE_NAME), actual, Integer::sum);
+            if (stored == null || stored != actual) {
+                // The push of ids and the count increment share one update, so
+                // an unchanged array size means the count is still the one read
+                Query unchanged = Query.query(Criteria.where("_id").is(topic.get("_id"))
+                        .and(QUESTION_COUNT).is(stored)
+                        .and(QUESTION_IDS).size(actual));
+                repaired += (int) mongoTemplate.updateFirst(unchanged, Update.update(QUESTION_COUNT, actual),
+                        Topic.class).getModifiedCount();
+            }
+        }
+
+        for (Map.Entry<String, Integer> title : storedTotals.entrySet()) {
+            Integer stored = title.getValue();
+            int actual = actualTotals.getOrDefault(title.getKey(), 0);
+            if (stored == null || stored != actual) {
+                Query unchanged = Query.query(Criteria.where(NAME).is(title.getKey())
+                        .and(TOTAL_QUESTIONS).is(stored));
+                if (mongoTemplate.updateFirst(unchanged, Update.update(TOTAL_QUESTIONS, actual), Title.class)
+                        .getModifiedCount() > 0) {
+                    repaired++;
+                    changedTitles.add(title.getKey());
+                }
+            }
+        }
+        return repaired;
+    }
+}
@@ -0,0 +1,132 @@
+package hu.elte.inf.projects.quizme.service.index;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import hu.elte.inf.projects.quizme.repository.QuestionRepository;
+import hu.elte.inf.projects.quizme.repository.TopicRepository;
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import hu.elte.inf.projects.quizme.service.JsonDifficultyService;
+import hu.elte.inf.projects.quizme.service.catalog.CatalogChangedEvent;
+import hu.elte.inf.projects.quizme.service.stats.QuestionDifficultyChangedEvent;
+import hu.elte.inf.projects.quizme.service.stats.QuestionStatsService;
+import hu.elte.inf.projects.quizme.util.QuizConstants;
+
+/**
+ * Keeps a {@link TitleQuestionIndex} per title in memory. Indexes are built on
+ * first use from a projection of the title's questions and dropped whenever
+ * the catalog changes. With {@code app.quiz.difficulty-source: empirical} a
+ * question's difficulty is the one observed by {@link QuestionStatsService}
+ * once it has enough answers, and indexes are also dropped when questions
+ * move to another level.
+ * <p>
+ * Builds run outside the map so a slow query does not block readers of other
+ * titles; two first readers of a title may both build it. Each invalidation
+ * starts a new generation, and a build only lands if no invalidation happened
+ * since it started, so a build that read the old catalog is never cached.
+ */
+@Service
+public class QuestionIndexService {
+    private static final Logger LOG = LoggerFactory.getLogger(QuestionIndexService.class);
+
+    private final TopicRepository topicRepository;
+    private final QuestionRepository questionRepository;
+    private final JsonDifficultyService difficultyService;
+    private final QuestionStatsService questionStatsService;
+    private final boolean empiricalDifficulty;
+
+    private final Map<String, TitleQuestionIndex> indexes = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public QuestionIndexService(TopicRepository topicRepository, QuestionRepository questionRepository,
+            JsonDifficultyService difficultyService, QuestionStatsService questionStatsService,
+            @Value("${app.quiz.difficulty-source:" + QuizConstants.DIFFICULTY_SOURCE_AUTHORED + "}")
+            String difficultySource) {
+        this.topicRepository = topicRepository;
+        this.questionRepository = questionRepository;
+        this.difficultyService = difficultyService;
+        this.questionStatsService = questionStatsService;
+        this.empiricalDifficulty = QuizConstants.DIFFICULTY_SOURCE_EMPIRICAL.equalsIgnoreCase(difficultySource);
+    }
+
+    public TitleQuestionIndex getIndex(String titleName) {
+        TitleQuestionIndex index = indexes.get(titleName);
+        if (index != null) {
+            return index;
+        }
+        long startedAt = generation.get();
+        TitleQuestionIndex built = build(titleName);
+        // Checked under the key's lock, which the removal below also takes
+        TitleQuestionIndex cached = indexes.compute(titleName, (title, current) -> current != null
+                ? current
+                : generation.get() == startedAt ? built : null);
+        return cached != null ? cached : built;
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.affectsAllTitles()) {
+            indexes.clear();
+        } else {
+            indexes.remove(event.getTitleName());
+        }
+    }
+
+    @EventListener
+    public void onQuestionDifficultyChanged(QuestionDifficultyChangedEvent event) {
+        if (empiricalDifficulty) {
+            generation.incrementAndGet();
+            indexes.clear();
+        }
+    }
+
+    private TitleQuestionIndex build(String titleName) {
+        List<String> questionIds = new ArrayList<>();
+        for (Topic topic : topicRepository.findByTitleName(titleName)) {
+            questionIds.addAll(topic.getQuestionIds());
+        }
+        List<Question> entries = questionIds.isEmpty()
+                ? List.of()
+                : questionRepository.findIndexEntriesByIdIn(questionIds);
+
+        int size = entries.size();
+        String[] ids = new String[size];
+        int[] topicOrdinals = new int[size];
+        byte[] difficulties = new byte[size];
+        Map<String, Integer> topicOrdinalsById = new LinkedHashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            Question entry = entries.get(i);
+            ids[i] = entry.getId();
+            topicOrdinals[i] = topicOrdinalsById.computeIfAbsent(entry.getTopicId(), k -> topicOrdinalsById.size());
+            difficulties[i] = difficulty(entry);
+        }
+
+        LOG.debug("Built question index for '{}' with {} questions in {} topics", titleName, size,
+                topicOrdinalsById.size());
+        return new TitleQuestionIndex(titleName, ids, topicOrdinals, difficulties,
+                topicOrdinalsById.keySet().toArray(new String[0]));
+    }
+
+    private byte difficulty(Question entry) {
+        if (empiricalDifficulty) {
+            byte observed = questionStatsService.getEmpiricalDifficulty(entry.getId());
+            if (observed != JsonDifficultyService.DIFFICULTY_UNKNOWN) {
+                return observed;
+            }
+        }
+        return difficultyService.getDifficultyOrdinal(entry);
+    }
+}
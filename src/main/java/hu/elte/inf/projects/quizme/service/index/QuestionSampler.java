@@ -0,0 +1,202 @@
+package hu.elte.inf.projects.quizme.service.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Balanced random selection over a {@link TitleQuestionIndex}. Works on index
+ * positions only: candidates are grouped into strata with a counting sort and
+ * each stratum is sampled with a partial Fisher-Yates shuffle, so a quiz of k
+ * questions costs k swaps instead of shuffling whole question lists.
+ */
+@Component
+public class QuestionSampler {
+
+    private static final int DIFFICULTY_STRATA = 256;
+
+    // Grouping buffers, reused across requests served by the same thread
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Picks questions of the given difficulty ordinal spread evenly across
+     * topics. Falls back to every question when none has that difficulty.
+     *
+     * @return selected index positions in random order
+     */
+    public int[] sampleByTopic(TitleQuestionIndex index, int requestedCount, byte difficulty) {
+        int size = index.size();
+        int matching = 0;
+        for (int i = 0; i < size; i++) {
+            if (index.difficulty(i) == difficulty) {
+                matching++;
+            }
+        }
+
+        int[] candidates = new int[matching > 0 ? matching : size];
+        for (int i = 0, k = 0; i < size; i++) {
+            if (matching == 0 || index.difficulty(i) == difficulty) {
+                candidates[k++] = i;
+            }
+        }
+        int[] strata = SCRATCH.get().strata(candidates.length);
+        for (int i = 0; i < candidates.length; i++) {
+            strata[i] = index.topicOrdinal(candidates[i]);
+        }
+        return sample(candidates, strata, index.topicCount(), requestedCount);
+    }
+
+    /**
+     * Picks questions from every topic spread evenly across difficulty levels.
+     *
+     * @return selected index positions in random order
+     */
+    public int[] sampleByDifficulty(TitleQuestionIndex index, int requestedCount) {
+        int size = index.size();
+        int[] candidates = new int[size];
+        int[] strata = SCRATCH.get().strata(size);
+        for (int i = 0; i < size; i++) {
+            candidates[i] = i;
+            strata[i] = index.difficulty(i) & 0xFF;
+        }
+        return sample(candidates, strata, DIFFICULTY_STRATA, requestedCount);
+    }
+
+    private static int[] sample(int[] candidates, int[] strata, int strataCount, int requestedCount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int n = candidates.length;
+
+        // If no limit specified or limit >= total, return all candidates shuffled
+        if (requestedCount <= 0 || requestedCount >= n) {
+            shuffle(candidates, n, n, random);
+            return candidates;
+        }
+
+        // Counting sort the candidates by stratum: grouped[offsets[s] .. offsets[s + 1])
+        Scratch scratch = SCRATCH.get();
+        int[] offsets = scratch.offsets(strataCount + 1);
+        for (int i = 0; i < n; i++) {
+            offsets[strata[i] + 1]++;
+        }
+        int nonEmpty = 0;
+        for (int s = 0; s < strataCount; s++) {
+            if (offsets[s + 1] > 0) {
+                nonEmpty++;
+            }
+            offsets[s + 1] += offsets[s];
+        }
+        int[] grouped = scratch.grouped(n);
+        int[] cursor = scratch.cursor(strataCount);
+        System.arraycopy(offsets, 0, cursor, 0, strataCount);
+        for (int i = 0; i < n; i++) {
+            grouped[cursor[strata[i]]++] = candidates[i];
+        }
+
+        // Visit non-empty strata in random order so the remainder is not always given to the same ones
+        int[] order = new int[nonEmpty];
+        for (int s = 0, k = 0; s < strataCount; s++) {
+            if (offsets[s + 1] > offsets[s]) {
+                order[k++] = s;
+            }
+        }
+        shuffle(order, nonEmpty, nonEmpty, random);
+
+        int[] selected = new int[requestedCount];
+        BitSet taken = scratch.taken();
+        int perStratum = requestedCount / nonEmpty;
+        int remainder = requestedCount % nonEmpty;
+        int filled = 0;
+
+        for (int k = 0; k < nonEmpty; k++) {
+            int from = offsets[order[k]];
+            int stratumSize = offsets[order[k] + 1] - from;
+            int quota = Math.min(stratumSize, perStratum + (k < remainder ? 1 : 0));
+            for (int i = 0; i < quota; i++) {
+                int j = from + i + random.nextInt(stratumSize - i);
+                swap(grouped, from + i, j);
+                int position = grouped[from + i];
+                selected[filled++] = position;
+                taken.set(position);
+            }
+        }
+
+        // Small strata could not supply their share: fill up uniformly from whatever is left
+        if (filled < requestedCount) {
+            int remaining = 0;
+            for (int i = 0; i < n; i++) {
+                if (!taken.get(grouped[i])) {
+                    grouped[remaining++] = grouped[i];
+                }
+            }
+            int needed = Math.min(requestedCount - filled, remaining);
+            shuffle(grouped, remaining, needed, random);
+            System.arraycopy(grouped, 0, selected, filled, needed);
+            filled += needed;
+        }
+
+        // Final shuffle so strata are interleaved
+        shuffle(selected, filled, filled, random);
+        return filled == selected.length ? selected : Arrays.copyOf(selected, filled);
+    }
+
+    /**
+     * Partial Fisher-Yates: moves {@code k} uniformly chosen elements of
+     * {@code values[0 .. n)} to the front.
+     */
+    private static void shuffle(int[] values, int n, int k, ThreadLocalRandom random) {
+        for (int i = 0; i < k && i < n - 1; i++) {
+            swap(values, i, i + random.nextInt(n - i));
+        }
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+
+    private static final class Scratch {
+        private int[] offsets = new int[0];
+        private int[] cursor = new int[0];
+        private int[] grouped = new int[0];
+        private int[] strata = new int[0];
+        private final BitSet taken = new BitSet();
+
+        int[] offsets(int length) {
+            if (offsets.length < length) {
+                offsets = new int[length];
+            } else {
+                Arrays.fill(offsets, 0, length, 0);
+            }
+            return offsets;
+        }
+
+        int[] cursor(int length) {
+            if (cursor.length < length) {
+                cursor = new int[length];
+            }
+            return cursor;
+        }
+
+        int[] grouped(int length) {
+            if (grouped.length < length) {
+                grouped = new int[length];
+            }
+            return grouped;
+        }
+
+        int[] strata(int length) {
+            if (strata.length < length) {
+                strata = new int[length];
+            }
+            return strata;
+        }
+
+        BitSet taken() {
+            taken.clear();
+            return taken;
+        }
+    }
+}
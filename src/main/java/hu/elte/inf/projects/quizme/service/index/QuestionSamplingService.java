@@ -0,0 +1,115 @@
+package hu.elte.inf.projects.quizme.service.index;
+
+import static hu.elte.inf.projects.quizme.util.QuizConstants.DIFFICULTY_MIXED;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Service;
+
+import hu.elte.inf.projects.quizme.repository.QuestionRepository;
+import hu.elte.inf.projects.quizme.repository.TopicRepository;
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.StratumCount;
+import hu.elte.inf.projects.quizme.repository.dto.StratumSample;
+import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import hu.elte.inf.projects.quizme.service.JsonDifficultyService;
+
+/**
+ * Draws balanced quizzes with MongoDB doing the random sampling: one
+ * aggregation counts the questions per topic and difficulty, then one
+ * {@code $match} + {@code $sample} aggregation per stratum draws its quota.
+ * Only the sampled questions ever leave the database.
+ */
+@Service
+public class QuestionSamplingService {
+
+    private final TopicRepository topicRepository;
+    private final QuestionRepository questionRepository;
+    private final JsonDifficultyService difficultyService;
+
+    public QuestionSamplingService(TopicRepository topicRepository, QuestionRepository questionRepository,
+            JsonDifficultyService difficultyService) {
+        this.topicRepository = topicRepository;
+        this.questionRepository = questionRepository;
+        this.difficultyService = difficultyService;
+    }
+
+    public List<Question> sampleBalanced(String titleName, int requestedCount, String difficulty) {
+        List<String> topicIds = topicRepository.findTopicIdsByTitleName(titleName).stream()
+                .map(Topic::getTopicId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (topicIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<StratumCount> counts = questionRepository.countByTopicAndDifficulty(topicIds);
+        List<Question> questions;
+        if (DIFFICULTY_MIXED.equalsIgnoreCase(difficulty)) {
+            // Spread evenly across difficulty levels, any topic; unmapped labels are no level
+            List<StratumCount> mapped = counts.stream()
+                    .filter(c -> difficultyService.getDifficultyOrdinal(c.getDifficulty())
+                            != JsonDifficultyService.DIFFICULTY_UNKNOWN)
+                    .toList();
+            questions = sample(mapped.isEmpty() ? counts : mapped, requestedCount,
+                    c -> difficultyService.getDifficultyOrdinal(c.getDifficulty()), c -> topicIds);
+        } else {
+            // Spread evenly across topics, matching difficulty only
+            byte level = difficultyService.getDifficultyOrdinalForUiLevel(difficulty);
+            List<StratumCount> matching = counts.stream()
+                    .filter(c -> difficultyService.getDifficultyOrdinal(c.getDifficulty()) == level)
+                    .toList();
+            // If no questions match the difficulty, fall back to all questions
+            questions = sample(matching.isEmpty() ? counts : matching, requestedCount,
+                    StratumCount::getTopicId, c -> List.of(c.getTopicId()));
+        }
+
+        Collections.shuffle(questions);
+        return questions;
+    }
+
+    private List<Question> sample(List<StratumCount> counts, int requestedCount,
+            Function<StratumCount, Object> stratumKey, Function<StratumCount, List<String>> stratumTopics) {
+        Map<Object, Set<String>> topicsByStratum = new LinkedHashMap<>();
+        Map<Object, Set<String>> labelsByStratum = new LinkedHashMap<>();
+        Map<Object, Integer> sizeByStratum = new LinkedHashMap<>();
+        for (StratumCount count : counts) {
+            Object key = stratumKey.apply(count);
+            topicsByStratum.computeIfAbsent(key, k -> new LinkedHashSet<>()).addAll(stratumTopics.apply(count));
+            labelsByStratum.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(count.getDifficulty());
+            sizeByStratum.merge(key, count.getCount(), Integer::sum);
+        }
+
+        List<Object> strata = new ArrayList<>(sizeByStratum.keySet());
+        int[] available = strata.stream().mapToInt(sizeByStratum::get).toArray();
+        int total = 0;
+        for (int size : available) {
+            total += size;
+        }
+
+        // Whole pool requested: a plain query is cheaper than sampling every document
+        if (requestedCount <= 0 || requestedCount >= total) {
+            Set<String> topics = new LinkedHashSet<>();
+            Set<String> labels = new LinkedHashSet<>();
+            topicsByStratum.values().forEach(topics::addAll);
+            labelsByStratum.values().forEach(labels::addAll);
+            return new ArrayList<>(questionRepository.findByTopicIdInAndDifficultyIn(topics, labels));
+        }
+
+        int[] quotas = StratumQuotas.apportion(available, requestedCount);
+        List<StratumSample> samples = new ArrayList<>();
+        for (int i = 0; i < strata.size(); i++) {
+            Object key = strata.get(i);
+            samples.add(new StratumSample(topicsByStratum.get(key), labelsByStratum.get(key), quotas[i]));
+        }
+        return new ArrayList<>(questionRepository.sampleStrata(samples));
+    }
+}
@@ -0,0 +1,71 @@
+package hu.elte.inf.projects.quizme.service.index;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Splits a requested number of questions across strata (topics or difficulty
+ * levels) as evenly as their sizes allow.
+ */
+public final class StratumQuotas {
+    private StratumQuotas() {
+    }
+
+    /**
+     * Returns how many questions to draw from each stratum. Every non-empty
+     * stratum gets an equal share, the remainder goes to randomly chosen
+     * strata, and whatever small strata cannot supply is taken from strata
+     * with spare questions. The quotas add up to exactly {@code requested},
+     * or to the total when fewer questions are available.
+     */
+    public static int[] apportion(int[] available, int requested) {
+        int total = 0;
+        int nonEmpty = 0;
+        for (int size : available) {
+            total += size;
+            if (size > 0) {
+                nonEmpty++;
+            }
+        }
+
+        if (requested <= 0 || requested >= total) {
+            return available.clone();
+        }
+
+        // Visit strata in random order so the remainder does not always land on the first ones
+        int[] order = new int[nonEmpty];
+        for (int i = 0, k = 0; i < available.length; i++) {
+            if (available[i] > 0) {
+                order[k++] = i;
+            }
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        int[] quotas = new int[available.length];
+        int perStratum = requested / nonEmpty;
+        int remainder = requested % nonEmpty;
+        int assigned = 0;
+        for (int k = 0; k < order.length; k++) {
+            int stratum = order[k];
+            quotas[stratum] = Math.min(available[stratum], perStratum + (k < remainder ? 1 : 0));
+            assigned += quotas[stratum];
+        }
+
+        // Fill the shortfall of small strata from the ones that still have questions left
+        while (assigned < requested) {
+            for (int k = 0; k < order.length && assigned < requested; k++) {
+                int stratum = order[k];
+                if (quotas[stratum] < available[stratum]) {
+                    quotas[stratum]++;
+                    assigned++;
+                }
+            }
+        }
+        return quotas;
+    }
+}
@@ -0,0 +1,57 @@
+package hu.elte.inf.projects.quizme.service.index;
+
+/**
+ * Compact, immutable view of every question of a title, stored column-wise:
+ * question ids, topic ordinals and difficulty ordinals share the same
+ * position. Quiz selection runs against these arrays so only the chosen
+ * questions have to be loaded from MongoDB.
+ */
+public final class TitleQuestionIndex {
+
+    private final String titleName;
+    private final String[] questionIds;
+    private final int[] topicOrdinals;
+    private final byte[] difficulties;
+    private final String[] topicIds;
+
+    TitleQuestionIndex(String titleName, String[] questionIds, int[] topicOrdinals, byte[] difficulties,
+            String[] topicIds) {
+        this.titleName = titleName;
+        this.questionIds = questionIds;
+        this.topicOrdinals = topicOrdinals;
+        this.difficulties = difficulties;
+        this.topicIds = topicIds;
+    }
+
+    public String getTitleName() {
+        return titleName;
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+
+    public boolean isEmpty() {
+        return questionIds.length == 0;
+    }
+
+    public String questionId(int position) {
+        return questionIds[position];
+    }
+
+    public int topicOrdinal(int position) {
+        return topicOrdinals[position];
+    }
+
+    public byte difficulty(int position) {
+        return difficulties[position];
+    }
+
+    public int topicCount() {
+        return topicIds.length;
+    }
+
+    public String topicId(int topicOrdinal) {
+        return topicIds[topicOrdinal];
+    }
+}
@@ -0,0 +1,116 @@
+package hu.elte.inf.projects.quizme.service.json;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A background import of one or more spooled quiz files. Counters are updated
+ * by the import threads while the job runs and can be polled at any time.
+ */
+public class ImportJob implements ImportProgress {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final List<String> fileNames;
+    private final long bytesTotal;
+    private final Instant submittedAt = Instant.now();
+    private final AtomicLong bytesParsed = new AtomicLong();
+    private final AtomicInteger questionsPersisted = new AtomicInteger();
+    private final AtomicInteger duplicatesSkipped = new AtomicInteger();
+    private final AtomicInteger questionsFailed = new AtomicInteger();
+    private final List<ImportResult> results = new CopyOnWriteArrayList<>();
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant finishedAt;
+
+    public ImportJob(List<String> fileNames, long bytesTotal) {
+        this.fileNames = List.copyOf(fileNames);
+        this.bytesTotal = bytesTotal;
+    }
+
+    @Override
+    public void onBatch(long bytesParsed, int inserted, int skipped, int failed) {
+        this.bytesParsed.addAndGet(bytesParsed);
+        questionsPersisted.addAndGet(inserted);
+        duplicatesSkipped.addAndGet(skipped);
+        questionsFailed.addAndGet(failed);
+    }
+
+    void started() {
+        status = Status.RUNNING;
+    }
+
+    void fileFinished(ImportResult result) {
+        results.add(result);
+    }
+
+    void finished() {
+        finishedAt = Instant.now();
+        status = results.stream().allMatch(ImportResult::isSuccess) ? Status.COMPLETED : Status.FAILED;
+        done.countDown();
+    }
+
+    /**
+     * @return {@code true} if the job finished within the timeout
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        return done.await(timeout, unit);
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public List<String> getFileNames() {
+        return fileNames;
+    }
+
+    public long getBytesTotal() {
+        return bytesTotal;
+    }
+
+    public long getBytesParsed() {
+        return bytesParsed.get();
+    }
+
+    public int getQuestionsPersisted() {
+        return questionsPersisted.get();
+    }
+
+    public int getDuplicatesSkipped() {
+        return duplicatesSkipped.get();
+    }
+
+    public int getQuestionsFailed() {
+        return questionsFailed.get();
+    }
+
+    public List<ImportResult> getResults() {
+        return List.copyOf(results);
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+}
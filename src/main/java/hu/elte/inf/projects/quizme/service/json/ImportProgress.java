@@ -0,0 +1,14 @@
+package hu.elte.inf.projects.quizme.service.json;
+
+/**
+ * Receives progress of a streaming import after every question batch. All
+ * values are increments since the previous call.
+ */
+@FunctionalInterface
+public interface ImportProgress {
+
+    ImportProgress NONE = (bytesParsed, inserted, skipped, failed) -> {
+    };
+
+    void onBatch(long bytesParsed, int inserted, int skipped, int failed);
+}
@@ -0,0 +1,53 @@
+package hu.elte.inf.projects.quizme.service.json;
+
+/**
+ * Outcome of importing one quiz file: how many questions were inserted,
+ * skipped as already stored or rejected by MongoDB, and how long it took.
+ */
+public final class ImportResult {
+
+    private final String fileName;
+    private final int inserted;
+    private final int skipped;
+    private final int failed;
+    private final long durationMillis;
+    private final String error;
+
+    public ImportResult(String fileName, int inserted, int skipped, int failed, long durationMillis,
+            String error) {
+        this.fileName = fileName;
+        this.inserted = inserted;
+        this.skipped = skipped;
+        this.failed = failed;
+        this.durationMillis = durationMillis;
+        this.error = error;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null && failed == 0;
+    }
+}
@@ -0,0 +1,166 @@
+package hu.elte.inf.projects.quizme.service.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs quiz imports in the background. Uploads are spooled to temp files on
+ * the request thread, which then returns with an {@link ImportJob} to poll.
+ * Files run on virtual threads, at most {@code app.import.parallelism} at a
+ * time, and every file yields its own {@link ImportResult} so one broken file
+ * does not hide the others. Finished jobs stay available for polling for
+ * {@code app.import.job-retention} and are swept every
+ * {@code app.import.job-sweep-interval}.
+ */
+@Service
+public class QuizImportExecutor {
+    private static final Logger LOG = LoggerFactory.getLogger(QuizImportExecutor.class);
+
+    private final QuizImportService quizImportService;
+    private final ExecutorService executor;
+    private final Duration jobRetention;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public QuizImportExecutor(QuizImportService quizImportService,
+            @Value("${app.import.parallelism:4}") int parallelism,
+            @Value("${app.import.job-retention:PT1H}") Duration jobRetention) {
+        this.quizImportService = quizImportService;
+        this.jobRetention = jobRetention;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                Thread.ofVirtual().name("quiz-import-", 0).factory());
+    }
+
+    /**
+     * Spools the uploads and starts importing them.
+     *
+     * @throws IOException if an upload cannot be copied to a temp file
+     */
+    public ImportJob submit(List<MultipartFile> files) throws IOException {
+        List<Path> spooled = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                Path path = Files.createTempFile("quiz-import-", ".json");
+                spooled.add(path);
+                file.transferTo(path);
+            }
+        } catch (IOException e) {
+            spooled.forEach(QuizImportExecutor::delete);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(files.stream().map(MultipartFile::getOriginalFilename).toList(),
+                files.stream().mapToLong(MultipartFile::getSize).sum());
+        jobs.put(job.getId(), job);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            String fileName = job.getFileNames().get(i);
+            Path path = spooled.get(i);
+            try {
+                futures.add(CompletableFuture.runAsync(() -> job.fileFinished(importOne(job, fileName, path)),
+                        executor));
+            } catch (RejectedExecutionException e) {
+                // Shutting down, the file fails and the job still finishes with the files already running
+                LOG.warn("Import of {} rejected, the import executor is shut down", fileName);
+                delete(path);
+                job.fileFinished(new ImportResult(fileName, 0, 0, 0, 0, "Import executor is shut down"));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).whenComplete((ignored, e) -> {
+            job.finished();
+            LOG.info("Import job {} {}: {} questions persisted, {} duplicates skipped", job.getId(),
+                    job.getStatus(), job.getQuestionsPersisted(), job.getDuplicatesSkipped());
+        });
+        return job;
+    }
+
+    public Optional<ImportJob> findJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private ImportResult importOne(ImportJob job, String fileName, Path path) {
+        job.started();
+        long start = System.nanoTime();
+        FileProgress progress = new FileProgress(job);
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            return quizImportService.importQuizStream(fileName, inputStream, progress);
+        } catch (Exception e) {
+            LOG.error("Failed to import {} after {} questions were inserted", fileName, progress.inserted, e);
+            // Batches written before the failure stay in the database
+            return new ImportResult(fileName, progress.inserted, progress.skipped, progress.failed,
+                    (System.nanoTime() - start) / 1_000_000, e.getMessage());
+        } finally {
+            delete(path);
+        }
+    }
+
+    /**
+     * Forgets jobs that finished more than the retention ago, running jobs are
+     * kept however old they are.
+     */
+    @Scheduled(initialDelayString = "${app.import.job-sweep-interval:PT5M}",
+            fixedDelayString = "${app.import.job-sweep-interval:PT5M}")
+    public void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        int before = jobs.size();
+        jobs.values().removeIf(job -> job.isFinished() && !job.getFinishedAt().isAfter(cutoff));
+        LOG.debug("Evicted {} finished import jobs", before - jobs.size());
+    }
+
+    /**
+     * Counts of one file, passed on to its job.
+     */
+    private static final class FileProgress implements ImportProgress {
+        private final ImportProgress job;
+        private int inserted;
+        private int skipped;
+        private int failed;
+
+        FileProgress(ImportProgress job) {
+            this.job = job;
+        }
+
+        @Override
+        public void onBatch(long bytesParsed, int inserted, int skipped, int failed) {
+            this.inserted += inserted;
+            this.skipped += skipped;
+            this.failed += failed;
+            job.onBatch(bytesParsed, inserted, skipped, failed);
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOG.warn("Could not delete spooled import file {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -3,26 +3,51 @@ package hu.elte.inf.projects.quizme.service.json;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
 
 import hu.elte.inf.projects.quizme.repository.CategoryRepository;
 import hu.elte.inf.projects.quizme.repository.QuestionRepository;
 import hu.elte.inf.projects.quizme.repository.SubCategoryRepository;
-import hu.elte.inf.projects.quizme.repository.TitleRepository;
 import hu.elte.inf.projects.quizme.repository.TopicRepository;
 import hu.elte.inf.projects.quizme.repository.dto.Category;
 import hu.elte.inf.projects.quizme.repository.dto.Question;
@@ -31,11 +56,15 @@ import hu.elte.inf.projects.quizme.repository.dto.QuizMetadata;
 import hu.elte.inf.projects.quizme.repository.dto.SubCategory;
 import hu.elte.inf.projects.quizme.repository.dto.Title;
 import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import hu.elte.inf.projects.quizme.service.JsonDifficultyService;
 import hu.elte.inf.projects.quizme.service.SequenceService;
+import hu.elte.inf.projects.quizme.service.catalog.CatalogChangedEvent;
+import hu.elte.inf.projects.quizme.service.catalog.QuestionCountLock;
 
 @Service
 public class QuizImportService {
     private static final Logger LOG = LoggerFactory.getLogger(QuizImportService.class);
+    private static final String TOTAL_QUESTIONS = "total_questions";
 
     private final ObjectMapper objectMapper;
     private final TopicRepository topicRepository;
@@ -43,7 +72,11 @@ public class QuizImportService {
     private final SequenceService sequenceService;
     private final CategoryRepository categoryRepository;
     private final SubCategoryRepository subCategoryRepository;
-    private final TitleRepository titleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MongoTemplate mongoTemplate;
+    private final JsonDifficultyService difficultyService;
+    private final QuestionCountLock questionCountLock;
+    private final int batchSize;
 
     public QuizImportService(
             ObjectMapper objectMapper,
@@ -51,15 +84,23 @@ public class QuizImportService {
             QuestionRepository questionRepository,
             CategoryRepository categoryRepository,
             SubCategoryRepository subCategoryRepository,
-            TitleRepository titleRepository,
-            SequenceService sequenceService) {
+            SequenceService sequenceService,
+            ApplicationEventPublisher eventPublisher,
+            MongoTemplate mongoTemplate,
+            JsonDifficultyService difficultyService,
+            QuestionCountLock questionCountLock,
+            @Value("${app.import.batch-size:500}") int batchSize) {
         this.objectMapper = objectMapper;
         this.topicRepository = topicRepository;
         this.questionRepository = questionRepository;
         this.categoryRepository = categoryRepository;
         this.subCategoryRepository = subCategoryRepository;
-        this.titleRepository = titleRepository;
         this.sequenceService = sequenceService;
+        this.eventPublisher = eventPublisher;
+        this.mongoTemplate = mongoTemplate;
+        this.difficultyService = difficultyService;
+        this.questionCountLock = questionCountLock;
+        this.batchSize = Math.max(1, batchSize);
     }
 
     public Optional<QuizData> importQuizFile(byte[] jsonFileBytes) {
@@ -76,7 +117,7 @@ public class QuizImportService {
                     break;
 
                 if (JsonToken.FIELD_NAME.equals(token)) {
-                    String fieldName = parser.getCurrentName();
+                    String fieldName = parser.currentName();
 
                     if ("quiz_metadata".equals(fieldName)) {
                         parser.nextToken();
@@ -95,12 +136,6 @@ public class QuizImportService {
                         }
                         quizData.setTopics(topics);
                     }
-                    List<String> topicIds = quizData.getTopics().stream().map(Topic::getTopicId)
-                            .collect(Collectors.toList());
-                    List<Topic> existingTopics = topicRepository.findByTopicIdIn(topicIds);
-                    existingTopics.forEach(t -> {
-                        quizData.getTopics().removeIf(topic -> topic.getTopicId().equals(t.getTopicId()));
-                    });
 
                     if ("questions".equals(fieldName)) {
                         parser.nextToken(); // START_ARRAY
@@ -110,15 +145,26 @@ public class QuizImportService {
                                 questions.add(q);
                             }
                         }
-                        questionRepository.findByQuestionIn(questions.stream()
-                                .map(Question::getQuestion)
-                                .collect(Collectors.toList()))
-                                .forEach(q -> questions.removeIf(qq -> qq.getQuestion().equals(q.getQuestion())));
                         quizData.setQuestions(questions);
                     }
                 }
             }
 
+            // One lookup per collection once the whole file is parsed
+            Set<String> existingTopicIds = topicRepository.findByTopicIdIn(quizData.getTopics().stream()
+                    .map(Topic::getTopicId)
+                    .collect(Collectors.toList())).stream()
+                    .map(Topic::getTopicId)
+                    .collect(Collectors.toSet());
+            quizData.getQuestions().forEach(Question::createAndSetContentHash);
+            Set<String> existingContentHashes = questionRepository.findContentHashesByContentHashIn(
+                    quizData.getQuestions().stream()
+                            .map(Question::getContentHash)
+                            .collect(Collectors.toSet())).stream()
+                    .map(Question::getContentHash)
+                    .collect(Collectors.toSet());
+            removeExisting(quizData, existingTopicIds, existingContentHashes);
+
             return Optional.of(quizData);
         } catch (IOException e) {
             LOG.error("Error while importing quiz file", e);
@@ -129,62 +175,437 @@ public class QuizImportService {
     public void persist(Optional<QuizData> quizData) {
         quizData.ifPresent(data -> {
             QuizMetadata quizMetadata = data.getQuizMetadata();
-            String categoryName = quizMetadata.getCategory();
-            String subCategoryName = quizMetadata.getSubCategory();
             String titleName = quizMetadata.getTitle();
 
             if (StringUtils.isNotBlank(quizMetadata.getCategory())) {
-                // create new Category unless it already exists
-                Category category = categoryRepository.findByName(categoryName).stream().findFirst()
-                        .orElse(new Category(categoryName));
-                category.setAlias(quizMetadata.getCategoryAlias());
-                category = categoryRepository.save(category);
-
-                if (StringUtils.isNotBlank(subCategoryName)) {
-                    SubCategory subCategory = subCategoryRepository.findByName(subCategoryName).stream().findFirst()
-                            .orElse(new SubCategory(subCategoryName));
-                    subCategory.setAlias(quizMetadata.getSubCategoryAlias());
-                    subCategory.setCategoryName(category.getName());
-                    subCategory = subCategoryRepository.save(subCategory);
-
-                    if (StringUtils.isNotBlank(titleName)) {
-                        Title title = titleRepository.findByName(titleName).stream().findFirst()
-                                .orElse(new Title(titleName));
-                        title.setDescription(quizMetadata.getDescription());
-                        title.setCreatedDate(quizMetadata.getCreatedDate());
-                        title.setLearningObjectives(quizMetadata.getLearningObjectives());
-                        title.setStudyTips(quizMetadata.getStudyTips());
-                        title.setLanguage(quizMetadata.getLanguage());
-                        title.setTotalQuestions(quizMetadata.getTotalQuestions());
-                        title.setVersion(quizMetadata.getVersion());
-                        title.setCategoryName(category.getName());
-                        title.setSubCategoryName(subCategory.getName());
-                        title.setAlias(quizMetadata.getTitleAlias());
-
-                        titleRepository.save(title);
-                        subCategory.addTitle(title);
-
-                        data.getQuestions().forEach(question -> {
-                            question.setId(sequenceService.getNextQuestionId());
-                        });
-
-                        data.getTopics().forEach(topic -> {
-                            topic.setId(UUID.randomUUID().toString());
-                            topic.setTitleName(titleName);
-
-                            List<String> questionIds = data.getQuestions().stream()
-                                    .filter(q -> q.getTopicId().equals(topic.getTopicId()))
-                                    .map(Question::getId)
-                                    .collect(Collectors.toList());
-
-                            topic.setQuestionIds(questionIds);
-                        });
+                if (persistCatalog(quizMetadata) != null) {
+                    // One sequence round trip for the whole file
+                    Iterator<String> reservedIds = sequenceService
+                            .getNextQuestionIds(data.getQuestions().size()).iterator();
+                    data.getQuestions().forEach(question -> {
+                        question.setId(reservedIds.next());
+                        question.createAndSetContentHash();
+                    });
+                    List<Question> inserted = upsertByContentHash(data.getQuestions(), new BatchCounts());
 
+                    Map<String, List<String>> questionIdsByTopic = groupQuestionIdsByTopic(inserted);
+                    int linked = 0;
+                    for (Topic topic : data.getTopics()) {
+                        List<String> questionIds = questionIdsByTopic.getOrDefault(topic.getTopicId(),
+                                new ArrayList<>());
+                        topic.setId(UUID.randomUUID().toString());
+                        topic.setTitleName(titleName);
+                        topic.setQuestionIds(questionIds);
+                        topic.setQuestionCount(questionIds.size());
+                        linked += questionIds.size();
+                    }
+
+                    questionCountLock.importLock().lock();
+                    try {
                         topicRepository.saveAll(data.getTopics());
-                        questionRepository.saveAll(data.getQuestions());
+                        incrementTotalQuestions(titleName, linked);
+                    } finally {
+                        questionCountLock.importLock().unlock();
+                    }
+                }
+                eventPublisher.publishEvent(new CatalogChangedEvent(titleName));
+            }
+        });
+    }
+
+    /**
+     * Parses and persists a quiz file straight from the stream. Questions are
+     * de-duplicated and written in batches of {@code app.import.batch-size}
+     * while they are read, so memory use does not grow with the file.
+     * <p>
+     * Our quiz files start with {@code quiz_metadata} and {@code topics}.
+     * Fields may come in any order though: topics read before the metadata
+     * are held until it arrives, and questions read before it are spooled to
+     * a temp file and imported once the whole file is read.
+     *
+     * @throws IOException if the file is not valid JSON, or has topics or
+     *                     questions but no {@code quiz_metadata}
+     * @return inserted, skipped and failed question counts
+     */
+    public ImportResult importQuizStream(String fileName, InputStream inputStream) throws IOException {
+        return importQuizStream(fileName, inputStream, ImportProgress.NONE);
+    }
+
+    /**
+     * Same as {@link #importQuizStream(String, InputStream)}, reporting
+     * progress to {@code progress} after every batch.
+     */
+    public ImportResult importQuizStream(String fileName, InputStream inputStream, ImportProgress progress)
+            throws IOException {
+        long start = System.nanoTime();
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Quiz file must contain a JSON object");
+            }
+
+            QuizMetadata quizMetadata = null;
+            Title title = null;
+            Set<String> titleTopicIds = new HashSet<>();
+            Topic[] pendingTopics = null;
+            Path spooledQuestions = null;
+            BatchCounts counts = new BatchCounts(parser, progress);
+
+            try {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.currentName();
+                    parser.nextToken();
+                    boolean array = parser.currentToken() == JsonToken.START_ARRAY;
+
+                    if ("quiz_metadata".equals(fieldName)) {
+                        quizMetadata = objectMapper.readValue(parser, QuizMetadata.class);
+                        quizMetadata.createAndSetId();
+                        if (StringUtils.isNotBlank(quizMetadata.getCategory())) {
+                            title = persistCatalog(quizMetadata);
+                        }
+                        if (title != null && pendingTopics != null) {
+                            titleTopicIds = persistNewTopics(pendingTopics, title.getName());
+                        }
+                    } else if ("topics".equals(fieldName) && array && quizMetadata == null) {
+                        pendingTopics = objectMapper.readValue(parser, Topic[].class);
+                    } else if ("topics".equals(fieldName) && array && title != null) {
+                        titleTopicIds = persistNewTopics(objectMapper.readValue(parser, Topic[].class),
+                                title.getName());
+                    } else if ("questions".equals(fieldName) && array && quizMetadata == null) {
+                        spooledQuestions = spool(parser);
+                    } else if ("questions".equals(fieldName) && array && title != null) {
+                        persistQuestions(parser, title.getName(), titleTopicIds, counts);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+
+                if (quizMetadata == null && (pendingTopics != null || spooledQuestions != null)) {
+                    throw new IOException("Quiz file has topics or questions but no quiz_metadata");
+                }
+                if (title != null && spooledQuestions != null) {
+                    try (JsonParser spooled = objectMapper.getFactory().createParser(spooledQuestions.toFile())) {
+                        spooled.nextToken();
+                        persistQuestions(spooled, title.getName(), titleTopicIds, counts);
                     }
                 }
+            } catch (IOException | RuntimeException e) {
+                // Questions written before the failure stay, the caller learns how many
+                counts.report();
+                if (counts.inserted > 0) {
+                    eventPublisher.publishEvent(new CatalogChangedEvent(quizMetadata.getTitle()));
+                }
+                throw e;
+            } finally {
+                if (spooledQuestions != null) {
+                    Files.deleteIfExists(spooledQuestions);
+                }
+            }
+
+            if (quizMetadata != null && StringUtils.isNotBlank(quizMetadata.getCategory())) {
+                eventPublisher.publishEvent(new CatalogChangedEvent(quizMetadata.getTitle()));
             }
+            counts.report();
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            LOG.info("Imported {}: {} inserted, {} skipped, {} failed in {} ms", fileName, counts.inserted,
+                    counts.skipped, counts.failed, durationMillis);
+            return new ImportResult(fileName, counts.inserted, counts.skipped, counts.failed, durationMillis, null);
+        }
+    }
+
+    /**
+     * Reads the questions array the parser is positioned on in batches of
+     * {@code app.import.batch-size}, persisting each batch as it fills.
+     */
+    private void persistQuestions(JsonParser parser, String titleName, Set<String> titleTopicIds,
+            BatchCounts counts) throws IOException {
+        List<Question> batch = new ArrayList<>(batchSize);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            batch.add(objectMapper.readValue(parser, Question.class));
+            if (batch.size() == batchSize) {
+                persistQuestionBatch(batch, titleName, titleTopicIds, counts);
+                counts.report();
+                batch.clear();
+            }
+        }
+        persistQuestionBatch(batch, titleName, titleTopicIds, counts);
+    }
+
+    /**
+     * Copies the array the parser is positioned on to a temp file, so it can be
+     * imported in batches once the title it belongs to is known.
+     */
+    private Path spool(JsonParser parser) throws IOException {
+        Path path = Files.createTempFile("quiz-questions-", ".json");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(path.toFile(), JsonEncoding.UTF8)) {
+            generator.copyCurrentStructure(parser);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return path;
+    }
+
+    /**
+     * Creates or updates the category, subcategory and title described by the
+     * metadata. Each step is retried once when a concurrent import inserted the
+     * same name first and the unique name index rejected this insert.
+     *
+     * @return the saved title, or {@code null} if the metadata does not name a
+     *         complete category / subcategory / title path
+     */
+    private Title persistCatalog(QuizMetadata quizMetadata) {
+        String categoryName = quizMetadata.getCategory();
+        String subCategoryName = quizMetadata.getSubCategory();
+        String titleName = quizMetadata.getTitle();
+
+        // create new Category unless it already exists
+        Category category = retryOnDuplicateKey(() -> {
+            Category existing = categoryRepository.findByName(categoryName).stream().findFirst()
+                    .orElse(new Category(categoryName));
+            existing.setAlias(quizMetadata.getCategoryAlias());
+            return categoryRepository.save(existing);
         });
+
+        if (StringUtils.isBlank(subCategoryName)) {
+            return null;
+        }
+        SubCategory subCategory = retryOnDuplicateKey(() -> {
+            SubCategory existing = subCategoryRepository.findByName(subCategoryName).stream().findFirst()
+                    .orElse(new SubCategory(subCategoryName));
+            existing.setAlias(quizMetadata.getSubCategoryAlias());
+            existing.setCategoryName(category.getName());
+            return subCategoryRepository.save(existing);
+        });
+
+        if (StringUtils.isBlank(titleName)) {
+            return null;
+        }
+        Title title = retryOnDuplicateKey(() -> saveTitle(quizMetadata, category, subCategory));
+        subCategory.addTitle(title);
+        return title;
+    }
+
+    /**
+     * Upserts the title by name. The stored question total is only ever changed
+     * by {@link #incrementTotalQuestions}, so re-importing a title cannot
+     * overwrite counts written by a concurrent import.
+     */
+    private Title saveTitle(QuizMetadata quizMetadata, Category category, SubCategory subCategory) {
+        String titleName = quizMetadata.getTitle();
+        Title title = new Title(titleName);
+        title.setDescription(quizMetadata.getDescription());
+        title.setCreatedDate(quizMetadata.getCreatedDate());
+        title.setLearningObjectives(quizMetadata.getLearningObjectives());
+        title.setStudyTips(quizMetadata.getStudyTips());
+        title.setLanguage(quizMetadata.getLanguage());
+        title.setVersion(quizMetadata.getVersion());
+        title.setCategoryName(category.getName());
+        title.setSubCategoryName(subCategory.getName());
+        title.setAlias(quizMetadata.getTitleAlias());
+
+        Document fields = new Document();
+        mongoTemplate.getConverter().write(title, fields);
+        fields.remove(TOTAL_QUESTIONS);
+        Update update = Update.fromDocument(new Document("$set", fields)
+                .append("$setOnInsert", new Document(TOTAL_QUESTIONS, 0)));
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("name").is(titleName)), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Title.class);
+    }
+
+    private void incrementTotalQuestions(String titleName, int delta) {
+        if (delta != 0) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("name").is(titleName)),
+                    new Update().inc(TOTAL_QUESTIONS, delta), Title.class);
+        }
+    }
+
+    private static <T> T retryOnDuplicateKey(Supplier<T> findOrCreate) {
+        try {
+            return findOrCreate.get();
+        } catch (DuplicateKeyException e) {
+            // Another import created it in the meantime, the second attempt finds it
+            return findOrCreate.get();
+        }
+    }
+
+    /**
+     * Saves the topics that are not stored yet with an empty question list;
+     * question ids are pushed to them batch by batch.
+     *
+     * @return topic ids of the file that belong to the title, the saved ones
+     *         and those stored by an earlier import of it
+     */
+    private Set<String> persistNewTopics(Topic[] topics, String titleName) {
+        Map<String, String> existingTitlesByTopicId = new HashMap<>();
+        topicRepository.findTopicIdsByTopicIdIn(Arrays.stream(topics)
+                .map(Topic::getTopicId)
+                .collect(Collectors.toList()))
+                .forEach(existing -> existingTitlesByTopicId.put(existing.getTopicId(),
+                        Objects.toString(existing.getTitleName(), "")));
+
+        Set<String> titleTopicIds = new HashSet<>();
+        List<Topic> newTopics = new ArrayList<>();
+        for (Topic topic : topics) {
+            String existingTitle = existingTitlesByTopicId.get(topic.getTopicId());
+            if (existingTitle == null) {
+                topic.setId(UUID.randomUUID().toString());
+                topic.setTitleName(titleName);
+                topic.setQuestionIds(new ArrayList<>());
+                newTopics.add(topic);
+                titleTopicIds.add(topic.getTopicId());
+            } else if (existingTitle.equals(titleName)) {
+                titleTopicIds.add(topic.getTopicId());
+            }
+        }
+        topicRepository.saveAll(newTopics);
+        return titleTopicIds;
+    }
+
+    /**
+     * Drops questions of the batch that are already stored, upserts the rest
+     * with one bulk write and appends their ids to the title's topics with a
+     * second one, moving the topic and title question counts along. Topics
+     * stored by an earlier import of the title get the new questions too.
+     */
+    private void persistQuestionBatch(List<Question> batch, String titleName, Set<String> titleTopicIds,
+            BatchCounts counts) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // The same question twice in a batch is stored once
+        Map<String, Question> questionsByHash = new LinkedHashMap<>();
+        for (Question question : batch) {
+            question.createAndSetContentHash();
+            questionsByHash.putIfAbsent(question.getContentHash(), question);
+        }
+        questionRepository.findContentHashesByContentHashIn(questionsByHash.keySet())
+                .forEach(existing -> questionsByHash.remove(existing.getContentHash()));
+        counts.skipped += batch.size() - questionsByHash.size();
+        if (questionsByHash.isEmpty()) {
+            return;
+        }
+
+        List<Question> candidates = new ArrayList<>(questionsByHash.values());
+        Iterator<String> reservedIds = sequenceService.getNextQuestionIds(candidates.size()).iterator();
+        candidates.forEach(question -> question.setId(reservedIds.next()));
+        List<Question> inserted = upsertByContentHash(candidates, counts);
+
+        BulkOperations topicUpdates = mongoTemplate.bulkOps(BulkMode.UNORDERED, Topic.class);
+        int linked = 0;
+        for (Map.Entry<String, List<String>> entry : groupQuestionIdsByTopic(inserted).entrySet()) {
+            if (titleTopicIds.contains(entry.getKey())) {
+                topicUpdates.updateOne(Query.query(Criteria.where("topic_id").is(entry.getKey())),
+                        new Update().push("question_ids").each(entry.getValue().toArray())
+                                .inc("question_count", entry.getValue().size()));
+                linked += entry.getValue().size();
+            }
+        }
+        if (linked > 0) {
+            // The topic counts and the title total only change together for the reconciler
+            questionCountLock.importLock().lock();
+            try {
+                topicUpdates.execute();
+                incrementTotalQuestions(titleName, linked);
+            } finally {
+                questionCountLock.importLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Inserts the questions with a single unordered bulk write of upserts keyed
+     * on the content hash. A question stored by a concurrent import in the
+     * meantime is matched instead of duplicated, and counted as skipped.
+     *
+     * @return the questions actually inserted
+     */
+    private List<Question> upsertByContentHash(List<Question> questions, BatchCounts counts) {
+        if (questions.isEmpty()) {
+            return List.of();
+        }
+        BulkOperations upserts = mongoTemplate.bulkOps(BulkMode.UNORDERED, Question.class);
+        for (Question question : questions) {
+            // Normalized once here, selection compares the stored ordinal
+            question.setDifficultyLevel(difficultyService.getDifficultyOrdinal(question.getDifficulty()));
+            Document document = new Document();
+            mongoTemplate.getConverter().write(question, document);
+            upserts.upsert(Query.query(Criteria.where("content_hash").is(question.getContentHash())),
+                    Update.fromDocument(new Document("$setOnInsert", document)));
+        }
+
+        BulkWriteResult result;
+        int rejected = 0;
+        try {
+            result = upserts.execute();
+        } catch (BulkOperationException e) {
+            // Unordered: everything but the rejected documents was written
+            LOG.warn("{} of {} questions rejected by bulk upsert", e.getErrors().size(), questions.size());
+            result = e.getResult();
+            rejected = e.getErrors().size();
+        }
+
+        List<Question> inserted = new ArrayList<>(result.getUpserts().size());
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            inserted.add(questions.get(upsert.getIndex()));
+        }
+        counts.inserted += inserted.size();
+        counts.failed += rejected;
+        counts.skipped += questions.size() - inserted.size() - rejected;
+        return inserted;
+    }
+
+    /**
+     * Drops topics and questions that are already stored, matching topics by
+     * topic id and questions by their content hash.
+     */
+    static void removeExisting(QuizData data, Set<String> existingTopicIds, Set<String> existingContentHashes) {
+        data.getTopics().removeIf(topic -> existingTopicIds.contains(topic.getTopicId()));
+        data.getQuestions().removeIf(question -> existingContentHashes.contains(question.getContentHash()));
+    }
+
+    /**
+     * Groups question ids by topic id in a single pass, keeping the order of
+     * the questions in the file.
+     */
+    static Map<String, List<String>> groupQuestionIdsByTopic(List<Question> questions) {
+        Map<String, List<String>> questionIdsByTopic = new HashMap<>();
+        for (Question question : questions) {
+            questionIdsByTopic.computeIfAbsent(question.getTopicId(), k -> new ArrayList<>()).add(question.getId());
+        }
+        return questionIdsByTopic;
+    }
+
+    private static final class BatchCounts {
+        private final JsonParser parser;
+        private final ImportProgress progress;
+        private int inserted;
+        private int skipped;
+        private int failed;
+        private long reportedBytes;
+        private int reportedInserted;
+        private int reportedSkipped;
+        private int reportedFailed;
+
+        BatchCounts() {
+            this(null, ImportProgress.NONE);
+        }
+
+        BatchCounts(JsonParser parser, ImportProgress progress) {
+            this.parser = parser;
+            this.progress = progress;
+        }
+
+        /**
+         * Passes the increments since the last report on to the listener.
+         */
+        void report() {
+            long bytes = parser != null ? Math.max(reportedBytes, parser.currentLocation().getByteOffset()) : 0;
+            progress.onBatch(bytes - reportedBytes, inserted - reportedInserted, skipped - reportedSkipped,
+                    failed - reportedFailed);
+            reportedBytes = bytes;
+            reportedInserted = inserted;
+            reportedSkipped = skipped;
+            reportedFailed = failed;
+        }
     }
 }
@@ -0,0 +1,187 @@
+package hu.elte.inf.projects.quizme.service.review;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import hu.elte.inf.projects.quizme.repository.dto.QuizAttempt;
+import hu.elte.inf.projects.quizme.repository.dto.ReviewCard;
+import hu.elte.inf.projects.quizme.service.attempt.QuizAttemptsStoredEvent;
+
+/**
+ * Schedules every answered question of a user for review with SM-2. A correct
+ * answer grows the interval by the card's ease, a wrong one lowers the ease
+ * and brings the question back the next day. Cards of a stored batch are read
+ * with one query and written back with one unordered bulk of upserts; the
+ * writer thread is the only caller, so the read-modify-write does not race.
+ * Cards remember when they were last reviewed and skip attempts submitted no
+ * later than that, so an attempt handed over again after a partly written
+ * bulk moves its cards only once.
+ */
+@Service
+public class ReviewScheduler {
+
+    static final double INITIAL_EASE = 2.5;
+    static final double MIN_EASE = 1.3;
+    // SM-2 answer qualities, the player only reports right or wrong
+    private static final int QUALITY_CORRECT = 5;
+    private static final int QUALITY_WRONG = 2;
+    // Marks the attempts scheduled for review, see QuizAttemptWriter
+    private static final String LISTENER = "review_cards";
+
+    private final MongoTemplate mongoTemplate;
+
+    public ReviewScheduler(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener
+    public void onAttemptsStored(QuizAttemptsStoredEvent event) {
+        // Anonymous attempts have nobody to schedule for, due questions are looked up per title
+        List<QuizAttempt> attempts = event.getAttempts(LISTENER).stream()
+                .filter(attempt -> attempt.getUserEmail() != null && attempt.getTitleName() != null)
+                .filter(attempt -> !attempt.getQuestionIds().isEmpty())
+                .toList();
+        if (!attempts.isEmpty()) {
+            schedule(attempts);
+        }
+        event.folded(LISTENER);
+    }
+
+    private void schedule(List<QuizAttempt> attempts) {
+        Map<String, ReviewCard> cards = loadCards(attempts);
+        Map<String, ReviewCard> reviewed = new LinkedHashMap<>();
+        for (QuizAttempt attempt : attempts) {
+            Instant reviewedAt = attempt.getSubmittedAt() != null ? attempt.getSubmittedAt() : Instant.now();
+            Set<String> wrong = new HashSet<>(attempt.getWrongQuestionIds());
+            for (String questionId : attempt.getQuestionIds()) {
+                String key = key(attempt.getUserEmail(), questionId);
+                ReviewCard card = cards.computeIfAbsent(key, k -> newCard(attempt, questionId));
+                if (card.getReviewedAt() != null && !reviewedAt.isAfter(card.getReviewedAt())) {
+                    continue;
+                }
+                card.setTitleName(attempt.getTitleName());
+                review(card, !wrong.contains(questionId), reviewedAt);
+                reviewed.put(key, card);
+            }
+        }
+        if (reviewed.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReviewCard.class);
+        for (ReviewCard card : reviewed.values()) {
+            bulk.upsert(Query.query(Criteria.where("user_email").is(card.getUserEmail())
+                    .and("question_id").is(card.getQuestionId())),
+                    new Update()
+                            .set("title_name", card.getTitleName())
+                            .set("due", card.getDue())
+                            .set("ease", card.getEase())
+                            .set("interval_days", card.getIntervalDays())
+                            .set("repetitions", card.getRepetitions())
+                            .set("reviewed_at", card.getReviewedAt()));
+        }
+        bulk.execute();
+    }
+
+    /**
+     * Questions of a title due for the user at {@code now}, most overdue
+     * first. Served by the (user_email, title_name, due, question_id) index
+     * as a range scan that stops after {@code limit} keys, without reading
+     * the cards themselves.
+     */
+    public List<String> findDueQuestionIds(String userEmail, String titleName, int limit, Instant now) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Query query = Query.query(Criteria.where("user_email").is(userEmail)
+                .and("title_name").is(titleName)
+                .and("due").lte(now))
+                .with(Sort.by(Sort.Direction.ASC, "due"))
+                .limit(limit);
+        query.fields().include("question_id").exclude("_id");
+        return mongoTemplate.find(query, ReviewCard.class).stream()
+                .map(ReviewCard::getQuestionId)
+                .toList();
+    }
+
+    /**
+     * Drops the cards of every user for questions that no longer exist, using
+     * the question_id index.
+     */
+    public long removeCards(Collection<String> questionIds) {
+        if (questionIds.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.remove(Query.query(Criteria.where("question_id").in(questionIds)), ReviewCard.class)
+                .getDeletedCount();
+    }
+
+    /**
+     * Applies one SM-2 review: the ease moves with the answer quality and
+     * never drops below {@link #MIN_EASE}, a wrong answer restarts the
+     * intervals at one day, correct ones go 1, 6, then interval times ease.
+     */
+    static void review(ReviewCard card, boolean correct, Instant reviewedAt) {
+        int quality = correct ? QUALITY_CORRECT : QUALITY_WRONG;
+        int miss = 5 - quality;
+        card.setEase(Math.max(MIN_EASE, card.getEase() + 0.1 - miss * (0.08 + miss * 0.02)));
+
+        if (!correct) {
+            card.setRepetitions(0);
+            card.setIntervalDays(1);
+        } else {
+            card.setRepetitions(card.getRepetitions() + 1);
+            card.setIntervalDays(switch (card.getRepetitions()) {
+                case 1 -> 1;
+                case 2 -> 6;
+                default -> (int) Math.round(card.getIntervalDays() * card.getEase());
+            });
+        }
+        card.setDue(reviewedAt.plus(Duration.ofDays(card.getIntervalDays())));
+        card.setReviewedAt(reviewedAt);
+    }
+
+    // Existing cards of every user and question of the batch, in one query
+    private Map<String, ReviewCard> loadCards(List<QuizAttempt> attempts) {
+        Set<String> users = new HashSet<>();
+        Set<String> questionIds = new HashSet<>();
+        for (QuizAttempt attempt : attempts) {
+            users.add(attempt.getUserEmail());
+            questionIds.addAll(attempt.getQuestionIds());
+        }
+        Map<String, ReviewCard> cards = new HashMap<>();
+        Query query = Query.query(Criteria.where("user_email").in(users).and("question_id").in(questionIds));
+        for (ReviewCard card : mongoTemplate.find(query, ReviewCard.class)) {
+            cards.put(key(card.getUserEmail(), card.getQuestionId()), card);
+        }
+        return cards;
+    }
+
+    private static ReviewCard newCard(QuizAttempt attempt, String questionId) {
+        ReviewCard card = new ReviewCard();
+        card.setUserEmail(attempt.getUserEmail());
+        card.setQuestionId(questionId);
+        card.setEase(INITIAL_EASE);
+        return card;
+    }
+
+    private static String key(String userEmail, String questionId) {
+        return userEmail + '\n' + questionId;
+    }
+}
@@ -0,0 +1,20 @@
+package hu.elte.inf.projects.quizme.service.stats;
+
+import java.util.Set;
+
+/**
+ * Published by {@link QuestionStatsService} when a flush moved questions to
+ * another empirical difficulty level.
+ */
+public class QuestionDifficultyChangedEvent {
+
+    private final Set<String> questionIds;
+
+    public QuestionDifficultyChangedEvent(Set<String> questionIds) {
+        this.questionIds = Set.copyOf(questionIds);
+    }
+
+    public Set<String> getQuestionIds() {
+        return questionIds;
+    }
+}
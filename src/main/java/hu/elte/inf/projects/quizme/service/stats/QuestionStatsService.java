@@ -0,0 +1,278 @@
+package hu.elte.inf.projects.quizme.service.stats;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import hu.elte.inf.projects.quizme.repository.QuestionRepository;
+import hu.elte.inf.projects.quizme.repository.QuestionStatsRepository;
+import hu.elte.inf.projects.quizme.repository.TopicRepository;
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.QuestionStats;
+import hu.elte.inf.projects.quizme.repository.dto.QuizAttempt;
+import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import hu.elte.inf.projects.quizme.service.JsonDifficultyService;
+import hu.elte.inf.projects.quizme.service.attempt.QuizAttemptsStoredEvent;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Counts how often each question is answered and answered correctly. Stored
+ * attempts only increment in-memory counters, every
+ * {@code app.question-stats.flush-interval} the counts gathered since the last
+ * flush are taken out of memory and added to {@code question_stats} with one
+ * unordered bulk of {@code $inc} upserts. Only questions that belong to the
+ * attempt's title are counted.
+ * <p>
+ * Attempts are marked as counted once their answers are in memory, not once
+ * they are flushed: if the application stops without its shutdown flush, up to
+ * one flush interval of answers is missing from {@code question_stats} and is
+ * not recovered by the attempt writer's retry. The statistics are an estimate
+ * over many answers, so the interval trades that loss against write load.
+ * <p>
+ * Once a question has {@code app.question-stats.min-answers} answers, its
+ * correct rate places it on one of the configured difficulty levels: the
+ * fewer players answer it correctly, the harder it is. Questions that move to
+ * another level are announced with a {@link QuestionDifficultyChangedEvent}.
+ */
+@Service
+public class QuestionStatsService {
+    private static final Logger LOG = LoggerFactory.getLogger(QuestionStatsService.class);
+    // Marks the attempts counted here, see QuizAttemptWriter
+    private static final String LISTENER = "question_stats";
+
+    private final MongoTemplate mongoTemplate;
+    private final QuestionStatsRepository questionStatsRepository;
+    private final QuestionRepository questionRepository;
+    private final TopicRepository topicRepository;
+    private final JsonDifficultyService difficultyService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int minAnswers;
+
+    private final Map<String, Counters> pending = new ConcurrentHashMap<>();
+    private final Map<String, Byte> empiricalDifficulties = new ConcurrentHashMap<>();
+
+    public QuestionStatsService(MongoTemplate mongoTemplate, QuestionStatsRepository questionStatsRepository,
+            QuestionRepository questionRepository, TopicRepository topicRepository,
+            JsonDifficultyService difficultyService, ApplicationEventPublisher eventPublisher,
+            @Value("${app.question-stats.min-answers:20}") int minAnswers) {
+        this.mongoTemplate = mongoTemplate;
+        this.questionStatsRepository = questionStatsRepository;
+        this.questionRepository = questionRepository;
+        this.topicRepository = topicRepository;
+        this.difficultyService = difficultyService;
+        this.eventPublisher = eventPublisher;
+        this.minAnswers = Math.max(1, minAnswers);
+    }
+
+    @EventListener
+    public void onAttemptsStored(QuizAttemptsStoredEvent event) {
+        Map<QuizAttempt, Set<String>> answered = answeredQuestions(event.getAttempts(LISTENER));
+        answered.forEach((attempt, questionIds) -> {
+            Set<String> wrong = new HashSet<>(attempt.getWrongQuestionIds());
+            for (String questionId : questionIds) {
+                boolean correct = !wrong.contains(questionId);
+                // Counted under the map's lock, so flush() never takes a half recorded answer
+                pending.compute(questionId, (id, counters) -> {
+                    Counters updated = counters != null ? counters : new Counters();
+                    updated.answered++;
+                    if (correct) {
+                        updated.correct++;
+                    }
+                    return updated;
+                });
+            }
+        });
+        event.folded(LISTENER);
+    }
+
+    /**
+     * Question ids of each attempt that were really part of its quiz. The ids
+     * come from the client, so only questions of the attempt's title (and
+     * topic, when it has one) are kept, each once and at most as many as the
+     * quiz had. The titles' topic ids and the questions' topic ids are read
+     * with one projected query each.
+     */
+    private Map<QuizAttempt, Set<String>> answeredQuestions(List<QuizAttempt> attempts) {
+        Map<QuizAttempt, Set<String>> candidates = new LinkedHashMap<>();
+        Set<String> titleNames = new HashSet<>();
+        Set<String> questionIds = new HashSet<>();
+        for (QuizAttempt attempt : attempts) {
+            if (attempt.getTitleName() == null || attempt.getTotalQuestions() <= 0) {
+                continue;
+            }
+            Set<String> ids = attempt.getQuestionIds().stream()
+                    .distinct()
+                    .limit(attempt.getTotalQuestions())
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            if (!ids.isEmpty()) {
+                candidates.put(attempt, ids);
+                titleNames.add(attempt.getTitleName());
+                questionIds.addAll(ids);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, String> titleByTopicId = new HashMap<>();
+        for (Topic topic : topicRepository.findTopicIdsByTitleNameIn(titleNames)) {
+            titleByTopicId.put(topic.getTopicId(), topic.getTitleName());
+        }
+        Map<String, String> topicByQuestionId = new HashMap<>();
+        for (Question question : questionRepository.findIndexEntriesByIdIn(new ArrayList<>(questionIds))) {
+            topicByQuestionId.put(question.getId(), question.getTopicId());
+        }
+
+        candidates.forEach((attempt, ids) -> ids.removeIf(questionId -> {
+            String topicId = topicByQuestionId.get(questionId);
+            return topicId == null
+                    || !attempt.getTitleName().equals(titleByTopicId.get(topicId))
+                    || (attempt.getTopicId() != null && !attempt.getTopicId().equals(topicId));
+        }));
+        return candidates;
+    }
+
+    /**
+     * Empirical difficulty ordinal of a question, or
+     * {@link JsonDifficultyService#DIFFICULTY_UNKNOWN} while it has too few
+     * answers.
+     */
+    public byte getEmpiricalDifficulty(String questionId) {
+        return empiricalDifficulties.getOrDefault(questionId, JsonDifficultyService.DIFFICULTY_UNKNOWN);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadEmpiricalDifficulties() {
+        byte[] ordinals = difficultyService.getDifficultyOrdinals();
+        for (QuestionStats stats : questionStatsRepository.findByAnsweredGreaterThanEqual(minAnswers)) {
+            empiricalDifficulties.put(stats.getId(), empiricalDifficulty(stats, ordinals));
+        }
+        LOG.debug("Loaded empirical difficulty of {} questions", empiricalDifficulties.size());
+    }
+
+    @Scheduled(initialDelayString = "${app.question-stats.flush-interval:PT1M}",
+            fixedDelayString = "${app.question-stats.flush-interval:PT1M}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOG.error("Could not flush question statistics", e);
+        }
+    }
+
+    /**
+     * Adds the counts gathered since the last flush to {@code question_stats}
+     * and updates the empirical difficulty of the flushed questions.
+     *
+     * @return number of questions flushed
+     */
+    public synchronized int flush() {
+        Map<String, long[]> deltas = new HashMap<>();
+        for (String questionId : pending.keySet()) {
+            // Taken out of the map, answers recorded from now on start new counters
+            pending.computeIfPresent(questionId, (id, counters) -> {
+                deltas.put(id, new long[] { counters.answered, counters.correct });
+                return null;
+            });
+        }
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, QuestionStats.class);
+        deltas.forEach((questionId, delta) -> bulk.upsert(Query.query(Criteria.where("_id").is(questionId)),
+                new Update().inc("answered", delta[0]).inc("correct", delta[1]).set("updated_at", now)));
+        try {
+            bulk.execute();
+        } catch (DataAccessException e) {
+            // Keep the counts for the next flush
+            deltas.forEach((questionId, delta) -> pending.merge(questionId, new Counters(delta[0], delta[1]),
+                    (counters, failed) -> new Counters(counters.answered + failed.answered,
+                            counters.correct + failed.correct)));
+            throw e;
+        }
+
+        updateEmpiricalDifficulties(deltas.keySet());
+        return deltas.size();
+    }
+
+    private void updateEmpiricalDifficulties(Set<String> questionIds) {
+        byte[] ordinals = difficultyService.getDifficultyOrdinals();
+        Set<String> changed = new HashSet<>();
+        for (QuestionStats stats : questionStatsRepository.findAllById(questionIds)) {
+            if (stats.getAnswered() < minAnswers) {
+                continue;
+            }
+            byte difficulty = empiricalDifficulty(stats, ordinals);
+            Byte previous = empiricalDifficulties.put(stats.getId(), difficulty);
+            if (previous == null || previous != difficulty) {
+                changed.add(stats.getId());
+            }
+        }
+        if (!changed.isEmpty()) {
+            LOG.debug("{} questions moved to another empirical difficulty", changed.size());
+            eventPublisher.publishEvent(new QuestionDifficultyChangedEvent(changed));
+        }
+    }
+
+    /**
+     * Splits the correct rate into as many equal bands as there are levels:
+     * with easy, medium and hard, a question answered correctly by more than
+     * two thirds of the players is easy and by less than a third is hard.
+     */
+    static byte empiricalDifficulty(QuestionStats stats, byte[] ordinals) {
+        if (ordinals.length == 0 || stats.getAnswered() <= 0) {
+            return JsonDifficultyService.DIFFICULTY_UNKNOWN;
+        }
+        double wrongRate = 1.0 - Math.min(stats.getCorrect(), stats.getAnswered()) / (double) stats.getAnswered();
+        int level = Math.min(ordinals.length - 1, (int) (wrongRate * ordinals.length));
+        return ordinals[level];
+    }
+
+    @PreDestroy
+    void shutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOG.warn("Could not flush question statistics before shutdown", e);
+        }
+    }
+
+    // Only read and written inside ConcurrentHashMap.compute and its siblings
+    private static final class Counters {
+        long answered;
+        long correct;
+
+        Counters() {
+        }
+
+        Counters(long answered, long correct) {
+            this.answered = answered;
+            this.correct = correct;
+        }
+    }
+}
@@ -1,8 +1,5 @@
 package hu.elte.inf.projects.quizme.util;
 
-import java.util.Arrays;
-import java.util.List;
-
 public final class QuizConstants {
     private QuizConstants() {
     }
@@ -18,6 +15,10 @@ public final class QuizConstants {
     public static final String QUIZ_PLAY = "/play/{topicId}";
     public static final String QUIZ_START = "/start/{titleId}";
     public static final String QUIZ_SUBMIT_RESULTS = "/submit-results";
+    public static final String API_TITLE_QUESTIONS = "/titles/{titleName}/questions";
+    public static final String API_TOPIC_QUESTIONS = "/topics/{topicId}/questions";
+    public static final String API_TITLE_QUESTIONS_STREAM = "/titles/{titleName}/questions/stream";
+    public static final String API_TOPIC_QUESTIONS_STREAM = "/topics/{topicId}/questions/stream";
 
     // View names
     public static final String VIEW_LANDING = "landing_page";
@@ -40,7 +41,10 @@ public final class QuizConstants {
     public static final String ATTR_TITLE_ALIAS = "titleAlias";
     public static final String ATTR_TITLE_OBJECT = "titleObject";
     public static final String ATTR_TOPIC_ALIAS = "topicAlias";
+    public static final String ATTR_TOPIC_ID = "topicId";
     public static final String ATTR_QUESTIONS = "questions";
+    public static final String ATTR_QUESTIONS_JSON = "questionsJson";
+    public static final String ATTR_QUESTIONS_URL = "questionsUrl";
     public static final String ATTR_TOTAL = "total";
     public static final String ATTR_SELECTED_COUNT = "selectedCount";
     public static final String ATTR_SELECTED_DIFFICULTY = "selectedDifficulty";
@@ -49,18 +53,28 @@ public final class QuizConstants {
     // Request params
     public static final String PARAM_QUESTION_COUNT = "questionCount";
     public static final String PARAM_DIFFICULTY = "difficulty";
+    public static final String PARAM_MODE = "mode";
 
     // Difficulty values
     public static final String DIFFICULTY_MIXED = "mixed";
-    public static final String LEVEL_EASY = "könnyű";
-    public static final String LEVEL_MEDIUM = "közepes";
-    public static final String LEVEL_HARD = "nehéz";
-    public static final List<String> DIFFICULTY_LEVELS = Arrays.asList(LEVEL_EASY, LEVEL_MEDIUM, LEVEL_HARD);
+
+    // Question sampling modes (app.quiz.sampling)
+    public static final String SAMPLING_INDEX = "index";
+    public static final String SAMPLING_SERVER = "server";
+
+    // Question difficulty sources (app.quiz.difficulty-source)
+    public static final String DIFFICULTY_SOURCE_AUTHORED = "authored";
+    public static final String DIFFICULTY_SOURCE_EMPIRICAL = "empirical";
+
+    // Quiz start modes (mode parameter of /quiz/start)
+    public static final String MODE_BALANCED = "balanced";
+    public static final String MODE_REVIEW = "review";
 
     // Messages
     public static final String ERROR_NO_QUESTIONS = "No questions found for this topic";
     public static final String ERROR_QUIZ_NOT_FOUND = "Quiz not found";
     public static final String SUCCESS_RESULTS_MESSAGE = "Quiz results submitted successfully";
+    public static final String ERROR_RESULTS_BUSY = "Quiz results could not be saved, please try again";
 
     // Redirect prefixes
     public static final String REDIRECT = "redirect:";
@@ -72,4 +86,9 @@ public final class QuizConstants {
     public static final String RESULT_SCORE = "score";
     public static final String RESULT_CORRECT = "correctAnswers";
     public static final String RESULT_TOTAL = "totalQuestions";
+    public static final String RESULT_TITLE_NAME = "titleName";
+    public static final String RESULT_TOPIC_ID = "topicId";
+    public static final String RESULT_QUESTION_IDS = "questionIds";
+    public static final String RESULT_WRONG_ANSWERS = "wrongAnswers";
+    public static final String RESULT_COMPLETED_AT = "completedAt";
 }
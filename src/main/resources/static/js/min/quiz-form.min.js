@@ -1 +1 @@
-function startTitleQuiz(e){var t=document.querySelector('select[name="difficulty"]').value,n=document.getElementById("numQuestions"),n=n?n.value:10,d=document.createElement("form"),e=(d.method="POST",d.action="/quiz/start/"+encodeURIComponent(e),document.createElement("input")),t=(e.type="hidden",e.name="difficulty",e.value=t,d.appendChild(e),document.createElement("input"));t.type="hidden",t.name="questionCount",t.value=n.toString(),d.appendChild(t),document.body.appendChild(d),d.submit()}document.addEventListener("DOMContentLoaded",()=>{var t=document.getElementById("numQuestions"),n=parseInt(t.dataset.totalQuestions);if(t&&!isNaN(n)){t.innerHTML="";for(let e=1;e<=n;e++){var d=document.createElement("option");d.value=e,d.textContent=e,t.appendChild(d)}t.value=n}let u=document.getElementById("start-quiz-btn");u&&u.addEventListener("click",async()=>{var e=u.dataset.quizId,t=document.querySelector('input[name="difficulty"]:checked'),t=(t&&t.dataset.difficulty,document.getElementById("numQuestions"));t&&t.value;startTitleQuiz(e)})});
\ No newline at end of file
+function startTitleQuiz(e){var t=document.querySelector('select[name="difficulty"]').value,n=document.getElementById("numQuestions"),n=n?n.value:10,d=document.createElement("form"),e=(d.method="POST",d.action="/quiz/start/"+encodeURIComponent(e),document.createElement("input")),t=(e.type="hidden",e.name="difficulty",e.value=t,d.appendChild(e),document.createElement("input"));t.type="hidden",t.name="questionCount",t.value=n.toString(),d.appendChild(t);var o=document.getElementById("mode"),m=document.createElement("input");m.type="hidden",m.name="mode",m.value=o?o.value:"balanced",d.appendChild(m),document.body.appendChild(d),d.submit()}document.addEventListener("DOMContentLoaded",()=>{var t=document.getElementById("numQuestions"),n=parseInt(t.dataset.totalQuestions);if(t&&!isNaN(n)){t.innerHTML="";for(let e=1;e<=n;e++){var d=document.createElement("option");d.value=e,d.textContent=e,t.appendChild(d)}t.value=n}let u=document.getElementById("start-quiz-btn");u&&u.addEventListener("click",async()=>{var e=u.dataset.quizId,t=document.querySelector('input[name="difficulty"]:checked'),t=(t&&t.dataset.difficulty,document.getElementById("numQuestions"));t&&t.value;startTitleQuiz(e)})});
\ No newline at end of file
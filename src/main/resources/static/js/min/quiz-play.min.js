@@ -1,4 +1,4 @@
-let questions=[],totalQuestions=0,currentQuestionIndex=0,selectedAnswers=[],correctAnswers=0,wrongAnswers=[],quizResults={},currentLanguageFilter="all";function initializeQuizData(e){questions=e||[],totalQuestions=questions.length,quizResults={totalQuestions:totalQuestions,correctAnswers:0,wrongAnswers:[],completedAt:null}}function setupEventListeners(){var e=document.getElementById("actionBtn"),e=(e&&e.addEventListener("click",handleActionButton),document.getElementById("finishQuizBtn")),e=(e&&e.addEventListener("click",finishQuiz),document.getElementById("close-explanation-modal")),t=document.getElementById("close-explanation-modal-footer"),n=document.getElementById("continue-quiz-btn"),e=(e&&e.addEventListener("click",function(e){e.preventDefault(),hideExplanationModal()}),t&&t.addEventListener("click",function(e){e.preventDefault(),hideExplanationModal()}),n&&n.addEventListener("click",function(e){e.preventDefault(),hideExplanationModal(),(currentQuestionIndex<questions.length-1?nextQuestion:showEvaluation)()}),document.getElementById("goto-quiz-btn")),t=(e&&e.addEventListener("click",function(e){e.preventDefault();e=document.getElementById("quiz-card");e.style.transform="rotateY(180deg)"===e.style.transform?"":"rotateY(180deg)"}),document.getElementById("close-settings-btn"));t&&t.addEventListener("click",function(e){e.preventDefault();e=document.getElementById("quiz-card");e.style.transform="rotateY(180deg)"===e.style.transform?"":"rotateY(180deg)"})}function loadQuestion(e){if(e>=questions.length)showEvaluation();else{hideExplanationModal();var t=questions[e],n=(currentQuestionIndex=e,document.getElementById("currentQuestionNum")),r=document.getElementById("totalQuestions"),n=(n&&(n.textContent=e+1),r&&(r.textContent=totalQuestions),document.getElementById("questionText"));n&&(n.textContent=t.question,n.removeAttribute("data-translate"));let a=document.getElementById("optionsContainer");a.innerHTML="",t.options.forEach((e,t)=>{var n=document.createElement("div");n.className="option-card cursor-pointer p-4 border border-gray-300 dark:border-gray-600 rounded-lg hover:bg-gray-50 dark:hover:bg-gray-700 transition-colors duration-200",n.setAttribute("data-option-index",t),n.innerHTML=`
+let questions=[],totalQuestions=0,currentQuestionIndex=0,selectedAnswers=[],correctAnswers=0,wrongAnswers=[],quizResults={},currentLanguageFilter="all";function loadQuizQuestions(e){return fetch(e,{headers:{Accept:"application/json"}}).then(e=>{if(e.ok)return e.json();throw new Error("HTTP "+e.status)}).then(e=>{window.quizQuestionsData=e}).catch(e=>{console.error("Error loading quiz data:",e),window.quizQuestionsData=[]})}function initializeQuizData(e){questions=e||[],totalQuestions=questions.length,quizResults={titleName:window.quizTitle||null,topicId:window.quizTopicId||null,questionIds:questions.map(e=>e.id),totalQuestions:totalQuestions,correctAnswers:0,wrongAnswers:[],completedAt:null}}function setupEventListeners(){var e=document.getElementById("actionBtn"),e=(e&&e.addEventListener("click",handleActionButton),document.getElementById("finishQuizBtn")),e=(e&&e.addEventListener("click",finishQuiz),document.getElementById("close-explanation-modal")),t=document.getElementById("close-explanation-modal-footer"),n=document.getElementById("continue-quiz-btn"),e=(e&&e.addEventListener("click",function(e){e.preventDefault(),hideExplanationModal()}),t&&t.addEventListener("click",function(e){e.preventDefault(),hideExplanationModal()}),n&&n.addEventListener("click",function(e){e.preventDefault(),hideExplanationModal(),(currentQuestionIndex<questions.length-1?nextQuestion:showEvaluation)()}),document.getElementById("goto-quiz-btn")),t=(e&&e.addEventListener("click",function(e){e.preventDefault();e=document.getElementById("quiz-card");e.style.transform="rotateY(180deg)"===e.style.transform?"":"rotateY(180deg)"}),document.getElementById("close-settings-btn"));t&&t.addEventListener("click",function(e){e.preventDefault();e=document.getElementById("quiz-card");e.style.transform="rotateY(180deg)"===e.style.transform?"":"rotateY(180deg)"})}function loadQuestion(e){if(e>=questions.length)showEvaluation();else{hideExplanationModal();var t=questions[e],n=(currentQuestionIndex=e,document.getElementById("currentQuestionNum")),r=document.getElementById("totalQuestions"),n=(n&&(n.textContent=e+1),r&&(r.textContent=totalQuestions),document.getElementById("questionText"));n&&(n.textContent=t.question,n.removeAttribute("data-translate"));let a=document.getElementById("optionsContainer");a.innerHTML="",t.options.forEach((e,t)=>{var n=document.createElement("div");n.className="option-card cursor-pointer p-4 border border-gray-300 dark:border-gray-600 rounded-lg hover:bg-gray-50 dark:hover:bg-gray-700 transition-colors duration-200",n.setAttribute("data-option-index",t),n.innerHTML=`
             <div class="flex items-center">
                 <input type="radio" name="answer" value="${t}" class="w-4 h-4 text-blue-600 focus:ring-blue-500 dark:focus:ring-blue-600 dark:ring-offset-gray-800 focus:ring-2 border-none bg-transparent">
                 <label class="ml-3 text-sm text-gray-900 dark:text-white font-medium cursor-pointer">${e}</label>
@@ -33,4 +33,4 @@ let questions=[],totalQuestions=0,currentQuestionIndex=0,selectedAnswers=[],corr
                 </div>
                 `:""}
             </div>
-        `,n.appendChild(t)})}function finishQuiz(){fetch("/quiz/submit-results",{method:"POST",headers:{"Content-Type":"application/json"},body:JSON.stringify(quizResults)}).then(e=>e.json()).then(e=>{var t=window.category,n=window.subcategory,a=window.quizTitle;console.log("Category:",window.category,"Subcategory:",window.subcategory,"Current Title:",window.quizTitle),window.location.href=t&&n&&a?`/quiz/${t}/${n}/`+a:"/"}).catch(e=>{var t=window.category,n=window.subcategory,a=window.quizTitle;console.log("Category:",window.category,"Subcategory:",window.subcategory,"Current Title:",window.quizTitle),t&&topic?window.location.href=`/quiz/${t}/${n}/`+a:window.location.href="/"})}function setupLanguageFilterListeners(){var e=document.getElementById("vietnamese-filter-btn"),t=document.getElementById("hungarian-filter-btn"),n=document.getElementById("all-filter-btn");e&&e.addEventListener("click",function(e){e.preventDefault(),e.stopPropagation(),e.stopImmediatePropagation(),setLanguageFilter("vietnamese")}),t&&t.addEventListener("click",function(e){e.preventDefault(),e.stopPropagation(),e.stopImmediatePropagation(),setLanguageFilter("hungarian")}),n&&n.addEventListener("click",function(e){e.preventDefault(),e.stopPropagation(),e.stopImmediatePropagation(),setLanguageFilter("all")})}function setLanguageFilter(e){currentLanguageFilter=e,updateFilterButtonStates(),applyLanguageFilter()}function updateFilterButtonStates(){["vietnamese-filter-btn","hungarian-filter-btn","all-filter-btn"].forEach(e=>{e=document.getElementById(e);e&&e.classList.remove("ring-2","ring-blue-500")});let e="all-filter-btn";"vietnamese"===currentLanguageFilter?e="vietnamese-filter-btn":"hungarian"===currentLanguageFilter&&(e="hungarian-filter-btn");var t=document.getElementById(e);t&&t.classList.add("ring-2","ring-blue-500")}function applyLanguageFilter(){var e,t=document.getElementById("questionText");t&&questions[currentQuestionIndex]&&(e=filterText(questions[currentQuestionIndex].question),t.textContent=e),document.querySelectorAll(".option-card").forEach((e,t)=>{let n=e.querySelector("label");n&&questions[currentQuestionIndex]&&questions[currentQuestionIndex].options[t]&&(e=filterText(questions[currentQuestionIndex].options[t]),t=n.querySelectorAll(".correct-icon, .wrong-icon"),n.innerHTML=e,t.forEach(e=>n.appendChild(e)))})}function filterText(e){if(!e)return"";switch(currentLanguageFilter){case"vietnamese":var t=e.match(/\(([^)]+)\)/g);return t?t.map(e=>e.slice(1,-1)).join(" "):e;case"hungarian":return e.replace(/\s*\([^)]*\)/g,"").trim();default:return e}}document.addEventListener("DOMContentLoaded",function(){function n(){var e;window.quizQuestionsData&&Array.isArray(window.quizQuestionsData)&&0<window.quizQuestionsData.length?(initializeQuizData(window.quizQuestionsData),0<questions.length?loadQuestion(0):((e=document.getElementById("questionText")).removeAttribute("data-translate"),window.languageManager?e.textContent=window.languageManager.translate("quiz.error")||"No questions available for this quiz.":e.textContent="No questions available for this quiz.")):((e=document.getElementById("questionText")).removeAttribute("data-translate"),window.languageManager?e.textContent=window.languageManager.translate("quiz.error")||"Error loading quiz data.":e.textContent="Error loading quiz data."),setupEventListeners(),setTimeout(()=>{setupLanguageFilterListeners()},100)}if(window.languageManager&&window.languageManager.currentLanguage)n();else{let e=0,t=()=>{e++,(!window.languageManager||!window.languageManager.currentLanguage)&&e<50?setTimeout(t,100):n()};setTimeout(t,100)}});
\ No newline at end of file
+        `,n.appendChild(t)})}function finishQuiz(){fetch("/quiz/submit-results",{method:"POST",headers:{"Content-Type":"application/json"},body:JSON.stringify(quizResults)}).then(e=>e.json()).then(e=>{var t=window.category,n=window.subcategory,a=window.quizTitle;console.log("Category:",window.category,"Subcategory:",window.subcategory,"Current Title:",window.quizTitle),window.location.href=t&&n&&a?`/quiz/${t}/${n}/`+a:"/"}).catch(e=>{var t=window.category,n=window.subcategory,a=window.quizTitle;console.log("Category:",window.category,"Subcategory:",window.subcategory,"Current Title:",window.quizTitle),t&&topic?window.location.href=`/quiz/${t}/${n}/`+a:window.location.href="/"})}function setupLanguageFilterListeners(){var e=document.getElementById("vietnamese-filter-btn"),t=document.getElementById("hungarian-filter-btn"),n=document.getElementById("all-filter-btn");e&&e.addEventListener("click",function(e){e.preventDefault(),e.stopPropagation(),e.stopImmediatePropagation(),setLanguageFilter("vietnamese")}),t&&t.addEventListener("click",function(e){e.preventDefault(),e.stopPropagation(),e.stopImmediatePropagation(),setLanguageFilter("hungarian")}),n&&n.addEventListener("click",function(e){e.preventDefault(),e.stopPropagation(),e.stopImmediatePropagation(),setLanguageFilter("all")})}function setLanguageFilter(e){currentLanguageFilter=e,updateFilterButtonStates(),applyLanguageFilter()}function updateFilterButtonStates(){["vietnamese-filter-btn","hungarian-filter-btn","all-filter-btn"].forEach(e=>{e=document.getElementById(e);e&&e.classList.remove("ring-2","ring-blue-500")});let e="all-filter-btn";"vietnamese"===currentLanguageFilter?e="vietnamese-filter-btn":"hungarian"===currentLanguageFilter&&(e="hungarian-filter-btn");var t=document.getElementById(e);t&&t.classList.add("ring-2","ring-blue-500")}function applyLanguageFilter(){var e,t=document.getElementById("questionText");t&&questions[currentQuestionIndex]&&(e=filterText(questions[currentQuestionIndex].question),t.textContent=e),document.querySelectorAll(".option-card").forEach((e,t)=>{let n=e.querySelector("label");n&&questions[currentQuestionIndex]&&questions[currentQuestionIndex].options[t]&&(e=filterText(questions[currentQuestionIndex].options[t]),t=n.querySelectorAll(".correct-icon, .wrong-icon"),n.innerHTML=e,t.forEach(e=>n.appendChild(e)))})}function filterText(e){if(!e)return"";switch(currentLanguageFilter){case"vietnamese":var t=e.match(/\(([^)]+)\)/g);return t?t.map(e=>e.slice(1,-1)).join(" "):e;case"hungarian":return e.replace(/\s*\([^)]*\)/g,"").trim();default:return e}}document.addEventListener("DOMContentLoaded",function(){function n(){var e;if(window.quizQuestionsUrl&&!window.quizQuestionsData)return void loadQuizQuestions(window.quizQuestionsUrl).then(n);window.quizQuestionsData&&Array.isArray(window.quizQuestionsData)&&0<window.quizQuestionsData.length?(initializeQuizData(window.quizQuestionsData),0<questions.length?loadQuestion(0):((e=document.getElementById("questionText")).removeAttribute("data-translate"),window.languageManager?e.textContent=window.languageManager.translate("quiz.error")||"No questions available for this quiz.":e.textContent="No questions available for this quiz.")):((e=document.getElementById("questionText")).removeAttribute("data-translate"),window.languageManager?e.textContent=window.languageManager.translate("quiz.error")||"Error loading quiz data.":e.textContent="Error loading quiz data."),setupEventListeners(),setTimeout(()=>{setupLanguageFilterListeners()},100)}if(window.languageManager&&window.languageManager.currentLanguage)n();else{let e=0,t=()=>{e++,(!window.languageManager||!window.languageManager.currentLanguage)&&e<50?setTimeout(t,100):n()};setTimeout(t,100)}});
\ No newline at end of file
@@ -60,6 +60,14 @@ function startTitleQuiz(titleId) {
     questionCountInput.value = questionCount.toString();
     form.appendChild(questionCountInput);
 
+    // Review mode plays the questions due for the user, if there are any
+    const modeSelect = document.getElementById('mode');
+    const modeInput = document.createElement('input');
+    modeInput.type = 'hidden';
+    modeInput.name = 'mode';
+    modeInput.value = modeSelect ? modeSelect.value : 'balanced';
+    form.appendChild(modeInput);
+
     // Submit form
     document.body.appendChild(form);
     form.submit();
@@ -19,6 +19,9 @@ function initializeQuizData(questionsData) {
     totalQuestions = questions.length;
 
     quizResults = {
+        titleName: window.quizTitle || null,
+        topicId: window.quizTopicId || null,
+        questionIds: questions.map(question => question.id),
         totalQuestions: totalQuestions,
         correctAnswers: 0,
         wrongAnswers: [],
@@ -26,12 +29,37 @@ function initializeQuizData(questionsData) {
     };
 }
 
+// Fetch questions from the JSON API. The browser revalidates its cached copy
+// with the ETag, so repeat plays of a topic transfer no question data.
+function loadQuizQuestions(url) {
+    return fetch(url, { headers: { 'Accept': 'application/json' } })
+        .then(response => {
+            if (!response.ok) {
+                throw new Error('HTTP ' + response.status);
+            }
+            return response.json();
+        })
+        .then(data => {
+            window.quizQuestionsData = data;
+        })
+        .catch(error => {
+            console.error('Error loading quiz data:', error);
+            window.quizQuestionsData = [];
+        });
+}
+
 // Initialize quiz when page loads
 document.addEventListener('DOMContentLoaded', function () {
 
     // Wait a bit for the language manager to be ready
     function initializeQuiz() {
 
+        // Topic quizzes are not embedded in the page, load them first
+        if (window.quizQuestionsUrl && !window.quizQuestionsData) {
+            loadQuizQuestions(window.quizQuestionsUrl).then(initializeQuiz);
+            return;
+        }
+
         // Debug logging to understand what data we have
 
 
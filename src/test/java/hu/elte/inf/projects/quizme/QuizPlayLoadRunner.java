@@ -0,0 +1,210 @@
+package hu.elte.inf.projects.quizme;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.ServerVersion;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import hu.elte.inf.projects.quizme.repository.TitleRepository;
+import hu.elte.inf.projects.quizme.repository.TopicRepository;
+import hu.elte.inf.projects.quizme.repository.dto.Title;
+import hu.elte.inf.projects.quizme.service.json.QuizImportService;
+
+/**
+ * Compares throughput and p99 latency of the platform worker pool and the
+ * virtual-thread mode ({@code spring.threads.virtual.enabled}) under a
+ * growing number of concurrent players. Each mode boots the application on a
+ * random port, imports {@code json/1.json} and lets every player loop over
+ * opening a topic, fetching its questions and starting a 20 question quiz.
+ * <p>
+ * With {@code embedded} (the default) each mode gets its own empty in-memory
+ * mongo-java-server on a random port, so the run needs nothing installed; with
+ * {@code external} it uses the MongoDB of the {@code test} profile on
+ * {@code localhost:27017}.
+ *
+ * <pre>
+ * ./mvnw -Pload-test test -Dload.players=50,200,1000 -Dload.duration=PT20S -Dload.mongo=embedded
+ * </pre>
+ */
+public final class QuizPlayLoadRunner {
+
+    private static final String TITLE = "Magyarország nemzeti jelképei és ünnepei";
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    private QuizPlayLoadRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // DevTools would restart into this main method with the application arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        int[] players = Arrays.stream((args.length > 0 ? args[0] : "50,200,1000").split(","))
+                .mapToInt(p -> Integer.parseInt(p.trim()))
+                .toArray();
+        Duration duration = Duration.parse(args.length > 1 ? args[1] : "PT20S");
+        boolean embedded = !"external".equals(args.length > 2 ? args[2] : "embedded");
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %8s %10s %10s %10s %8s", "mode", "players", "req/s", "p50 ms", "p99 ms",
+                "errors"));
+        for (boolean virtual : new boolean[] { false, true }) {
+            MongoServer mongoServer = embedded ? new MongoServer(new MemoryBackend().version(ServerVersion.MONGO_5_0)) : null;
+            String mongoUri = embedded ? "mongodb://localhost:" + mongoServer.bind().getPort() + "/quizme" : null;
+            try (ConfigurableApplicationContext context = start(virtual, mongoUri)) {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                List<String> topics = importQuiz(context);
+                String mode = virtual ? "virtual" : "platform";
+                run(port, topics, players[0], WARMUP);
+                for (int count : players) {
+                    report.add(run(port, topics, count, duration).format(mode, count));
+                }
+            } finally {
+                if (mongoServer != null) {
+                    mongoServer.shutdownNow();
+                }
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual, String mongoUri) {
+        // Arguments, as default properties would not override application.yml
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.jpa.show-sql=false",
+                "--app.mongo.explain-queries=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN"));
+        if (mongoUri != null) {
+            arguments.add("--spring.data.mongodb.uri=" + mongoUri);
+        }
+        return new SpringApplicationBuilder(QuizmeApplication.class)
+                .profiles("test")
+                .run(arguments.toArray(new String[0]));
+    }
+
+    // Play page URLs, with the query parameters the topics page links with
+    private static List<String> importQuiz(ConfigurableApplicationContext context) throws IOException {
+        QuizImportService quizImportService = context.getBean(QuizImportService.class);
+        byte[] json = new ClassPathResource("json/1.json").getInputStream().readAllBytes();
+        quizImportService.persist(quizImportService.importQuizFile(json));
+        Title title = context.getBean(TitleRepository.class).findByName(TITLE).get(0);
+        String query = "?title=" + encode(TITLE) + "&category=" + encode(title.getCategoryName())
+                + "&subcategory=" + encode(title.getSubCategoryName());
+        return context.getBean(TopicRepository.class).findByTitleName(TITLE).stream()
+                .map(topic -> encode(topic.getTopicId()) + query)
+                .toList();
+    }
+
+    private static Result run(int port, List<String> topics, int players, Duration duration)
+            throws InterruptedException {
+        String base = "http://localhost:" + port;
+        String startUri = base + "/quiz/start/" + encode(TITLE) + "?questionCount=20&difficulty=mixed";
+        long[][] latencies = new long[players][];
+        int[] errors = new int[players];
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        // Closed in reverse order: players finish before the client shuts down
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+                ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int p = 0; p < players; p++) {
+                int player = p;
+                executor.submit(() -> {
+                    long[] samples = new long[256];
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        String topic = topics.get(ThreadLocalRandom.current().nextInt(topics.size()));
+                        String topicId = topic.substring(0, topic.indexOf('?'));
+                        HttpRequest[] requests = {
+                                get(base + "/quiz/play/" + topic),
+                                get(base + "/api/topics/" + topicId + "/questions"),
+                                HttpRequest.newBuilder(URI.create(startUri))
+                                        .timeout(Duration.ofSeconds(30))
+                                        .POST(HttpRequest.BodyPublishers.noBody())
+                                        .build() };
+                        for (HttpRequest request : requests) {
+                            long begin = System.nanoTime();
+                            try {
+                                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                                if (status != 200) {
+                                    errors[player]++;
+                                }
+                            } catch (IOException e) {
+                                errors[player]++;
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                return;
+                            }
+                            if (n == samples.length) {
+                                samples = Arrays.copyOf(samples, n * 2);
+                            }
+                            samples[n++] = System.nanoTime() - begin;
+                        }
+                    }
+                    latencies[player] = Arrays.copyOf(samples, n);
+                });
+            }
+        }
+        return Result.of(latencies, errors, duration);
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private static final class Result {
+        private final long[] sorted;
+        private final int errors;
+        private final double throughput;
+
+        private Result(long[] sorted, int errors, double throughput) {
+            this.sorted = sorted;
+            this.errors = errors;
+            this.throughput = throughput;
+        }
+
+        static Result of(long[][] latencies, int[] errors, Duration duration) {
+            long[] all = Arrays.stream(latencies).filter(Objects::nonNull)
+                    .flatMapToLong(Arrays::stream)
+                    .sorted()
+                    .toArray();
+            return new Result(all, Arrays.stream(errors).sum(), all.length / (duration.toMillis() / 1000.0));
+        }
+
+        String format(String mode, int players) {
+            return String.format("%-9s %8d %10.0f %10.1f %10.1f %8d", mode, players, throughput, percentile(0.50),
+                    percentile(0.99), errors);
+        }
+
+        private double percentile(double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1_000_000.0;
+        }
+    }
+}
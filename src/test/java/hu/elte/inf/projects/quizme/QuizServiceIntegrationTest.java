@@ -8,17 +8,24 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import hu.elte.inf.projects.quizme.repository.ReviewCardRepository;
 import hu.elte.inf.projects.quizme.repository.dto.Question;
 import hu.elte.inf.projects.quizme.repository.dto.QuizData;
+import hu.elte.inf.projects.quizme.repository.dto.ReviewCard;
+import hu.elte.inf.projects.quizme.repository.dto.TitleSummary;
 import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import hu.elte.inf.projects.quizme.repository.dto.TopicSummary;
 import hu.elte.inf.projects.quizme.service.QuizService;
 import hu.elte.inf.projects.quizme.service.json.QuizImportService;
 
@@ -32,6 +39,9 @@ public class QuizServiceIntegrationTest {
     @Autowired
     private QuizImportService quizImportService;
 
+    @Autowired
+    private ReviewCardRepository reviewCardRepository;
+
     @Test
     public void testFindQuestionsByTopicId_ShouldLoadQuestionsCorrectly() throws IOException {
         // Import test data
@@ -82,4 +92,62 @@ public class QuizServiceIntegrationTest {
         }
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testListingSummaries_ShouldMatchFullDocuments() throws IOException {
+        // Given
+        String titleName = "Magyarország nemzeti jelképei és ünnepei";
+        quizService.deleteTitleAndRelatedData(titleName);
+        byte[] jsonBytes = Files.readAllBytes(Paths.get("src/test/resources/json/1.json"));
+        quizImportService.persist(quizImportService.importQuizFile(jsonBytes));
+
+        // When
+        List<TitleSummary> titles = quizService.findTitleSummaries("Magyar kulturális ismeret", "Kultúra és Identitás");
+        List<TopicSummary> topics = quizService.findTopicSummaries(titleName);
+
+        // Then
+        TitleSummary title = titles.stream().filter(t -> titleName.equals(t.getName())).findFirst().orElseThrow();
+        assertEquals(5, title.getLearningObjectives().size(), "Learning objectives should be projected");
+        assertNotNull(title.getDescription(), "Description should be projected");
+
+        Map<String, Integer> expectedCounts = quizService.findTopicsTitleByName(titleName).stream()
+                .collect(Collectors.toMap(Topic::getTopicId, t -> t.getQuestionIds().size()));
+        assertEquals(expectedCounts.size(), topics.size(), "Every topic of the title should be listed");
+        for (TopicSummary topic : topics) {
+            assertNotNull(topic.getTopicName(), "Topic name should be projected");
+            assertEquals(expectedCounts.get(topic.getTopicId()), topic.getQuestionCount(),
+                    "Question count should equal the size of question_ids");
+        }
+        assertEquals(50, topics.stream().mapToInt(TopicSummary::getQuestionCount).sum(),
+                "Counts should add up to the questions of the title");
+    }
+
+    @Test
+    public void testDeleteTitle_ShouldRemoveReviewCardsOfItsQuestions() throws IOException {
+        // Given a card of a question of the title and one of another title
+        String titleName = "Magyarország nemzeti jelképei és ünnepei";
+        String email = "reviewer@example.com";
+        quizService.deleteTitleAndRelatedData(titleName);
+        byte[] jsonBytes = Files.readAllBytes(Paths.get("src/test/resources/json/1.json"));
+        quizImportService.persist(quizImportService.importQuizFile(jsonBytes));
+        String questionId = quizService.getQuestionsByTopic("nemzeti_jelképek").get(0).getId();
+        reviewCardRepository.deleteAll(reviewCardRepository.findByUserEmail(email));
+        reviewCardRepository.saveAll(List.of(card(email, questionId), card(email, "question-of-another-title")));
+
+        // When
+        quizService.deleteTitleAndRelatedData(titleName);
+
+        // Then
+        assertEquals(List.of("question-of-another-title"),
+                reviewCardRepository.findByUserEmail(email).stream().map(ReviewCard::getQuestionId).toList(),
+                "Only cards of the deleted questions should be removed");
+    }
+
+    private static ReviewCard card(String email, String questionId) {
+        ReviewCard card = new ReviewCard();
+        card.setUserEmail(email);
+        card.setQuestionId(questionId);
+        card.setDue(Instant.now());
+        return card;
+    }
+}
@@ -0,0 +1,75 @@
+package hu.elte.inf.projects.quizme.controller;
+
+import hu.elte.inf.projects.quizme.controller.dto.AliasItem;
+import hu.elte.inf.projects.quizme.service.QuizService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "app.catalog.etags=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CatalogETagFilterIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Test
+    void testCatalogPage_ShouldBeRevalidatedUntilCatalogChanges() throws Exception {
+        // Given
+        String eTag = mockMvc.perform(get("/quiz/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag, "Catalog page should carry an ETag");
+
+        // When
+        mockMvc.perform(get("/quiz/categories").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        quizService.processAndStoreAlias(List.of(new AliasItem()));
+
+        // Then
+        String changed = mockMvc.perform(get("/quiz/categories").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, changed, "Alias update should start a new catalog generation");
+    }
+
+    @Test
+    void testETag_ShouldDependOnLocaleAndQuery() throws Exception {
+        // Given
+        String english = mockMvc.perform(get("/quiz/categories").locale(Locale.ENGLISH))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        String hungarian = mockMvc.perform(get("/quiz/categories").locale(Locale.forLanguageTag("hu")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String withError = mockMvc.perform(get("/quiz/categories?error=x").locale(Locale.ENGLISH))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Then
+        assertNotEquals(english, hungarian, "Locales should not share an ETag");
+        assertNotEquals(english, withError, "Query parameters should not share an ETag");
+    }
+
+    @Test
+    void testNonCatalogPaths_ShouldNotGetETag() throws Exception {
+        mockMvc.perform(get("/api/topics/{topicId}/questions", "no_such_topic"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.VARY));
+    }
+}
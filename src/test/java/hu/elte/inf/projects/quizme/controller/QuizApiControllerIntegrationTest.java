@@ -0,0 +1,127 @@
+package hu.elte.inf.projects.quizme.controller;
+
+import hu.elte.inf.projects.quizme.repository.*;
+import hu.elte.inf.projects.quizme.service.QuizService;
+import hu.elte.inf.projects.quizme.service.json.QuizImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class QuizApiControllerIntegrationTest {
+
+    private static final String TITLE = "Magyarország nemzeti jelképei és ünnepei";
+    private static final String TOPIC_ID = "nemzeti_jelképek";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuizImportService quizImportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        categoryRepository.deleteAll();
+        subCategoryRepository.deleteAll();
+        titleRepository.deleteAll();
+        topicRepository.deleteAll();
+        questionRepository.deleteAll();
+        importFile();
+    }
+
+    @Test
+    void testTopicQuestions_ShouldRevalidateWithETag() throws Exception {
+        // Given
+        int questionCount = quizService.findTopicById(TOPIC_ID).getQuestionCount();
+
+        // When
+        MvcResult first = mockMvc.perform(get("/api/topics/{topicId}/questions", TOPIC_ID))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.length()").value(questionCount))
+                .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Then
+        assertNotNull(eTag, "Response should carry an ETag");
+        MvcResult revalidated = mockMvc.perform(get("/api/topics/{topicId}/questions", TOPIC_ID)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertEquals(0, revalidated.getResponse().getContentLength(), "304 should not carry the questions");
+    }
+
+    @Test
+    void testTitleQuestions_ShouldChangeETagWhenTitleIsReimported() throws Exception {
+        // Given
+        String eTag = mockMvc.perform(get("/api/titles/{titleName}/questions", TITLE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(50))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        quizService.deleteTitleAndRelatedData(TITLE);
+        mockMvc.perform(get("/api/titles/{titleName}/questions", TITLE)).andExpect(status().isNotFound());
+        importFile();
+
+        // Then
+        mockMvc.perform(get("/api/titles/{titleName}/questions", TITLE).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(50));
+    }
+
+    @Test
+    void testTopicQuestions_ShouldNotAnswerIfModifiedSinceAlone() throws Exception {
+        // Given - a date validator from a client that ignores ETags
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfModifiedSince(System.currentTimeMillis());
+
+        // When / Then - questions can change without any stored date moving
+        mockMvc.perform(get("/api/topics/{topicId}/questions", TOPIC_ID).headers(headers))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testUnknownTopic_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/topics/{topicId}/questions", "no_such_topic"))
+                .andExpect(status().isNotFound());
+    }
+
+    private void importFile() throws IOException {
+        byte[] json = new ClassPathResource("json/1.json").getInputStream().readAllBytes();
+        quizImportService.persist(quizImportService.importQuizFile(json));
+    }
+}
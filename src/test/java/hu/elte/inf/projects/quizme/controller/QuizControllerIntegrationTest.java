@@ -0,0 +1,247 @@
+package hu.elte.inf.projects.quizme.controller;
+
+import hu.elte.inf.projects.quizme.repository.*;
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.QuizAttempt;
+import hu.elte.inf.projects.quizme.repository.dto.ReviewCard;
+import hu.elte.inf.projects.quizme.repository.dto.Title;
+import hu.elte.inf.projects.quizme.repository.dto.TopicSummary;
+import hu.elte.inf.projects.quizme.service.json.QuizImportService;
+import hu.elte.inf.projects.quizme.util.QuizConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class QuizControllerIntegrationTest {
+
+    private static final String TITLE = "Magyarország nemzeti jelképei és ünnepei";
+    private static final String EMAIL = "reviewer@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QuizImportService quizImportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Autowired
+    private ReviewCardRepository reviewCardRepository;
+
+    private Title title;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        categoryRepository.deleteAll();
+        subCategoryRepository.deleteAll();
+        titleRepository.deleteAll();
+        topicRepository.deleteAll();
+        questionRepository.deleteAll();
+        quizAttemptRepository.deleteAll();
+        reviewCardRepository.deleteAll();
+        byte[] json = new ClassPathResource("json/1.json").getInputStream().readAllBytes();
+        quizImportService.persist(quizImportService.importQuizFile(json));
+        title = titleRepository.findByName(TITLE).get(0);
+    }
+
+    @Test
+    void testShowTopics_ShouldCombineConcurrentLookups() throws Exception {
+        // When
+        ModelAndView page = mockMvc.perform(get("/quiz/{category}/{subcategory}/{title}",
+                title.getCategoryName(), title.getSubCategoryName(), TITLE))
+                .andExpect(status().isOk())
+                .andExpect(view().name(QuizConstants.VIEW_TOPICS))
+                .andReturn().getModelAndView();
+
+        // Then
+        Map<String, Object> model = page.getModel();
+        List<?> topics = (List<?>) model.get(QuizConstants.ATTR_TOPICS);
+        assertEquals(5, topics.size(), "Should list every topic of the title");
+        assertEquals(title.getTotalQuestions(),
+                topics.stream().mapToInt(topic -> ((TopicSummary) topic).getQuestionCount()).sum(),
+                "Topic counts should add up to the title total");
+        assertEquals(title.getId(), ((Title) model.get(QuizConstants.ATTR_TITLE_OBJECT)).getId(),
+                "Title lookup should fill the modal");
+    }
+
+    @Test
+    void testStartQuiz_ShouldCombineConcurrentLookups() throws Exception {
+        // When
+        ModelAndView page = mockMvc.perform(post("/quiz/start/{titleId}", TITLE)
+                .param(QuizConstants.PARAM_QUESTION_COUNT, "10")
+                .param(QuizConstants.PARAM_DIFFICULTY, QuizConstants.DIFFICULTY_MIXED))
+                .andExpect(status().isOk())
+                .andExpect(view().name(QuizConstants.VIEW_QUIZ_PLAY))
+                .andReturn().getModelAndView();
+
+        // Then
+        Map<String, Object> model = page.getModel();
+        assertEquals(10, model.get(QuizConstants.ATTR_TOTAL), "Should select the requested number of questions");
+        assertEquals(TITLE, model.get(QuizConstants.ATTR_QUIZ_TITLE), "Title lookup should name the quiz");
+        assertEquals(title.getSubCategoryName(), model.get(QuizConstants.ATTR_SUBCATEGORY),
+                "Sub-category lookup should follow the title lookup");
+        assertEquals(title.getCategoryName(), model.get(QuizConstants.ATTR_CATEGORY),
+                "Category should come from the sub-category");
+    }
+
+    @Test
+    void testStartQuiz_ReviewWithoutUser_ShouldPlayRegularQuiz() throws Exception {
+        // When
+        ModelAndView page = mockMvc.perform(post("/quiz/start/{titleId}", TITLE)
+                .param(QuizConstants.PARAM_QUESTION_COUNT, "5")
+                .param(QuizConstants.PARAM_MODE, QuizConstants.MODE_REVIEW))
+                .andExpect(status().isOk())
+                .andExpect(view().name(QuizConstants.VIEW_QUIZ_PLAY))
+                .andReturn().getModelAndView();
+
+        // Then
+        assertEquals(5, page.getModel().get(QuizConstants.ATTR_TOTAL),
+                "Anonymous players have nothing due and should get a regular quiz");
+    }
+
+    @Test
+    void testStartQuiz_ReviewWithDeletedDueQuestion_ShouldTopUpAndRemoveItsCard() throws Exception {
+        // Given two due cards, one of a question deleted since it was scheduled
+        Question question = questionRepository.findAll().get(0);
+        reviewCardRepository.saveAll(List.of(dueCard(question.getId()), dueCard("deleted-question")));
+        DefaultOAuth2User user = new DefaultOAuth2User(AuthorityUtils.createAuthorityList("ROLE_USER"),
+                Map.of("email", EMAIL), "email");
+        SecurityContextImpl signedIn = new SecurityContextImpl(
+                new OAuth2AuthenticationToken(user, user.getAuthorities(), "google"));
+
+        // When
+        ModelAndView page = mockMvc.perform(post("/quiz/start/{titleId}", TITLE)
+                .sessionAttr(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, signedIn)
+                .param(QuizConstants.PARAM_QUESTION_COUNT, "5")
+                .param(QuizConstants.PARAM_MODE, QuizConstants.MODE_REVIEW))
+                .andExpect(status().isOk())
+                .andExpect(view().name(QuizConstants.VIEW_QUIZ_PLAY))
+                .andReturn().getModelAndView();
+
+        // Then
+        Map<String, Object> model = page.getModel();
+        assertEquals(2, model.get(QuizConstants.ATTR_TOTAL), "Missing due question should be replaced");
+        assertTrue(((String) model.get(QuizConstants.ATTR_QUESTIONS_JSON)).contains(question.getId()),
+                "Existing due question should be played");
+        assertEquals(List.of(question.getId()),
+                reviewCardRepository.findByUserEmail(EMAIL).stream().map(ReviewCard::getQuestionId).toList(),
+                "Card of the deleted question should be removed");
+    }
+
+    @Test
+    void testSubmitResults_ShouldStoreAttempt() throws Exception {
+        // Given
+        String results = """
+                {"titleName": "%s", "topicId": "nemzeti_jelképek", "questionIds": ["q1", "q2", "q3"],
+                 "totalQuestions": 3, "correctAnswers": 2,
+                 "wrongAnswers": [{"questionIndex": 1, "question": {"id": "q2"}, "selectedAnswer": 0}],
+                 "completedAt": "2026-03-01T10:15:30.000Z"}
+                """.formatted(TITLE);
+
+        // When
+        mockMvc.perform(post("/quiz/submit-results").contentType(MediaType.APPLICATION_JSON).content(results))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.score").value("2/3"));
+
+        // Then
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (quizAttemptRepository.count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        List<QuizAttempt> attempts = quizAttemptRepository.findAll();
+        assertEquals(1, attempts.size(), "Submission should be stored by the background writer");
+        QuizAttempt attempt = attempts.get(0);
+        assertEquals(TITLE, attempt.getTitleName(), "Title should be stored");
+        assertEquals(List.of("q1", "q2", "q3"), attempt.getQuestionIds(), "Answered questions should be stored");
+        assertEquals(List.of("q2"), attempt.getWrongQuestionIds(), "Wrong answers should be stored by id");
+        assertEquals(2, attempt.getCorrectAnswers(), "Score should be stored");
+        assertEquals(Instant.parse("2026-03-01T10:15:30Z"), attempt.getCompletedAt(),
+                "Client completion time should be kept");
+    }
+
+    @Test
+    void testSubmitResults_ShouldCapQuestionIdsAtTheQuizSize() throws Exception {
+        // Given - a submission claiming far more answers than its quiz had
+        String ids = IntStream.range(0, 5000).mapToObj(i -> "\"q" + i + "\"").collect(Collectors.joining(","));
+        String wrong = IntStream.range(0, 5000).mapToObj(i -> "{\"question\": {\"id\": \"q" + i + "\"}}")
+                .collect(Collectors.joining(","));
+        String results = """
+                {"titleName": "%s", "questionIds": [%s], "totalQuestions": 10, "correctAnswers": 0,
+                 "wrongAnswers": [%s]}
+                """.formatted(TITLE, ids, wrong);
+
+        // When
+        mockMvc.perform(post("/quiz/submit-results").contentType(MediaType.APPLICATION_JSON).content(results))
+                .andExpect(status().isOk());
+
+        // Then
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (quizAttemptRepository.count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        QuizAttempt attempt = quizAttemptRepository.findAll().get(0);
+        assertEquals(10, attempt.getQuestionIds().size(), "Answered questions should be capped at the quiz size");
+        assertEquals(10, attempt.getWrongQuestionIds().size(), "Wrong answers should be capped at the quiz size");
+    }
+
+    @Test
+    void testStartQuiz_UnknownTitle_ShouldRedirect() throws Exception {
+        // When / Then
+        mockMvc.perform(post("/quiz/start/{titleId}", "No such title"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    private static ReviewCard dueCard(String questionId) {
+        ReviewCard card = new ReviewCard();
+        card.setUserEmail(EMAIL);
+        card.setQuestionId(questionId);
+        card.setTitleName(TITLE);
+        card.setDue(Instant.now().minus(Duration.ofDays(1)));
+        return card;
+    }
+}
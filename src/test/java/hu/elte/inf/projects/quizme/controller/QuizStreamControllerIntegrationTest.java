@@ -0,0 +1,123 @@
+package hu.elte.inf.projects.quizme.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hu.elte.inf.projects.quizme.repository.*;
+import hu.elte.inf.projects.quizme.service.QuizService;
+import hu.elte.inf.projects.quizme.service.json.QuizImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class QuizStreamControllerIntegrationTest {
+
+    private static final String TITLE = "Magyarország nemzeti jelképei és ünnepei";
+    private static final String TOPIC_ID = "nemzeti_jelképek";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuizImportService quizImportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        categoryRepository.deleteAll();
+        subCategoryRepository.deleteAll();
+        titleRepository.deleteAll();
+        topicRepository.deleteAll();
+        questionRepository.deleteAll();
+        byte[] json = new ClassPathResource("json/1.json").getInputStream().readAllBytes();
+        quizImportService.persist(quizImportService.importQuizFile(json));
+    }
+
+    @Test
+    void testTopicStream_ShouldWriteOneQuestionPerLine() throws IOException {
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/topics/{topicId}/questions/stream",
+                String.class, TOPIC_ID);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Known topic should stream");
+        assertTrue(MediaType.APPLICATION_NDJSON.isCompatibleWith(response.getHeaders().getContentType()),
+                "Questions should be streamed as NDJSON");
+        List<JsonNode> questions = lines(response.getBody());
+        assertEquals(quizService.findTopicById(TOPIC_ID).getQuestionCount(), questions.size(),
+                "Every question of the topic should be streamed");
+        questions.forEach(question -> assertEquals(TOPIC_ID, question.get("topic_id").asText(),
+                "Only questions of the topic should be streamed"));
+    }
+
+    @Test
+    void testTitleStream_ShouldWriteEveryQuestionOfTheTitle() throws IOException {
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/titles/{titleName}/questions/stream",
+                String.class, TITLE);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Known title should stream");
+        List<JsonNode> questions = lines(response.getBody());
+        Set<String> ids = new HashSet<>();
+        questions.forEach(question -> ids.add(question.get("id").asText()));
+        assertEquals(quizService.findTitleByName(TITLE).getTotalQuestions(), questions.size(),
+                "Every question of the title should be streamed");
+        assertEquals(questions.size(), ids.size(), "No question should be streamed twice");
+    }
+
+    @Test
+    void testUnknownStreams_ShouldReturnNotFound() {
+        // When / Then
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity("/api/topics/{topicId}/questions/stream",
+                String.class, "no_such_topic").getStatusCode(), "Unknown topic should be 404");
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity("/api/titles/{titleName}/questions/stream",
+                String.class, "No such title").getStatusCode(), "Unknown title should be 404");
+    }
+
+    private List<JsonNode> lines(String body) throws IOException {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,47 @@
+package hu.elte.inf.projects.quizme.repository;
+
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.Title;
+import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import hu.elte.inf.projects.quizme.repository.dto.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class MongoIndexInitializerIntegrationTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void testEnsureIndexes_ShouldCoverRepositoryQueryPaths() {
+        // Then - indexes are created once the application is ready
+        assertTrue(findIndex(Question.class, "topic_id", "difficulty").isPresent(),
+                "questions should be indexed by topic and difficulty");
+        assertTrue(findIndex(Topic.class, "title_name").isPresent(), "topics should be indexed by title");
+        assertTrue(findIndex(Title.class, "category_name", "sub_category_name").isPresent(),
+                "titles should be indexed by category and subcategory");
+
+        IndexInfo email = findIndex(User.class, "email").orElseThrow();
+        assertTrue(email.isUnique(), "User email should be unique");
+        IndexInfo contentHash = findIndex(Question.class, "content_hash").orElseThrow();
+        assertTrue(contentHash.isUnique(), "Question content hash should be unique");
+    }
+
+    private Optional<IndexInfo> findIndex(Class<?> entityClass, String... keys) {
+        return mongoTemplate.indexOps(entityClass).getIndexInfo().stream()
+                .filter(index -> index.getIndexFields().stream().map(f -> f.getKey()).toList()
+                        .equals(List.of(keys)))
+                .findFirst();
+    }
+}
@@ -0,0 +1,123 @@
+package hu.elte.inf.projects.quizme.service;
+
+import hu.elte.inf.projects.quizme.controller.dto.nav.NavCategory;
+import hu.elte.inf.projects.quizme.controller.dto.nav.NavSubCategory;
+import hu.elte.inf.projects.quizme.controller.dto.nav.NavTitle;
+import hu.elte.inf.projects.quizme.repository.*;
+import hu.elte.inf.projects.quizme.service.catalog.CatalogChangedEvent;
+import hu.elte.inf.projects.quizme.service.catalog.CatalogSnapshot;
+import hu.elte.inf.projects.quizme.service.catalog.CatalogSnapshotService;
+import hu.elte.inf.projects.quizme.service.json.QuizImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CatalogSnapshotServiceIntegrationTest {
+
+    private static final String TITLE = "Magyarország nemzeti jelképei és ünnepei";
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private QuizImportService quizImportService;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository.deleteAll();
+        subCategoryRepository.deleteAll();
+        titleRepository.deleteAll();
+        topicRepository.deleteAll();
+        questionRepository.deleteAll();
+        catalogSnapshotService.onCatalogChanged(CatalogChangedEvent.all());
+    }
+
+    @Test
+    void testSnapshot_ShouldBeRebuiltAfterImportAndDelete() throws IOException {
+        // Given
+        CatalogSnapshot empty = catalogSnapshotService.getSnapshot();
+        assertTrue(titleNames(empty).isEmpty(), "Empty catalog should have no titles");
+
+        // When
+        byte[] json = new ClassPathResource("json/1.json").getInputStream().readAllBytes();
+        quizImportService.persist(quizImportService.importQuizFile(json));
+        CatalogSnapshot imported = catalogSnapshotService.getSnapshot();
+
+        // Then
+        assertTrue(imported.getVersion() > empty.getVersion(), "Import should rebuild the snapshot");
+        assertEquals(List.of(TITLE), titleNames(imported), "Imported title should be in the navigation");
+
+        // When
+        assertTrue(quizService.deleteTitleAndRelatedData(TITLE), "Title should be deleted");
+        CatalogSnapshot deleted = catalogSnapshotService.getSnapshot();
+
+        // Then
+        assertTrue(deleted.getVersion() > imported.getVersion(), "Delete should rebuild the snapshot");
+        assertTrue(titleNames(deleted).isEmpty(), "Deleted title should leave the navigation");
+    }
+
+    @Test
+    void testFailedRebuild_ShouldDropTheSnapshotUntilTheNextRead() throws IOException {
+        // Given - titles that cannot be read once, after the first build
+        byte[] json = new ClassPathResource("json/1.json").getInputStream().readAllBytes();
+        quizImportService.persist(quizImportService.importQuizFile(json));
+        TitleRepository titles = mock(TitleRepository.class);
+        when(titles.findNavigationEntries())
+                .thenReturn(titleRepository.findNavigationEntries())
+                .thenThrow(new IllegalStateException("MongoDB unavailable"))
+                .thenReturn(titleRepository.findNavigationEntries());
+        CatalogSnapshotService service = new CatalogSnapshotService(categoryRepository, subCategoryRepository,
+                titles);
+        CatalogSnapshot first = service.getSnapshot();
+
+        // When
+        service.onCatalogChanged(CatalogChangedEvent.all());
+
+        // Then
+        verify(titles, times(2)).findNavigationEntries();
+        CatalogSnapshot next = service.getSnapshot();
+        assertNotSame(first, next, "Failed rebuild should not keep serving the stale snapshot");
+        verify(titles, times(3)).findNavigationEntries();
+        assertEquals(first.getVersion() + 1, next.getVersion(), "Next read should build a new snapshot");
+        assertEquals(List.of(TITLE), titleNames(next), "Rebuilt snapshot should list the title");
+    }
+
+    private static List<String> titleNames(CatalogSnapshot snapshot) {
+        return snapshot.getNavigation().stream()
+                .map(NavCategory::getSubCategories)
+                .flatMap(List::stream)
+                .map(NavSubCategory::getTitles)
+                .flatMap(List::stream)
+                .map(NavTitle::getName)
+                .toList();
+    }
+}
@@ -0,0 +1,109 @@
+package hu.elte.inf.projects.quizme.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Filters a title's questions down to one difficulty level: by label through
+ * the {@link LegacyDifficultyLookup} that used to back matchesDifficulty,
+ * by label through {@link DifficultyClassifier}, and by the ordinal stored at
+ * import. Labels come from the real mappings with mixed case and padding.
+ * Run with {@code -prof gc} to see the allocation rates.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark test -Djmh.include=DifficultyClassifierBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DifficultyClassifierBenchmark {
+
+    private static final String UI_LEVEL = "medium";
+
+    @Param({ "1000", "10000", "100000" })
+    private int questionsPerTitle;
+
+    private JsonDifficultyService difficultyService;
+    private LegacyDifficultyLookup legacyLookup;
+    private byte level;
+    private String[] labels;
+    private byte[] ordinals;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        difficultyService = new JsonDifficultyService(objectMapper, event -> {
+        });
+        level = difficultyService.getDifficultyOrdinalForUiLevel(UI_LEVEL);
+
+        legacyLookup = new LegacyDifficultyLookup(objectMapper);
+        List<String> mapped = legacyLookup.labels();
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        labels = new String[questionsPerTitle];
+        ordinals = new byte[questionsPerTitle];
+        for (int i = 0; i < questionsPerTitle; i++) {
+            String label = mapped.get(random.nextInt(mapped.size()));
+            labels[i] = switch (random.nextInt(3)) {
+                case 0 -> label.toUpperCase(Locale.ROOT);
+                case 1 -> " " + label + " ";
+                default -> new String(label);
+            };
+            ordinals[i] = difficultyService.getDifficultyOrdinal(labels[i]);
+        }
+    }
+
+    @Benchmark
+    public int hashMapByLabel() {
+        int matching = 0;
+        for (String label : labels) {
+            if (UI_LEVEL.equalsIgnoreCase(legacyLookup.uiLevel(label))) {
+                matching++;
+            }
+        }
+        return matching;
+    }
+
+    @Benchmark
+    public int perfectHashByLabel() {
+        int matching = 0;
+        for (String label : labels) {
+            if (difficultyService.getDifficultyOrdinal(label) == level) {
+                matching++;
+            }
+        }
+        return matching;
+    }
+
+    @Benchmark
+    public int storedOrdinal() {
+        int matching = 0;
+        for (byte ordinal : ordinals) {
+            if (ordinal == level) {
+                matching++;
+            }
+        }
+        return matching;
+    }
+}
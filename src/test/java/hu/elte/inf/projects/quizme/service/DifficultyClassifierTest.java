@@ -0,0 +1,58 @@
+package hu.elte.inf.projects.quizme.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DifficultyClassifierTest {
+
+    private final DifficultyClassifier classifier = DifficultyClassifier.of(Map.of(
+            "könnyű", (byte) 1, "Easy", (byte) 1, "közepes", (byte) 2, "nehéz szint", (byte) 3));
+
+    @Test
+    void testClassify_ShouldIgnoreCaseAndSurroundingWhitespace() {
+        assertEquals(1, classifier.classify("könnyű"));
+        assertEquals(1, classifier.classify("  KÖNNYŰ\t"), "Case and whitespace should be ignored");
+        assertEquals(1, classifier.classify("easy"), "Mapped labels should be normalized");
+        assertEquals(3, classifier.classify("Nehéz Szint"), "Inner whitespace should be kept");
+    }
+
+    @Test
+    void testClassify_UnknownLabels_ShouldBeUnknown() {
+        assertEquals(JsonDifficultyService.DIFFICULTY_UNKNOWN, classifier.classify(null));
+        assertEquals(JsonDifficultyService.DIFFICULTY_UNKNOWN, classifier.classify(""));
+        assertEquals(JsonDifficultyService.DIFFICULTY_UNKNOWN, classifier.classify("   "));
+        assertEquals(JsonDifficultyService.DIFFICULTY_UNKNOWN, classifier.classify("nehéz"),
+                "Prefix of a label should not match");
+        assertEquals(JsonDifficultyService.DIFFICULTY_UNKNOWN, classifier.classify("közepesebb"),
+                "Longer label should not match");
+    }
+
+    @Test
+    void testOf_ShouldPlaceManyLabelsWithoutCollisions() {
+        // Given
+        Map<String, Byte> labels = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            labels.put("level" + i, (byte) (1 + i % 3));
+        }
+        // Same hashCode, different strings
+        labels.put("Aa", (byte) 1);
+        labels.put("BB", (byte) 2);
+
+        // When
+        DifficultyClassifier large = DifficultyClassifier.of(labels);
+
+        // Then
+        labels.forEach((label, ordinal) -> assertEquals(ordinal, large.classify(label),
+                "Every label should keep its own ordinal: " + label));
+        assertTrue(large.tableSize() >= 2 * labels.size(), "Table should stay at most half full");
+    }
+
+    @Test
+    void testOf_EmptyMappings_ShouldClassifyNothing() {
+        assertEquals(JsonDifficultyService.DIFFICULTY_UNKNOWN, DifficultyClassifier.of(Map.of()).classify("easy"));
+    }
+}
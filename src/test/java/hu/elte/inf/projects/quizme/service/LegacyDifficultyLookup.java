@@ -0,0 +1,60 @@
+package hu.elte.inf.projects.quizme.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.ClassPathResource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The string normalizing HashMap lookup that backed
+ * {@code JsonDifficultyService.matchesDifficulty} before labels were
+ * classified, built from the bundled mappings. Baseline of the benchmarks.
+ */
+public final class LegacyDifficultyLookup {
+
+    private final Map<String, String> dataValueToUiLevel = new HashMap<>();
+    private final List<String> labels = new ArrayList<>();
+
+    public LegacyDifficultyLookup(ObjectMapper objectMapper) throws IOException {
+        JsonNode levels;
+        try (InputStream in = new ClassPathResource("config/difficulty-mappings.json").getInputStream()) {
+            levels = objectMapper.readTree(in).get("difficultyLevels");
+        }
+        for (Map.Entry<String, JsonNode> level : levels.properties()) {
+            for (JsonNode values : level.getValue().get("mappings")) {
+                for (JsonNode value : values) {
+                    dataValueToUiLevel.put(value.asText().toLowerCase().trim(), level.getKey());
+                    labels.add(value.asText());
+                }
+            }
+        }
+    }
+
+    /**
+     * Every mapped label as written in the mappings file.
+     */
+    public List<String> labels() {
+        return labels;
+    }
+
+    public String uiLevel(String questionDifficulty) {
+        return dataValueToUiLevel.get(questionDifficulty.toLowerCase().trim());
+    }
+
+    public boolean matchesDifficulty(String questionDifficulty, String uiDifficultyLevel) {
+        if (questionDifficulty == null || uiDifficultyLevel == null) {
+            return true;
+        }
+        if ("mixed".equalsIgnoreCase(uiDifficultyLevel)) {
+            return true;
+        }
+        return uiDifficultyLevel.equalsIgnoreCase(uiLevel(questionDifficulty));
+    }
+}
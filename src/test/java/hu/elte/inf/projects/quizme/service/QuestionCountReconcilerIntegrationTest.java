@@ -0,0 +1,152 @@
+package hu.elte.inf.projects.quizme.service;
+
+import hu.elte.inf.projects.quizme.repository.*;
+import hu.elte.inf.projects.quizme.repository.dto.Title;
+import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import hu.elte.inf.projects.quizme.service.catalog.QuestionCountLock;
+import hu.elte.inf.projects.quizme.service.catalog.QuestionCountReconciler;
+import hu.elte.inf.projects.quizme.service.json.QuizImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class QuestionCountReconcilerIntegrationTest {
+
+    private static final String TITLE = "Magyarország nemzeti jelképei és ünnepei";
+
+    @Autowired
+    private QuestionCountReconciler questionCountReconciler;
+
+    @Autowired
+    private QuizImportService quizImportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private QuestionCountLock questionCountLock;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository.deleteAll();
+        subCategoryRepository.deleteAll();
+        titleRepository.deleteAll();
+        topicRepository.deleteAll();
+        questionRepository.deleteAll();
+    }
+
+    @Test
+    void testImport_ShouldMaintainQuestionCounts() throws IOException {
+        // Given
+        byte[] json = new ClassPathResource("json/1.json").getInputStream().readAllBytes();
+        quizImportService.persist(quizImportService.importQuizFile(json));
+
+        // When
+        try (InputStream in = new ClassPathResource("json/1.json").getInputStream()) {
+            quizImportService.importQuizStream("1.json", in);
+        }
+
+        // Then
+        assertCountsMatchQuestionIds();
+        assertEquals(50, titleRepository.findByName(TITLE).get(0).getTotalQuestions(),
+                "Re-importing the same file should not change the title total");
+        assertEquals(0, questionCountReconciler.reconcile(), "Counts written by imports should not drift");
+    }
+
+    @Test
+    void testReconcile_ShouldRepairDriftedCounts() throws IOException {
+        // Given
+        try (InputStream in = new ClassPathResource("json/1.json").getInputStream()) {
+            quizImportService.importQuizStream("1.json", in);
+        }
+        Topic topic = topicRepository.findByTitleName(TITLE).get(0);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("topic_id").is(topic.getTopicId())),
+                Update.update("question_count", 999), Topic.class);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("name").is(TITLE)),
+                new Update().unset("total_questions"), Title.class);
+
+        // When
+        int repaired = questionCountReconciler.reconcile();
+
+        // Then
+        assertEquals(2, repaired, "The drifted topic and title should be repaired");
+        assertCountsMatchQuestionIds();
+        assertEquals(50, titleRepository.findByName(TITLE).get(0).getTotalQuestions(),
+                "Title total should be recomputed from its topics");
+    }
+
+    @Test
+    void testReconcile_ShouldWaitForPendingImportCounts() throws Exception {
+        // Given an import that linked questions to a topic but has not moved the title total yet
+        try (InputStream in = new ClassPathResource("json/1.json").getInputStream()) {
+            quizImportService.importQuizStream("1.json", in);
+        }
+        Topic topic = topicRepository.findByTitleName(TITLE).get(0);
+        questionCountLock.importLock().lock();
+        CompletableFuture<Integer> reconciliation;
+        try {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("topic_id").is(topic.getTopicId())),
+                    new Update().push("question_ids", "pending").inc("question_count", 1), Topic.class);
+
+            // When
+            reconciliation = CompletableFuture.supplyAsync(questionCountReconciler::reconcile);
+            Thread.sleep(300);
+            assertFalse(reconciliation.isDone(), "Reconciliation should wait for the import's count writes");
+            mongoTemplate.updateFirst(Query.query(Criteria.where("name").is(TITLE)),
+                    new Update().inc("total_questions", 1), Title.class);
+        } finally {
+            questionCountLock.importLock().unlock();
+        }
+
+        // Then
+        assertEquals(0, reconciliation.get(10, TimeUnit.SECONDS), "Counts of a finished import should not drift");
+        assertEquals(51, titleRepository.findByName(TITLE).get(0).getTotalQuestions(),
+                "The new question should be counted into the title once");
+        assertCountsMatchQuestionIds();
+    }
+
+    private void assertCountsMatchQuestionIds() {
+        List<Topic> topics = topicRepository.findByTitleName(TITLE);
+        assertEquals(5, topics.size(), "Should have 5 topics");
+        int sum = 0;
+        for (Topic topic : topics) {
+            assertEquals(topic.getQuestionIds().size(), topic.getQuestionCount(),
+                    "Topic " + topic.getTopicId() + " count should equal its question ids");
+            sum += topic.getQuestionCount();
+        }
+        assertEquals(sum, titleRepository.findByName(TITLE).get(0).getTotalQuestions(),
+                "Title total should equal the sum of its topic counts");
+    }
+}
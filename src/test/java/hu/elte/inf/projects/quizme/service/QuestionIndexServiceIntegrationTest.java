@@ -0,0 +1,159 @@
+package hu.elte.inf.projects.quizme.service;
+
+import hu.elte.inf.projects.quizme.repository.*;
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.QuizData;
+import hu.elte.inf.projects.quizme.service.index.QuestionIndexService;
+import hu.elte.inf.projects.quizme.service.index.QuestionSamplingService;
+import hu.elte.inf.projects.quizme.service.index.TitleQuestionIndex;
+import hu.elte.inf.projects.quizme.service.json.QuizImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class QuestionIndexServiceIntegrationTest {
+
+    private static final String TITLE = "Magyarország nemzeti jelképei és ünnepei";
+
+    @Autowired
+    private QuestionIndexService questionIndexService;
+
+    @Autowired
+    private QuestionSamplingService questionSamplingService;
+
+    @Autowired
+    private QuizImportService quizImportService;
+
+    @Autowired
+    private JsonDifficultyService difficultyService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository.deleteAll();
+        subCategoryRepository.deleteAll();
+        titleRepository.deleteAll();
+        topicRepository.deleteAll();
+        questionRepository.deleteAll();
+    }
+
+    @Test
+    void testIndex_ShouldCoverAllQuestionsOfTitle() throws IOException {
+        // Given
+        importFile("json/1.json");
+
+        // When
+        TitleQuestionIndex index = questionIndexService.getIndex(TITLE);
+
+        // Then
+        assertEquals(50, index.size(), "Index should contain every question of the title");
+        assertEquals(5, index.topicCount(), "Index should know all 5 topics");
+
+        Set<String> ids = new HashSet<>();
+        int easy = 0;
+        byte easyOrdinal = difficultyService.getDifficultyOrdinalForUiLevel("easy");
+        for (int i = 0; i < index.size(); i++) {
+            ids.add(index.questionId(i));
+            if (index.difficulty(i) == easyOrdinal) {
+                easy++;
+            }
+        }
+        assertEquals(50, ids.size(), "Question ids should be unique");
+        assertEquals(31, easy, "'könnyű' questions should be normalized to the easy level");
+    }
+
+    @Test
+    void testIndex_ShouldBeDroppedAfterImport() throws IOException {
+        // Given
+        TitleQuestionIndex empty = questionIndexService.getIndex(TITLE);
+        assertTrue(empty.isEmpty(), "Unknown title should produce an empty index");
+
+        // When
+        importFile("json/1.json");
+
+        // Then
+        assertEquals(50, questionIndexService.getIndex(TITLE).size(), "Import should invalidate the index");
+    }
+
+    @Test
+    void testServerSideSampling_ShouldReturnBalancedSample() throws IOException {
+        // Given
+        importFile("json/1.json");
+
+        // When
+        List<Question> mixed = questionSamplingService.sampleBalanced(TITLE, 12, "mixed");
+        List<Question> easy = questionSamplingService.sampleBalanced(TITLE, 10, "easy");
+
+        // Then
+        assertEquals(12, mixed.size(), "Mixed sample should have the requested size");
+        assertEquals(12, mixed.stream().map(Question::getId).distinct().count(), "Sample should not repeat questions");
+        assertEquals(4, mixed.stream().filter(q -> "nehéz".equals(q.getDifficulty())).count(),
+                "Each difficulty level should get an equal share");
+
+        assertEquals(10, easy.size(), "Easy sample should have the requested size");
+        assertTrue(easy.stream().allMatch(q -> "könnyű".equals(q.getDifficulty())),
+                "Easy sample should only contain easy questions");
+        // Four of the five topics have easy questions, so each of them contributes
+        assertEquals(4, easy.stream().map(Question::getTopicId).distinct().count(),
+                "Easy sample should be spread across all topics with easy questions");
+    }
+
+    @Test
+    void testServerSideSampling_MixedShouldSkipUnmappedLabels() throws IOException {
+        // Given ten questions with a label no difficulty level maps
+        importFile("json/1.json");
+        List<String> relabelled = questionRepository.findAll().stream().limit(10).map(Question::getId).toList();
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(relabelled)),
+                Update.update("difficulty", "ismeretlen"), Question.class);
+
+        // When
+        List<Question> mixed = questionSamplingService.sampleBalanced(TITLE, 12, "mixed");
+
+        // Then
+        assertEquals(12, mixed.size(), "Mixed sample should have the requested size");
+        assertTrue(mixed.stream().noneMatch(q -> "ismeretlen".equals(q.getDifficulty())),
+                "Unmapped labels should not form a difficulty level of their own");
+    }
+
+    private void importFile(String path) throws IOException {
+        byte[] json = new ClassPathResource(path).getInputStream().readAllBytes();
+        Optional<QuizData> quizData = quizImportService.importQuizFile(json);
+        quizImportService.persist(quizData);
+    }
+}
@@ -0,0 +1,181 @@
+package hu.elte.inf.projects.quizme.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import hu.elte.inf.projects.quizme.repository.*;
+import hu.elte.inf.projects.quizme.service.json.ImportJob;
+import hu.elte.inf.projects.quizme.service.json.ImportResult;
+import hu.elte.inf.projects.quizme.service.json.QuizImportExecutor;
+import hu.elte.inf.projects.quizme.service.json.QuizImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class QuizImportExecutorIntegrationTest {
+
+    @Autowired
+    private QuizImportExecutor quizImportExecutor;
+
+    @Autowired
+    private QuizImportService quizImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository.deleteAll();
+        subCategoryRepository.deleteAll();
+        titleRepository.deleteAll();
+        topicRepository.deleteAll();
+        questionRepository.deleteAll();
+    }
+
+    @Test
+    void testSubmit_ShouldImportFilesConcurrentlyAndReportEachFile() throws Exception {
+        // Given - four titles sharing one category and subcategory, plus a broken file
+        List<MultipartFile> files = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            files.add(variant(i));
+        }
+        files.add(new MockMultipartFile("files", "broken.json", MediaType.APPLICATION_JSON_VALUE,
+                "[1, 2".getBytes(StandardCharsets.UTF_8)));
+
+        // When
+        ImportJob job = quizImportExecutor.submit(files);
+        assertTrue(job.awaitCompletion(30, TimeUnit.SECONDS), "Import job should finish");
+
+        // Then
+        assertEquals(ImportJob.Status.FAILED, job.getStatus(), "A broken file should fail the job");
+        assertSame(job, quizImportExecutor.findJob(job.getId()).orElseThrow(), "Job should be retrievable by id");
+        assertEquals(200, job.getQuestionsPersisted(), "Progress should count every persisted question");
+        assertEquals(0, job.getDuplicatesSkipped(), "Nothing should be skipped");
+        assertTrue(job.getBytesParsed() > 0 && job.getBytesParsed() <= job.getBytesTotal(),
+                "Parsed bytes should be reported within the upload size");
+
+        Map<String, ImportResult> results = job.getResults().stream()
+                .collect(Collectors.toMap(ImportResult::getFileName, Function.identity()));
+        assertEquals(5, results.size(), "Every file should get a result");
+        for (int i = 1; i <= 4; i++) {
+            ImportResult result = results.get("quiz-" + i + ".json");
+            assertTrue(result.isSuccess(), "Valid file should succeed");
+            assertEquals(50, result.getInserted(), "Every question of the file should be inserted");
+        }
+        ImportResult broken = results.get("broken.json");
+        assertFalse(broken.isSuccess(), "Broken file should be reported as failed");
+        assertNotNull(broken.getError(), "Failure should carry the error message");
+
+        assertEquals(1, categoryRepository.count(), "Concurrent imports should share one category");
+        assertEquals(1, subCategoryRepository.count(), "Concurrent imports should share one subcategory");
+        assertEquals(4, titleRepository.count(), "Should have one title per file");
+        assertEquals(20, topicRepository.count(), "Should have 5 topics per file");
+        assertEquals(200, questionRepository.count(), "Should have 50 questions per file");
+    }
+
+    @Test
+    void testSubmit_ShouldReportSkippedDuplicates() throws Exception {
+        // Given
+        quizImportExecutor.submit(List.of(variant(1))).awaitCompletion(30, TimeUnit.SECONDS);
+
+        // When
+        ImportJob job = quizImportExecutor.submit(List.of(variant(1)));
+        assertTrue(job.awaitCompletion(30, TimeUnit.SECONDS), "Import job should finish");
+
+        // Then
+        assertEquals(ImportJob.Status.COMPLETED, job.getStatus(), "Re-import should complete");
+        assertEquals(0, job.getQuestionsPersisted(), "Nothing new should be persisted");
+        assertEquals(50, job.getDuplicatesSkipped(), "Every question should be reported as duplicate");
+    }
+
+    @Test
+    void testSubmit_ShouldReportQuestionsInsertedBeforeAFailure() throws Exception {
+        // Given - a file that breaks after its questions
+        String json = new String(variant(1).getBytes(), StandardCharsets.UTF_8).trim();
+        String truncated = json.substring(0, json.length() - 1) + ", \"trailer\": [1, 2";
+        MultipartFile file = new MockMultipartFile("files", "truncated.json", MediaType.APPLICATION_JSON_VALUE,
+                truncated.getBytes(StandardCharsets.UTF_8));
+
+        // When
+        ImportJob job = quizImportExecutor.submit(List.of(file));
+        assertTrue(job.awaitCompletion(30, TimeUnit.SECONDS), "Import job should finish");
+
+        // Then
+        ImportResult result = job.getResults().get(0);
+        assertFalse(result.isSuccess(), "Truncated file should be reported as failed");
+        assertNotNull(result.getError(), "Failure should carry the error message");
+        assertEquals(50, result.getInserted(), "Questions written before the failure should be reported");
+        assertEquals(50, questionRepository.count(), "Questions written before the failure should stay");
+        assertEquals(50, job.getQuestionsPersisted(), "Job progress should include them too");
+    }
+
+    @Test
+    void testEvictExpiredJobs_ShouldForgetJobsFinishedBeforeTheRetention() throws Exception {
+        // Given - an executor that keeps finished jobs for no time at all
+        QuizImportExecutor executor = new QuizImportExecutor(quizImportService, 1, Duration.ZERO);
+        ImportJob job = executor.submit(List.of(variant(1)));
+        assertTrue(job.awaitCompletion(30, TimeUnit.SECONDS), "Import job should finish");
+        assertTrue(executor.findJob(job.getId()).isPresent(), "Finished job should be kept until the sweep");
+
+        // When
+        executor.evictExpiredJobs();
+
+        // Then
+        assertTrue(executor.findJob(job.getId()).isEmpty(), "Expired job should be evicted by the sweep");
+    }
+
+    /**
+     * Copy of json/1.json with its own title, topic ids and question texts.
+     */
+    private MultipartFile variant(int n) throws IOException {
+        JsonNode root = objectMapper.readTree(new ClassPathResource("json/1.json").getInputStream());
+        ObjectNode metadata = (ObjectNode) root.get("quiz_metadata");
+        metadata.put("title", metadata.get("title").asText() + " " + n);
+        for (JsonNode topic : root.get("topics")) {
+            ((ObjectNode) topic).put("topic_id", topic.get("topic_id").asText() + "_" + n);
+        }
+        for (JsonNode question : root.get("questions")) {
+            ((ObjectNode) question).put("topic_id", question.get("topic_id").asText() + "_" + n);
+            ((ObjectNode) question).put("question", question.get("question").asText() + " (" + n + ")");
+        }
+        return new MockMultipartFile("files", "quiz-" + n + ".json", MediaType.APPLICATION_JSON_VALUE,
+                objectMapper.writeValueAsBytes(root));
+    }
+}
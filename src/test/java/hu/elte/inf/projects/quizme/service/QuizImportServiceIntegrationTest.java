@@ -8,6 +8,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -43,6 +47,15 @@ public class QuizImportServiceIntegrationTest {
     @Autowired
     private QuestionRepository questionRepository;
 
+    @Autowired
+    private SequenceService sequenceService;
+
+    @Autowired
+    private JsonDifficultyService difficultyService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     private byte[] testJsonData;
 
     @BeforeEach
@@ -222,6 +235,82 @@ public class QuizImportServiceIntegrationTest {
         assertEquals(50, easyCount + mediumCount + hardCount, "Total questions should match");
     }
 
+    @Test
+    void testPersist_ShouldStoreDifficultyOrdinal() {
+        // When
+        quizImportService.persist(quizImportService.importQuizFile(testJsonData));
+
+        // Then
+        for (Question question : questionRepository.findAll()) {
+            assertEquals(difficultyService.getDifficultyOrdinal(question.getDifficulty()),
+                    question.getDifficultyLevel(), "Import should store the ordinal of the label");
+            assertNotEquals(JsonDifficultyService.DIFFICULTY_UNKNOWN, question.getDifficultyLevel(),
+                    "Every label of the file should be mapped");
+        }
+    }
+
+    @Test
+    void testBackfill_ShouldSetMissingDifficultyOrdinals() {
+        // Given questions stored without an ordinal
+        quizImportService.persist(quizImportService.importQuizFile(testJsonData));
+        mongoTemplate.updateMulti(new Query(), new Update().unset("difficulty_level"), Question.class);
+
+        // When
+        int backfilled = questionRepository.backfillDifficultyLevels(difficultyService::getDifficultyOrdinal);
+
+        // Then
+        assertEquals(50, backfilled, "Every question should be backfilled");
+        questionRepository.findAll().forEach(question -> assertEquals(
+                difficultyService.getDifficultyOrdinal(question.getDifficulty()), question.getDifficultyLevel(),
+                "Backfill should store the ordinal of the label"));
+        assertEquals(0, questionRepository.backfillDifficultyLevels(difficultyService::getDifficultyOrdinal),
+                "Backfilled questions should not be touched again");
+    }
+
+    @Test
+    void testBackfill_ShouldUpdateStaleDifficultyOrdinals() {
+        // Given questions of one topic stored with an ordinal their label no longer maps to
+        quizImportService.persist(quizImportService.importQuizFile(testJsonData));
+        String topicId = questionRepository.findAll().get(0).getTopicId();
+        long stale = mongoTemplate.updateMulti(Query.query(Criteria.where("topic_id").is(topicId)),
+                Update.update("difficulty_level", 7), Question.class).getModifiedCount();
+
+        // When
+        int backfilled = questionRepository.backfillDifficultyLevels(difficultyService::getDifficultyOrdinal);
+
+        // Then
+        assertEquals(stale, backfilled, "Only the stale questions should be updated");
+        questionRepository.findAll().forEach(question -> assertEquals(
+                difficultyService.getDifficultyOrdinal(question.getDifficulty()), question.getDifficultyLevel(),
+                "Backfill should store the ordinal of the label"));
+    }
+
+    @Test
+    void testRuntimeMapping_ShouldUpdateStoredDifficultyOrdinals() {
+        // Given
+        quizImportService.persist(quizImportService.importQuizFile(testJsonData));
+        Question question = questionRepository.findAll().get(0);
+        byte[] ordinals = difficultyService.getDifficultyOrdinals();
+        byte other = question.getDifficultyLevel() == ordinals[0] ? ordinals[1] : ordinals[0];
+        String otherLevel = difficultyService.getUiLevel(other).orElseThrow();
+
+        try {
+            // When
+            difficultyService.addRuntimeMapping(question.getDifficulty().toUpperCase(), otherLevel);
+
+            // Then
+            assertEquals(other, difficultyService.getDifficultyOrdinal(question.getDifficulty()),
+                    "The mapping added last should win over the file's");
+            assertEquals(other, questionRepository.findById(question.getId()).orElseThrow().getDifficultyLevel(),
+                    "Stored ordinals should follow the new mapping");
+        } finally {
+            difficultyService.reloadConfiguration();
+        }
+        assertEquals(question.getDifficultyLevel(),
+                questionRepository.findById(question.getId()).orElseThrow().getDifficultyLevel(),
+                "Reloading the mappings should restore the stored ordinal");
+    }
+
     @Test
     void testTopicDistribution_ShouldMatchExpectedCounts() {
         // Given
@@ -345,4 +434,39 @@ public class QuizImportServiceIntegrationTest {
             assertEquals("nemzeti_jelképek", question.getTopicId(), "Question should have correct topic ID");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPersist_ShouldAssignConsecutiveQuestionIds() {
+        // Given
+        Optional<QuizData> quizData = quizImportService.importQuizFile(testJsonData);
+        assertTrue(quizData.isPresent());
+
+        // When
+        quizImportService.persist(quizData);
+        String nextId = sequenceService.getNextQuestionId();
+
+        // Then
+        List<Long> ids = questionRepository.findAll().stream()
+                .map(q -> Long.parseLong(q.getId().substring(1)))
+                .sorted()
+                .toList();
+        assertEquals(50, ids.stream().distinct().count(), "Question IDs should be unique");
+        assertEquals(49L, ids.get(49) - ids.get(0), "Imported questions should get one contiguous block");
+        assertEquals(ids.get(49) + 1, Long.parseLong(nextId.substring(1)),
+                "Sequence should continue after the reserved block");
+    }
+
+    @Test
+    void testImportQuizFile_ShouldSkipAlreadyStoredTopicsAndQuestions() {
+        // Given
+        quizImportService.persist(quizImportService.importQuizFile(testJsonData));
+
+        // When
+        Optional<QuizData> reimported = quizImportService.importQuizFile(testJsonData);
+
+        // Then
+        assertTrue(reimported.isPresent(), "Quiz data should be parsed successfully");
+        assertTrue(reimported.get().getTopics().isEmpty(), "Stored topics should be dropped");
+        assertTrue(reimported.get().getQuestions().isEmpty(), "Stored questions should be dropped");
+    }
+}
@@ -0,0 +1,163 @@
+package hu.elte.inf.projects.quizme.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import hu.elte.inf.projects.quizme.repository.*;
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.Title;
+import hu.elte.inf.projects.quizme.service.cache.CacheConfig;
+import hu.elte.inf.projects.quizme.service.cache.QuestionPayload;
+import hu.elte.inf.projects.quizme.service.cache.QuestionPayloadService;
+import hu.elte.inf.projects.quizme.service.json.QuizImportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class QuizServiceCacheIntegrationTest {
+
+    private static final String TITLE = "Magyarország nemzeti jelképei és ünnepei";
+    private static final String TOPIC_ID = "nemzeti_jelképek";
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuizImportService quizImportService;
+
+    @Autowired
+    private QuestionPayloadService questionPayloadService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        categoryRepository.deleteAll();
+        subCategoryRepository.deleteAll();
+        titleRepository.deleteAll();
+        topicRepository.deleteAll();
+        questionRepository.deleteAll();
+        byte[] json = new ClassPathResource("json/1.json").getInputStream().readAllBytes();
+        quizImportService.persist(quizImportService.importQuizFile(json));
+    }
+
+    @Test
+    void testRepeatedPlays_ShouldBeServedFromCache() {
+        // Given
+        List<Question> first = quizService.getQuestionsByTopic(TOPIC_ID);
+
+        // When
+        questionRepository.deleteAll();
+        List<Question> second = quizService.getQuestionsByTopic(TOPIC_ID);
+
+        // Then
+        assertFalse(first.isEmpty(), "Topic should have questions");
+        assertSame(first, second, "Second play should not reach MongoDB");
+        assertEquals(1, nativeCache(CacheConfig.TOPIC_QUESTIONS).stats().hitCount(), "Should record one hit");
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("cache", CacheConfig.TOPIC_QUESTIONS, "result", "hit").functionCounter().count(),
+                "Hits should be exported as metrics");
+    }
+
+    @Test
+    void testCatalogChange_ShouldEvictCachedReads() throws IOException {
+        // Given
+        Title title = quizService.findTitleByName(TITLE);
+        assertNotNull(quizService.findTopicById(TOPIC_ID), "Topic should exist");
+        assertNotNull(nativeCache(CacheConfig.TITLES).getIfPresent(TITLE), "Title should be cached");
+
+        // When
+        assertTrue(quizService.deleteTitleAndRelatedData(TITLE), "Title should be deleted");
+
+        // Then
+        assertNull(nativeCache(CacheConfig.TITLES).getIfPresent(TITLE), "Deleted title should be evicted");
+        assertNull(quizService.findTopicById(TOPIC_ID), "Deleted topic should not be served from cache");
+        assertNull(quizService.findTitleByName(TITLE).getId(), "Unknown title should not come from cache");
+        assertNotNull(title.getId(), "Stored title should have had an id");
+    }
+
+    @Test
+    void testUnknownLookups_ShouldNotBeCached() {
+        // When
+        assertNull(quizService.findTopicById("no_such_topic"), "Unknown topic should be null");
+        quizService.findTitleByName("No such title");
+
+        // Then
+        assertEquals(0, nativeCache(CacheConfig.TOPICS).estimatedSize(), "Null result should not be cached");
+        assertEquals(0, nativeCache(CacheConfig.TITLES).estimatedSize(), "Placeholder title should not be cached");
+    }
+
+    @Test
+    void testTopicPayload_ShouldBeSerializedOnceUntilCatalogChanges() throws IOException {
+        // When
+        QuestionPayload first = questionPayloadService.getTopicPayload(TOPIC_ID);
+        QuestionPayload second = questionPayloadService.getTopicPayload(TOPIC_ID);
+
+        // Then
+        assertSame(first, second, "Second play should reuse the serialized payload");
+        JsonNode questions = objectMapper.readTree(first.getJson());
+        assertEquals(first.getCount(), questions.size(), "Payload should hold every question of the topic");
+        assertEquals(TOPIC_ID, questions.get(0).get("topic_id").asText(), "Questions should use the JSON names");
+        assertFalse(questions.get(0).has("contentHash"), "Internal fields should not be serialized");
+
+        quizService.deleteTitleAndRelatedData(TITLE);
+        assertNull(questionPayloadService.getTopicPayload(TOPIC_ID), "Deleted topic should not be served from cache");
+    }
+
+    @Test
+    void testPayload_ShouldBeSafeToInlineInScript() throws IOException {
+        // Given
+        Question question = new Question();
+        question.setQuestion("</script><script>alert('x')</script> & more");
+
+        // When
+        QuestionPayload payload = questionPayloadService.serialize(List.of(question));
+
+        // Then
+        assertFalse(payload.asString().contains("<"), "Markup should be escaped");
+        assertFalse(payload.asString().contains("'"), "Quotes should be escaped");
+        assertEquals(question.getQuestion(), objectMapper.readTree(payload.getJson()).get(0).get("question").asText(),
+                "Escaped payload should decode to the original text");
+    }
+
+    private Cache<Object, Object> nativeCache(String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
@@ -0,0 +1,218 @@
+package hu.elte.inf.projects.quizme.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import hu.elte.inf.projects.quizme.repository.*;
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.Topic;
+import hu.elte.inf.projects.quizme.service.json.ImportResult;
+import hu.elte.inf.projects.quizme.service.json.QuizImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A batch size that does not divide the 50 questions exercises the final partial batch
+@SpringBootTest(properties = "app.import.batch-size=7")
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class QuizStreamingImportIntegrationTest {
+
+    @Autowired
+    private QuizImportService quizImportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository.deleteAll();
+        subCategoryRepository.deleteAll();
+        titleRepository.deleteAll();
+        topicRepository.deleteAll();
+        questionRepository.deleteAll();
+    }
+
+    @Test
+    void testImportQuizStream_ShouldPersistAllEntitiesInBatches() throws IOException {
+        // When
+        ImportResult result = importStream("json/1.json");
+
+        // Then
+        assertEquals(50, result.getInserted(), "All questions should be reported as inserted");
+        assertEquals(0, result.getSkipped(), "Nothing should be skipped on first import");
+        assertEquals(1, categoryRepository.count(), "Should have 1 category");
+        assertEquals(1, subCategoryRepository.count(), "Should have 1 subcategory");
+        assertEquals(1, titleRepository.count(), "Should have 1 title");
+
+        List<Question> questions = questionRepository.findAll();
+        assertEquals(50, questions.size(), "Should have 50 questions");
+
+        List<Topic> topics = topicRepository.findAll();
+        assertEquals(5, topics.size(), "Should have 5 topics");
+        Set<String> linkedIds = new HashSet<>();
+        for (Topic topic : topics) {
+            Set<String> expected = questions.stream()
+                    .filter(q -> topic.getTopicId().equals(q.getTopicId()))
+                    .map(Question::getId)
+                    .collect(Collectors.toSet());
+            assertEquals(expected, new HashSet<>(topic.getQuestionIds()),
+                    "Topic " + topic.getTopicId() + " should reference its questions from every batch");
+            linkedIds.addAll(topic.getQuestionIds());
+        }
+        assertEquals(50, linkedIds.size(), "Every question should be linked to exactly one topic");
+    }
+
+    @Test
+    void testImportQuizStream_ShouldSkipAlreadyStoredQuestions() throws IOException {
+        // Given
+        importStream("json/1.json");
+
+        // When
+        ImportResult result = importStream("json/1.json");
+
+        // Then
+        assertEquals(0, result.getInserted(), "Re-importing the same file should store nothing");
+        assertEquals(50, result.getSkipped(), "Every question should be reported as skipped");
+        assertEquals(50, questionRepository.count(), "Question count should be unchanged");
+        assertEquals(5, topicRepository.count(), "Topic count should be unchanged");
+    }
+
+    @Test
+    void testImportQuizStream_ShouldMatchQuestionsByNormalizedContent() throws Exception {
+        // Given
+        importStream("json/1.json");
+        JsonNode root = objectMapper.readTree(new ClassPathResource("json/1.json").getInputStream());
+        for (JsonNode question : root.get("questions")) {
+            // Same content with different case and spacing
+            ((ObjectNode) question).put("question", "  " + question.get("question").asText().toUpperCase() + " ");
+        }
+
+        // When
+        ImportResult result = quizImportService.importQuizStream("1-reformatted.json",
+                new ByteArrayInputStream(objectMapper.writeValueAsBytes(root)));
+
+        // Then
+        assertEquals(0, result.getInserted(), "Reformatted questions should not be inserted again");
+        assertEquals(50, result.getSkipped(), "Reformatted questions should be recognized as stored");
+        assertEquals(50, questionRepository.count(), "Question count should be unchanged");
+        assertTrue(questionRepository.findAll().stream().allMatch(q -> q.getContentHash() != null),
+                "Every stored question should carry a content hash");
+    }
+
+    @Test
+    void testImportQuizStream_ShouldAcceptMetadataAfterTopicsAndQuestions() throws Exception {
+        // Given
+        JsonNode root = objectMapper.readTree(new ClassPathResource("json/1.json").getInputStream());
+        ObjectNode reordered = objectMapper.createObjectNode();
+        reordered.set("questions", root.get("questions"));
+        reordered.set("topics", root.get("topics"));
+        reordered.set("quiz_metadata", root.get("quiz_metadata"));
+
+        // When
+        ImportResult result = quizImportService.importQuizStream("1-metadata-last.json",
+                new ByteArrayInputStream(objectMapper.writeValueAsBytes(reordered)));
+
+        // Then
+        assertEquals(50, result.getInserted(), "Questions before the metadata should still be inserted");
+        assertEquals(1, titleRepository.count(), "Should have 1 title");
+        assertEquals(5, topicRepository.count(), "Topics before the metadata should still be saved");
+        assertEquals(50, topicRepository.findAll().stream().mapToInt(topic -> topic.getQuestionIds().size()).sum(),
+                "Every question should be linked to its topic");
+        assertEquals(50, titleRepository.findAll().get(0).getTotalQuestions(), "Title total should count them");
+    }
+
+    @Test
+    void testImportQuizStream_WithoutMetadata_ShouldFail() throws Exception {
+        // Given
+        JsonNode root = objectMapper.readTree(new ClassPathResource("json/1.json").getInputStream());
+        ((ObjectNode) root).remove("quiz_metadata");
+        byte[] json = objectMapper.writeValueAsBytes(root);
+
+        // When / Then
+        assertThrows(IOException.class,
+                () -> quizImportService.importQuizStream("1-no-metadata.json", new ByteArrayInputStream(json)),
+                "Questions without metadata should fail the file instead of being skipped");
+        assertEquals(0, questionRepository.count(), "Nothing should be stored");
+    }
+
+    @Test
+    void testImportQuizStream_ShouldLinkNewQuestionsToStoredTopics() throws Exception {
+        // Given - an updated file with one more question in a topic stored by the first import
+        importStream("json/1.json");
+        JsonNode root = objectMapper.readTree(new ClassPathResource("json/1.json").getInputStream());
+        ObjectNode added = ((ObjectNode) root.get("questions").get(0)).deepCopy();
+        added.put("question", added.get("question").asText() + " (updated)");
+        ((ArrayNode) root.get("questions")).add(added);
+        String topicId = added.get("topic_id").asText();
+        int storedCount = topicRepository.findByTopicId(topicId).orElseThrow().getQuestionIds().size();
+
+        // When
+        ImportResult result = quizImportService.importQuizStream("1-updated.json",
+                new ByteArrayInputStream(objectMapper.writeValueAsBytes(root)));
+
+        // Then
+        assertEquals(1, result.getInserted(), "Only the added question should be inserted");
+        Topic topic = topicRepository.findByTopicId(topicId).orElseThrow();
+        assertEquals(storedCount + 1, topic.getQuestionIds().size(), "Stored topic should get the new question");
+        assertEquals(storedCount + 1, topic.getQuestionCount(), "Topic count should include the new question");
+        assertEquals(51, titleRepository.findAll().get(0).getTotalQuestions(),
+                "Title total should include the new question");
+    }
+
+    @Test
+    void testBackfillContentHashes_ShouldHashQuestionsStoredWithoutOne() throws IOException {
+        // Given
+        importStream("json/1.json");
+        mongoTemplate.updateMulti(new Query(), new Update().unset("content_hash"), Question.class);
+
+        // When
+        int backfilled = questionRepository.backfillContentHashes();
+
+        // Then
+        assertEquals(50, backfilled, "Every question without a hash should be updated");
+        assertEquals(0, importStream("json/1.json").getInserted(), "Backfilled questions should be recognized");
+    }
+
+    private ImportResult importStream(String path) throws IOException {
+        try (InputStream inputStream = new ClassPathResource(path).getInputStream()) {
+            return quizImportService.importQuizStream(path, inputStream);
+        }
+    }
+}
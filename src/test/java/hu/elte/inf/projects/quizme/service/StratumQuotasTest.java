@@ -0,0 +1,46 @@
+package hu.elte.inf.projects.quizme.service;
+
+import hu.elte.inf.projects.quizme.service.index.StratumQuotas;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StratumQuotasTest {
+
+    @Test
+    void testApportion_ShouldReturnEverythingWhenRequestCoversPool() {
+        int[] available = { 3, 0, 5 };
+        assertArrayEquals(available, StratumQuotas.apportion(available, 0));
+        assertArrayEquals(available, StratumQuotas.apportion(available, 8));
+        assertArrayEquals(available, StratumQuotas.apportion(available, 100));
+    }
+
+    @Test
+    void testApportion_ShouldSplitEvenly() {
+        assertArrayEquals(new int[] { 4, 4, 4 }, StratumQuotas.apportion(new int[] { 10, 10, 10 }, 12));
+    }
+
+    @RepeatedTest(20)
+    void testApportion_ShouldFillShortfallFromLargerStrata() {
+        int[] available = { 1, 0, 2, 50 };
+        int[] quotas = StratumQuotas.apportion(available, 20);
+
+        assertEquals(20, Arrays.stream(quotas).sum(), "Quotas should add up to the request");
+        assertEquals(1, quotas[0]);
+        assertEquals(0, quotas[1]);
+        assertEquals(2, quotas[2]);
+        assertEquals(17, quotas[3]);
+    }
+
+    @RepeatedTest(20)
+    void testApportion_ShouldNotExceedRequestWithManyStrata() {
+        int[] available = { 5, 5, 5, 5, 5, 5, 5, 5, 5, 5 };
+        int[] quotas = StratumQuotas.apportion(available, 4);
+
+        assertEquals(4, Arrays.stream(quotas).sum(), "Quotas should add up to the request");
+        assertTrue(Arrays.stream(quotas).allMatch(q -> q <= 1), "No stratum should get more than one");
+    }
+}
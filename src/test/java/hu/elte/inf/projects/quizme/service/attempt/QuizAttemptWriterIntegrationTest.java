@@ -0,0 +1,172 @@
+package hu.elte.inf.projects.quizme.service.attempt;
+
+import hu.elte.inf.projects.quizme.repository.QuizAttemptRepository;
+import hu.elte.inf.projects.quizme.repository.dto.QuizAttempt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class QuizAttemptWriterIntegrationTest {
+
+    private static final String EMAIL = "player@example.com";
+
+    @Autowired
+    private QuizAttemptWriter quizAttemptWriter;
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @BeforeEach
+    void setUp() {
+        quizAttemptRepository.deleteAll();
+    }
+
+    @Test
+    void testSubmit_ShouldBeWrittenInTheBackground() throws InterruptedException {
+        // When
+        for (int i = 0; i < 50; i++) {
+            assertTrue(quizAttemptWriter.submit(attempt(i)), "Attempt should be accepted");
+        }
+
+        // Then
+        awaitStored(50);
+        List<QuizAttempt> attempts = quizAttemptRepository.findByUserEmailOrderByCompletedAtDesc(EMAIL);
+        assertEquals(50, attempts.size(), "Every attempt should be stored once");
+        assertEquals(49, attempts.get(0).getCorrectAnswers(), "Newest attempt should come first");
+        assertEquals(List.of("q1", "q2"), attempts.get(0).getQuestionIds(), "Question ids should be stored");
+    }
+
+    @Test
+    void testFullBuffer_ShouldRejectSubmissions() {
+        // Given a writer that was never started, its single slot stays taken
+        QuizAttemptWriter writer = new QuizAttemptWriter(quizAttemptRepository, event -> { }, 1, 10, Duration.ZERO,
+                Duration.ofMinutes(5), 5);
+
+        // When
+        boolean first = writer.submit(attempt(1));
+        boolean second = writer.submit(attempt(2));
+
+        // Then
+        assertTrue(first, "First attempt should fit into the buffer");
+        assertFalse(second, "Second attempt should be rejected instead of waiting");
+        assertEquals(1, writer.queued(), "Rejected attempt should not be queued");
+    }
+
+    @Test
+    void testShutdown_ShouldDrainQueuedAttempts() throws Exception {
+        // Given
+        QuizAttemptWriter writer = new QuizAttemptWriter(quizAttemptRepository, event -> { }, 100, 10, Duration.ZERO,
+                Duration.ofMinutes(5), 5);
+        for (int i = 0; i < 25; i++) {
+            writer.submit(attempt(i));
+        }
+
+        // When
+        writer.start();
+        writer.shutdown();
+
+        // Then
+        assertEquals(0, writer.queued(), "Nothing should be left in the buffer");
+        assertEquals(25, quizAttemptRepository.count(), "Queued attempts should be written before shutdown");
+        assertFalse(writer.submit(attempt(99)), "Stopped writer should reject attempts");
+    }
+
+    @Test
+    void testFailedListener_ShouldBeRetriedWithoutRepeatingTheOthers() throws Exception {
+        // Given two listeners, the second failing on its first call
+        List<String> processed = new ArrayList<>();
+        AtomicBoolean fail = new AtomicBoolean(true);
+        ApplicationEventPublisher listeners = event -> {
+            QuizAttemptsStoredEvent stored = (QuizAttemptsStoredEvent) event;
+            stored.getAttempts("first").forEach(attempt -> processed.add("first:" + attempt.getCorrectAnswers()));
+            stored.folded("first");
+            if (fail.getAndSet(false)) {
+                throw new IllegalStateException("Listener failure");
+            }
+            stored.getAttempts("second").forEach(attempt -> processed.add("second:" + attempt.getCorrectAnswers()));
+            stored.folded("second");
+        };
+        QuizAttemptWriter writer = new QuizAttemptWriter(quizAttemptRepository, listeners, 100, 10, Duration.ZERO,
+                Duration.ofMinutes(5), 5);
+        QuizAttempt attempt = attempt(1);
+        // Older than the retry interval
+        attempt.setSubmittedAt(Instant.now().minus(Duration.ofHours(1)));
+        writer.submit(attempt);
+        writer.start();
+        writer.shutdown();
+        QuizAttempt unfolded = quizAttemptRepository.findAll().get(0);
+        assertEquals(List.of("first"), unfolded.getFoldedBy(), "Only the listener that succeeded should be recorded");
+        assertNull(unfolded.getFoldedAt(), "Attempt should not be folded yet");
+
+        // When
+        writer.retryUnfolded();
+
+        // Then
+        assertEquals(List.of("first:1", "second:1"), processed, "Each listener should process the attempt once");
+        QuizAttempt folded = quizAttemptRepository.findAll().get(0);
+        assertNotNull(folded.getFoldedAt(), "Attempt should be folded after the retry");
+        assertNull(folded.getFoldedBy(), "Folded attempts should no longer be retried");
+        writer.retryUnfolded();
+        assertEquals(2, processed.size(), "Folded attempts should not be published again");
+    }
+
+    @Test
+    void testAlwaysFailingListener_ShouldStopBeingRetriedAfterMaxRetries() throws Exception {
+        // Given a listener that fails on every call and a limit of two retries
+        List<String> processed = new ArrayList<>();
+        ApplicationEventPublisher listeners = event -> {
+            QuizAttemptsStoredEvent stored = (QuizAttemptsStoredEvent) event;
+            stored.getAttempts("failing").forEach(attempt -> processed.add("failing:" + attempt.getCorrectAnswers()));
+            throw new IllegalStateException("Listener failure");
+        };
+        QuizAttemptWriter writer = new QuizAttemptWriter(quizAttemptRepository, listeners, 100, 10, Duration.ZERO,
+                Duration.ofMinutes(5), 2);
+        QuizAttempt attempt = attempt(1);
+        attempt.setSubmittedAt(Instant.now().minus(Duration.ofHours(1)));
+        writer.submit(attempt);
+        writer.start();
+        writer.shutdown();
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            writer.retryUnfolded();
+        }
+
+        // Then
+        assertEquals(3, processed.size(), "Attempt should be published once and retried twice");
+        QuizAttempt unfolded = quizAttemptRepository.findAll().get(0);
+        assertEquals(2, unfolded.getFoldRetries(), "Every retry should be counted");
+        assertNull(unfolded.getFoldedAt(), "Attempt set aside should stay unfolded");
+    }
+
+    private static QuizAttempt attempt(int correctAnswers) {
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setUserEmail(EMAIL);
+        attempt.setTitleName("Title");
+        attempt.setCorrectAnswers(correctAnswers);
+        attempt.setTotalQuestions(100);
+        attempt.setQuestionIds(List.of("q1", "q2"));
+        attempt.setCompletedAt(Instant.parse("2026-01-01T00:00:00Z").plusSeconds(correctAnswers));
+        return attempt;
+    }
+
+    private void awaitStored(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (quizAttemptRepository.count() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+}
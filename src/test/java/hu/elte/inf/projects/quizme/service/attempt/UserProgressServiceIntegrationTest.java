@@ -0,0 +1,137 @@
+package hu.elte.inf.projects.quizme.service.attempt;
+
+import hu.elte.inf.projects.quizme.repository.*;
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.QuizAttempt;
+import hu.elte.inf.projects.quizme.repository.dto.UserProgress;
+import hu.elte.inf.projects.quizme.service.UserService;
+import hu.elte.inf.projects.quizme.service.json.QuizImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class UserProgressServiceIntegrationTest {
+
+    private static final String EMAIL = "player@example.com";
+    private static final String TITLE = "Magyarország nemzeti jelképei és ünnepei";
+    private static final String TOPIC_ID = "nemzeti_jelképek";
+
+    @Autowired
+    private UserProgressService userProgressService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private QuizImportService quizImportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    private List<Question> questions;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        categoryRepository.deleteAll();
+        subCategoryRepository.deleteAll();
+        titleRepository.deleteAll();
+        topicRepository.deleteAll();
+        questionRepository.deleteAll();
+        userProgressRepository.deleteAll();
+        byte[] json = new ClassPathResource("json/1.json").getInputStream().readAllBytes();
+        quizImportService.persist(quizImportService.importQuizFile(json));
+        questions = questionRepository.findByTopicId(TOPIC_ID);
+    }
+
+    @Test
+    void testStoredAttempts_ShouldBeFoldedIntoOneDocument() {
+        // Given
+        List<Question> played = questions.subList(0, 4);
+        QuizAttempt first = attempt(TITLE, played, played.subList(0, 2));
+        QuizAttempt second = attempt(TITLE, played, played.subList(0, 1));
+
+        // When
+        userProgressService.onAttemptsStored(new QuizAttemptsStoredEvent(List.of(first)));
+        userProgressService.onAttemptsStored(new QuizAttemptsStoredEvent(List.of(second)));
+
+        // Then
+        UserProgress progress = userService.findUserQuizProgress(EMAIL);
+        assertEquals(2, progress.getAttempts(), "Both attempts should be counted");
+        UserProgress.TitleProgress title = progress.getTitles().values().iterator().next();
+        assertEquals(TITLE, title.getName(), "Title name should be kept");
+        assertEquals(2, title.getAttempts(), "Attempts per title should be counted");
+        assertEquals(75, title.getBestPercent(), "Best score should survive a worse attempt");
+        assertEquals(2, progress.getTopics().values().iterator().next().getAttempts(),
+                "Attempts per topic should be counted");
+        assertEquals(8, progress.getDifficulties().values().stream()
+                .mapToLong(UserProgress.DifficultyProgress::getAnswered).sum(),
+                "Every answered question should count towards its difficulty");
+        assertEquals(5, progress.getDifficulties().values().stream()
+                .mapToLong(UserProgress.DifficultyProgress::getCorrect).sum(),
+                "Correct answers should count towards their difficulty");
+        assertFalse(progress.getDifficulties().containsKey(UserProgressService.UNKNOWN_DIFFICULTY),
+                "Imported questions should have a known difficulty");
+    }
+
+    @Test
+    void testDottedNames_ShouldBeEscapedInFieldNames() {
+        // When
+        userProgressService.onAttemptsStored(new QuizAttemptsStoredEvent(
+                List.of(attempt("Vol. 2 $pecial", questions.subList(0, 1), List.of()))));
+
+        // Then
+        UserProgress progress = userService.findUserQuizProgress(EMAIL);
+        assertEquals(1, progress.getTitles().size(), "Dotted name should not become a nested path");
+        assertEquals("Vol. 2 $pecial", progress.getTitles().values().iterator().next().getName(),
+                "Original name should be stored in the value");
+    }
+
+    @Test
+    void testUnknownUser_ShouldGetEmptyProgress() {
+        // When
+        UserProgress progress = userService.findUserQuizProgress("nobody@example.com");
+
+        // Then
+        assertEquals(0, progress.getAttempts(), "Unknown user should have no attempts");
+        assertTrue(progress.getTitles().isEmpty(), "Unknown user should have no titles");
+    }
+
+    private static QuizAttempt attempt(String titleName, List<Question> played, List<Question> wrong) {
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setUserEmail(EMAIL);
+        attempt.setTitleName(titleName);
+        attempt.setTopicId(TOPIC_ID);
+        attempt.setQuestionIds(played.stream().map(Question::getId).toList());
+        attempt.setWrongQuestionIds(wrong.stream().map(Question::getId).toList());
+        attempt.setTotalQuestions(played.size());
+        attempt.setCorrectAnswers(played.size() - wrong.size());
+        attempt.setSubmittedAt(Instant.now());
+        return attempt;
+    }
+}
@@ -0,0 +1,203 @@
+package hu.elte.inf.projects.quizme.service.index;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.service.LegacyDifficultyLookup;
+
+/**
+ * Compares {@link QuestionSampler} with the list based selection that used to
+ * live in QuizController, for a 20 question quiz.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark test -Djmh.include=QuestionSamplerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuestionSamplerBenchmark {
+
+    private static final int TOPICS = 8;
+    private static final int REQUESTED = 20;
+    private static final String[] LEVELS = { "könnyű", "közepes", "nehéz" };
+    // The UI level LEVELS[0] maps to, difficulty ordinal 1
+    private static final String UI_LEVEL = "easy";
+
+    @Param({ "100", "10000", "100000" })
+    private int questionsPerTitle;
+
+    private final QuestionSampler sampler = new QuestionSampler();
+    private TitleQuestionIndex index;
+    private List<Question> questions;
+    private LegacyDifficultyLookup legacyLookup;
+
+    @Setup
+    public void setUp() throws IOException {
+        legacyLookup = new LegacyDifficultyLookup(new ObjectMapper());
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] ids = new String[questionsPerTitle];
+        int[] topics = new int[questionsPerTitle];
+        byte[] difficulties = new byte[questionsPerTitle];
+        String[] topicIds = new String[TOPICS];
+        for (int t = 0; t < TOPICS; t++) {
+            topicIds[t] = "topic" + t;
+        }
+
+        questions = new ArrayList<>(questionsPerTitle);
+        for (int i = 0; i < questionsPerTitle; i++) {
+            ids[i] = "Q" + i;
+            topics[i] = random.nextInt(TOPICS);
+            difficulties[i] = (byte) (1 + random.nextInt(LEVELS.length));
+
+            Question question = new Question();
+            question.setId(ids[i]);
+            question.setTopicId(topicIds[topics[i]]);
+            question.setDifficulty(LEVELS[difficulties[i] - 1]);
+            questions.add(question);
+        }
+        index = new TitleQuestionIndex("title", ids, topics, difficulties, topicIds);
+    }
+
+    @Benchmark
+    public int[] samplerByTopic() {
+        return sampler.sampleByTopic(index, REQUESTED, (byte) 1);
+    }
+
+    @Benchmark
+    public int[] samplerMixed() {
+        return sampler.sampleByDifficulty(index, REQUESTED);
+    }
+
+    @Benchmark
+    public List<Question> listByTopic() {
+        return LegacySelection.selectBalancedQuestions(questions, REQUESTED, UI_LEVEL, legacyLookup);
+    }
+
+    @Benchmark
+    public List<Question> listMixed() {
+        return LegacySelection.selectMixedDifficultyQuestions(questions, REQUESTED);
+    }
+
+    /**
+     * The previous QuizController implementation, kept verbatim as the baseline,
+     * matching difficulties with the {@link LegacyDifficultyLookup}.
+     */
+    static final class LegacySelection {
+
+        static List<Question> selectBalancedQuestions(List<Question> questions, int requestedCount,
+                String difficulty, LegacyDifficultyLookup difficultyService) {
+            List<Question> allQuestions = questions.stream()
+                    .filter(q -> difficultyService.matchesDifficulty(q.getDifficulty(), difficulty))
+                    .collect(Collectors.toList());
+
+            if (allQuestions.isEmpty()) {
+                allQuestions = questions;
+            }
+
+            if (requestedCount <= 0 || requestedCount >= allQuestions.size()) {
+                Collections.shuffle(allQuestions);
+                return allQuestions;
+            }
+
+            Map<String, List<Question>> questionsByTopicName = allQuestions.stream()
+                    .collect(Collectors.groupingBy(Question::getTopicId));
+
+            int questionsPerTopic = Math.max(1, requestedCount / questionsByTopicName.size());
+            int remainder = requestedCount % questionsByTopicName.size();
+
+            List<Question> selectedQuestions = new ArrayList<>();
+            for (Map.Entry<String, List<Question>> entry : questionsByTopicName.entrySet()) {
+                List<Question> questionsList = entry.getValue();
+                Collections.shuffle(questionsList);
+                int questionsFromThisTopic = questionsPerTopic + (questionsList.size() < remainder ? 1 : 0);
+                questionsFromThisTopic = Math.min(questionsFromThisTopic, questionsList.size());
+                selectedQuestions.addAll(questionsList.subList(0, questionsFromThisTopic));
+            }
+
+            if (selectedQuestions.size() < requestedCount) {
+                List<Question> remaining = allQuestions.stream()
+                        .filter(q -> !selectedQuestions.contains(q))
+                        .collect(Collectors.toList());
+                Collections.shuffle(remaining);
+                int needed = requestedCount - selectedQuestions.size();
+                selectedQuestions.addAll(remaining.subList(0, Math.min(needed, remaining.size())));
+            }
+
+            Collections.shuffle(selectedQuestions);
+            return selectedQuestions;
+        }
+
+        static List<Question> selectMixedDifficultyQuestions(List<Question> questions, int requestedCount) {
+            Map<String, List<Question>> questionsByDifficultyLevel = questions.stream()
+                    .collect(Collectors.groupingBy(Question::getDifficulty));
+
+            int totalAvailable = questionsByDifficultyLevel.values().stream().mapToInt(List::size).sum();
+            if (requestedCount <= 0 || requestedCount >= totalAvailable) {
+                List<Question> allQuestions = questionsByDifficultyLevel.values().stream()
+                        .flatMap(List::stream)
+                        .collect(Collectors.toList());
+                Collections.shuffle(allQuestions);
+                return allQuestions;
+            }
+
+            List<Question> selectedQuestions = new ArrayList<>();
+            int questionsPerDifficulty = requestedCount / questionsByDifficultyLevel.values().size();
+            int remainder = requestedCount % questionsByDifficultyLevel.size();
+
+            for (int i = 0; i < LEVELS.length; i++) {
+                List<Question> questionsForLevel = questionsByDifficultyLevel.get(LEVELS[i]);
+                if (questionsForLevel == null || questionsForLevel.isEmpty()) {
+                    continue;
+                }
+                Collections.shuffle(questionsForLevel);
+                int questionsFromThisLevel = questionsPerDifficulty + (i < remainder ? 1 : 0);
+                questionsFromThisLevel = Math.min(questionsFromThisLevel, questionsForLevel.size());
+                selectedQuestions.addAll(questionsForLevel.subList(0, questionsFromThisLevel));
+            }
+
+            if (selectedQuestions.size() < requestedCount) {
+                List<Question> remaining = new ArrayList<>();
+                for (String level : LEVELS) {
+                    List<Question> levelQuestions = questionsByDifficultyLevel.get(level);
+                    if (levelQuestions != null) {
+                        remaining.addAll(levelQuestions.stream()
+                                .filter(q -> !selectedQuestions.contains(q))
+                                .toList());
+                    }
+                }
+                Collections.shuffle(remaining);
+                int needed = requestedCount - selectedQuestions.size();
+                selectedQuestions.addAll(remaining.subList(0, Math.min(needed, remaining.size())));
+            }
+
+            Collections.shuffle(selectedQuestions);
+            return selectedQuestions;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package hu.elte.inf.projects.quizme.service.index;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuestionSamplerTest {
+
+    private static final byte EASY = 1;
+    private static final byte MEDIUM = 2;
+    private static final byte HARD = 3;
+
+    private final QuestionSampler sampler = new QuestionSampler();
+
+    @RepeatedTest(20)
+    void testSampleByTopic_ShouldSpreadAcrossTopics() {
+        // 3 topics with 10 easy questions each, plus some medium ones
+        TitleQuestionIndex index = index(new int[] { 10, 10, 10 }, new int[] { 5, 0, 5 });
+
+        int[] positions = sampler.sampleByTopic(index, 9, EASY);
+
+        assertEquals(9, positions.length);
+        assertEquals(9, Arrays.stream(positions).distinct().count(), "Positions should be unique");
+        int[] perTopic = new int[3];
+        for (int position : positions) {
+            assertEquals(EASY, index.difficulty(position), "Only easy questions should be selected");
+            perTopic[index.topicOrdinal(position)]++;
+        }
+        assertArrayEquals(new int[] { 3, 3, 3 }, perTopic, "Each topic should get an equal share");
+    }
+
+    @RepeatedTest(20)
+    void testSampleByTopic_ShouldFillUpFromLargerTopics() {
+        TitleQuestionIndex index = index(new int[] { 1, 2, 40 }, new int[] { 0, 0, 0 });
+
+        int[] positions = sampler.sampleByTopic(index, 12, EASY);
+
+        assertEquals(12, positions.length);
+        assertEquals(12, Arrays.stream(positions).distinct().count(), "Positions should be unique");
+    }
+
+    @Test
+    void testSampleByTopic_ShouldFallBackToAllQuestions() {
+        TitleQuestionIndex index = index(new int[] { 3, 3 }, new int[] { 0, 0 });
+
+        int[] positions = sampler.sampleByTopic(index, 0, HARD);
+
+        assertEquals(6, positions.length, "Without matching questions every question is a candidate");
+    }
+
+    @RepeatedTest(20)
+    void testSampleByDifficulty_ShouldSpreadAcrossLevels() {
+        TitleQuestionIndex index = index(new int[] { 20, 20 }, new int[] { 20, 20 });
+
+        int[] positions = sampler.sampleByDifficulty(index, 10);
+
+        assertEquals(10, positions.length);
+        assertEquals(10, Arrays.stream(positions).distinct().count(), "Positions should be unique");
+        long easy = Arrays.stream(positions).filter(p -> index.difficulty(p) == EASY).count();
+        assertEquals(5, easy, "Each level should get an equal share");
+    }
+
+    /**
+     * Builds an index where topic t has easy[t] easy and medium[t] medium questions.
+     */
+    static TitleQuestionIndex index(int[] easy, int[] medium) {
+        int size = Arrays.stream(easy).sum() + Arrays.stream(medium).sum();
+        String[] ids = new String[size];
+        int[] topics = new int[size];
+        byte[] difficulties = new byte[size];
+        String[] topicIds = new String[easy.length];
+        int p = 0;
+        for (int t = 0; t < easy.length; t++) {
+            topicIds[t] = "topic" + t;
+            for (int i = 0; i < easy[t] + medium[t]; i++, p++) {
+                ids[p] = "Q" + p;
+                topics[p] = t;
+                difficulties[p] = i < easy[t] ? EASY : MEDIUM;
+            }
+        }
+        return new TitleQuestionIndex("title", ids, topics, difficulties, topicIds);
+    }
+}
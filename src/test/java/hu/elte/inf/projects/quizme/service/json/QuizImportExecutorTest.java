@@ -0,0 +1,48 @@
+package hu.elte.inf.projects.quizme.service.json;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuizImportExecutorTest {
+
+    @Test
+    void testSubmit_AfterShutdown_ShouldFailTheJobAndDeleteSpooledFiles() throws Exception {
+        // Given
+        QuizImportExecutor executor = new QuizImportExecutor(null, 1, Duration.ZERO);
+        executor.shutdown();
+        List<Path> spooled = new ArrayList<>();
+        MockMultipartFile file = new MockMultipartFile("files", "quiz.json", MediaType.APPLICATION_JSON_VALUE,
+                "{}".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void transferTo(Path dest) throws IOException {
+                spooled.add(dest);
+                super.transferTo(dest);
+            }
+        };
+
+        // When
+        ImportJob job = executor.submit(List.of(file));
+
+        // Then
+        assertTrue(job.awaitCompletion(5, TimeUnit.SECONDS), "Rejected job should finish");
+        assertEquals(ImportJob.Status.FAILED, job.getStatus(), "Rejected job should fail");
+        assertFalse(job.getResults().get(0).isSuccess(), "Rejected file should be reported as failed");
+        assertEquals(1, spooled.size(), "Upload should have been spooled");
+        assertFalse(Files.exists(spooled.get(0)), "Spooled file should be deleted");
+
+        executor.evictExpiredJobs();
+        assertTrue(executor.findJob(job.getId()).isEmpty(), "Rejected job should be evicted like any other");
+    }
+}
@@ -0,0 +1,110 @@
+package hu.elte.inf.projects.quizme.service.json;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.QuizData;
+import hu.elte.inf.projects.quizme.repository.dto.Topic;
+
+/**
+ * Compares the hash based de-duplication and topic grouping of
+ * {@link QuizImportService} with the previous nested loops, on synthetic
+ * files where a tenth of the topics and questions already exist.
+ *
+ * <pre>
+ * ./mvnw test -Pbenchmark -Djmh.include=QuizImportGroupingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuizImportGroupingBenchmark {
+
+    @Param({ "10:500", "50:5000", "100:20000" })
+    private String shape;
+
+    private QuizData data;
+    private List<Topic> existingTopics;
+    private List<Question> existingQuestions;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        String[] parts = shape.split(":");
+        int topicCount = Integer.parseInt(parts[0]);
+        int questionCount = Integer.parseInt(parts[1]);
+
+        List<Topic> topics = new ArrayList<>(topicCount);
+        existingTopics = new ArrayList<>();
+        for (int t = 0; t < topicCount; t++) {
+            Topic topic = new Topic();
+            topic.setTopicId("topic" + t);
+            topics.add(topic);
+            if (t % 10 == 0) {
+                existingTopics.add(topic);
+            }
+        }
+
+        List<Question> questions = new ArrayList<>(questionCount);
+        existingQuestions = new ArrayList<>();
+        for (int i = 0; i < questionCount; i++) {
+            Question question = new Question();
+            question.setId("Q" + i);
+            question.setQuestion("Question text number " + i);
+            question.setTopicId("topic" + (i % topicCount));
+            question.createAndSetContentHash();
+            questions.add(question);
+            if (i % 10 == 0) {
+                existingQuestions.add(question);
+            }
+        }
+        data = new QuizData(null, topics, questions);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> hashed() {
+        Set<String> topicIds = existingTopics.stream().map(Topic::getTopicId).collect(Collectors.toSet());
+        Set<String> contentHashes = new HashSet<>();
+        existingQuestions.forEach(q -> contentHashes.add(q.getContentHash()));
+        QuizImportService.removeExisting(data, topicIds, contentHashes);
+        return QuizImportService.groupQuestionIdsByTopic(data.getQuestions());
+    }
+
+    @Benchmark
+    public List<Topic> nestedLoops() {
+        // Previous implementation
+        existingTopics.forEach(t -> data.getTopics().removeIf(topic -> topic.getTopicId().equals(t.getTopicId())));
+        List<Question> questions = data.getQuestions();
+        existingQuestions.forEach(q -> questions.removeIf(qq -> qq.getQuestion().equals(q.getQuestion())));
+
+        data.getTopics().forEach(topic -> {
+            List<String> questionIds = questions.stream()
+                    .filter(q -> q.getTopicId().equals(topic.getTopicId()))
+                    .map(Question::getId)
+                    .collect(Collectors.toList());
+            topic.setQuestionIds(questionIds);
+        });
+        return data.getTopics();
+    }
+}
@@ -0,0 +1,161 @@
+package hu.elte.inf.projects.quizme.service.review;
+
+import hu.elte.inf.projects.quizme.repository.ReviewCardRepository;
+import hu.elte.inf.projects.quizme.repository.dto.QuizAttempt;
+import hu.elte.inf.projects.quizme.repository.dto.ReviewCard;
+import hu.elte.inf.projects.quizme.service.attempt.QuizAttemptsStoredEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ReviewSchedulerIntegrationTest {
+
+    private static final String EMAIL = "player@example.com";
+    private static final String TITLE = "Magyarország nemzeti jelképei és ünnepei";
+    private static final Instant NOW = Instant.parse("2026-03-01T10:00:00Z");
+
+    @Autowired
+    private ReviewScheduler reviewScheduler;
+
+    @Autowired
+    private ReviewCardRepository reviewCardRepository;
+
+    @BeforeEach
+    void setUp() {
+        reviewCardRepository.deleteAll();
+    }
+
+    @Test
+    void testReview_ShouldFollowSm2Intervals() {
+        // Given
+        ReviewCard card = new ReviewCard();
+        card.setEase(ReviewScheduler.INITIAL_EASE);
+
+        // When / Then
+        ReviewScheduler.review(card, true, NOW);
+        assertEquals(1, card.getIntervalDays(), "First correct answer should come back the next day");
+        ReviewScheduler.review(card, true, NOW);
+        assertEquals(6, card.getIntervalDays(), "Second correct answer should wait six days");
+        ReviewScheduler.review(card, true, NOW);
+        assertEquals(17, card.getIntervalDays(), "Later intervals should grow by the ease");
+        assertEquals(2.8, card.getEase(), 1e-9, "Correct answers should raise the ease");
+        assertEquals(NOW.plus(Duration.ofDays(17)), card.getDue(), "Due date should follow the interval");
+
+        ReviewScheduler.review(card, false, NOW);
+        assertEquals(1, card.getIntervalDays(), "Wrong answer should restart the intervals");
+        assertEquals(0, card.getRepetitions(), "Wrong answer should reset the streak");
+        assertEquals(2.48, card.getEase(), 1e-9, "Wrong answer should lower the ease");
+    }
+
+    @Test
+    void testReview_EaseShouldNotDropBelowMinimum() {
+        // Given
+        ReviewCard card = new ReviewCard();
+        card.setEase(ReviewScheduler.INITIAL_EASE);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            ReviewScheduler.review(card, false, NOW);
+        }
+
+        // Then
+        assertEquals(ReviewScheduler.MIN_EASE, card.getEase(), 1e-9, "Ease should stop at the minimum");
+    }
+
+    @Test
+    void testStoredAttempts_ShouldScheduleOneCardPerQuestion() {
+        // Given
+        QuizAttempt first = attempt(List.of("q1", "q2", "q3"), List.of("q2"), NOW);
+        QuizAttempt second = attempt(List.of("q1"), List.of(), NOW.plus(Duration.ofDays(1)));
+
+        // When
+        reviewScheduler.onAttemptsStored(new QuizAttemptsStoredEvent(List.of(first)));
+        reviewScheduler.onAttemptsStored(new QuizAttemptsStoredEvent(List.of(second)));
+
+        // Then
+        List<ReviewCard> cards = reviewCardRepository.findByUserEmail(EMAIL);
+        assertEquals(3, cards.size(), "Repeated questions should update their card");
+        ReviewCard repeated = cards.stream().filter(card -> card.getQuestionId().equals("q1")).findFirst()
+                .orElseThrow();
+        assertEquals(2, repeated.getRepetitions(), "Both correct answers should count");
+        assertEquals(NOW.plus(Duration.ofDays(7)), repeated.getDue(), "Second review should be due in six days");
+    }
+
+    @Test
+    void testRedeliveredAttempt_ShouldNotReviewTheCardTwice() {
+        // Given
+        QuizAttempt attempt = attempt(List.of("q1"), List.of(), NOW);
+        reviewScheduler.onAttemptsStored(new QuizAttemptsStoredEvent(List.of(attempt)));
+
+        // When - the writer retries the same attempt
+        reviewScheduler.onAttemptsStored(new QuizAttemptsStoredEvent(List.of(attempt)));
+
+        // Then
+        ReviewCard card = reviewCardRepository.findByUserEmail(EMAIL).get(0);
+        assertEquals(1, card.getRepetitions(), "Redelivered attempt should not count again");
+        assertEquals(NOW.plus(Duration.ofDays(1)), card.getDue(), "Due date should stay after the first review");
+        assertEquals(NOW, card.getReviewedAt(), "Card should remember the attempt it applied");
+    }
+
+    @Test
+    void testFindDueQuestionIds_ShouldReturnMostOverdueFirst() {
+        // Given q2 answered wrong a day later than q1 and q3, q4 in another title
+        reviewScheduler.onAttemptsStored(new QuizAttemptsStoredEvent(List.of(
+                attempt(List.of("q1", "q3"), List.of("q1"), NOW),
+                attempt(List.of("q2"), List.of("q2"), NOW.plus(Duration.ofDays(1))))));
+        QuizAttempt otherTitle = attempt(List.of("q4"), List.of("q4"), NOW);
+        otherTitle.setTitleName("Other title");
+        reviewScheduler.onAttemptsStored(new QuizAttemptsStoredEvent(List.of(otherTitle)));
+
+        // When
+        List<String> notYet = reviewScheduler.findDueQuestionIds(EMAIL, TITLE, 10, NOW);
+        List<String> dayAfter = reviewScheduler.findDueQuestionIds(EMAIL, TITLE, 10, NOW.plus(Duration.ofDays(1)));
+        List<String> later = reviewScheduler.findDueQuestionIds(EMAIL, TITLE, 10, NOW.plus(Duration.ofDays(2)));
+        List<String> limited = reviewScheduler.findDueQuestionIds(EMAIL, TITLE, 1, NOW.plus(Duration.ofDays(2)));
+
+        // Then
+        assertTrue(notYet.isEmpty(), "Nothing should be due right after playing");
+        assertEquals(2, dayAfter.size(), "Questions of the first attempt should be due the next day");
+        assertEquals(3, later.size(), "Only questions of the requested title should be due");
+        assertEquals("q2", later.get(2), "Most recently scheduled question should come last");
+        assertEquals(1, limited.size(), "Limit should be applied");
+        assertTrue(reviewScheduler.findDueQuestionIds("nobody@example.com", TITLE, 10, NOW.plus(Duration.ofDays(30)))
+                .isEmpty(),
+                "Other users should have nothing due");
+    }
+
+    @Test
+    void testAnonymousAttempts_ShouldNotBeScheduled() {
+        // Given
+        QuizAttempt anonymous = attempt(List.of("q1"), List.of(), NOW);
+        anonymous.setUserEmail(null);
+
+        // When
+        reviewScheduler.onAttemptsStored(new QuizAttemptsStoredEvent(List.of(anonymous)));
+
+        // Then
+        assertEquals(0, reviewCardRepository.count(), "Anonymous attempts should not create cards");
+    }
+
+    private static QuizAttempt attempt(List<String> played, List<String> wrong, Instant submittedAt) {
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setUserEmail(EMAIL);
+        attempt.setTitleName(TITLE);
+        attempt.setQuestionIds(played);
+        attempt.setWrongQuestionIds(wrong);
+        attempt.setTotalQuestions(played.size());
+        attempt.setCorrectAnswers(played.size() - wrong.size());
+        attempt.setSubmittedAt(submittedAt);
+        return attempt;
+    }
+}
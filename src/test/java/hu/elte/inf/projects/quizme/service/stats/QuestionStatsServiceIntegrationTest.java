@@ -0,0 +1,228 @@
+package hu.elte.inf.projects.quizme.service.stats;
+
+import hu.elte.inf.projects.quizme.repository.*;
+import hu.elte.inf.projects.quizme.repository.dto.Question;
+import hu.elte.inf.projects.quizme.repository.dto.QuestionStats;
+import hu.elte.inf.projects.quizme.repository.dto.QuizAttempt;
+import hu.elte.inf.projects.quizme.service.JsonDifficultyService;
+import hu.elte.inf.projects.quizme.service.attempt.QuizAttemptsStoredEvent;
+import hu.elte.inf.projects.quizme.service.index.QuestionIndexService;
+import hu.elte.inf.projects.quizme.service.index.TitleQuestionIndex;
+import hu.elte.inf.projects.quizme.service.json.QuizImportService;
+import hu.elte.inf.projects.quizme.util.QuizConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class QuestionStatsServiceIntegrationTest {
+
+    private static final String TITLE = "Magyarország nemzeti jelképei és ünnepei";
+    private static final String TOPIC_ID = "nemzeti_jelképek";
+
+    @Autowired
+    private QuestionStatsService questionStatsService;
+
+    @Autowired
+    private JsonDifficultyService difficultyService;
+
+    @Autowired
+    private QuizImportService quizImportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuestionStatsRepository questionStatsRepository;
+
+    private List<Question> questions;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Counts gathered by other tests must not end up in this one
+        questionStatsService.flush();
+        categoryRepository.deleteAll();
+        subCategoryRepository.deleteAll();
+        titleRepository.deleteAll();
+        topicRepository.deleteAll();
+        questionRepository.deleteAll();
+        questionStatsRepository.deleteAll();
+        byte[] json = new ClassPathResource("json/1.json").getInputStream().readAllBytes();
+        quizImportService.persist(quizImportService.importQuizFile(json));
+        questions = questionRepository.findByTopicId(TOPIC_ID);
+    }
+
+    @Test
+    void testFlush_ShouldAddCountsSinceLastFlush() {
+        // Given
+        List<Question> played = questions.subList(0, 3);
+        questionStatsService.onAttemptsStored(event(3, played, played.subList(0, 1)));
+
+        // When
+        int flushed = questionStatsService.flush();
+        questionStatsService.onAttemptsStored(event(1, played, List.of()));
+        questionStatsService.flush();
+
+        // Then
+        assertEquals(3, flushed, "Every answered question should be flushed");
+        QuestionStats wrong = questionStatsRepository.findById(played.get(0).getId()).orElseThrow();
+        assertEquals(4, wrong.getAnswered(), "Answers of both flushes should be added up");
+        assertEquals(1, wrong.getCorrect(), "Wrong answers should not count as correct");
+        QuestionStats right = questionStatsRepository.findById(played.get(1).getId()).orElseThrow();
+        assertEquals(4, right.getCorrect(), "Correct answers should be counted");
+        assertEquals(0, questionStatsService.flush(), "Nothing should be left after a flush");
+    }
+
+    @Test
+    void testOnAttemptsStored_ShouldOnlyCountQuestionsOfTheQuiz() {
+        // Given ids of another title, a repeated id and more ids than the quiz had
+        Question first = questions.get(0);
+        Question second = questions.get(1);
+        Question third = questions.get(2);
+        Question foreign = new Question();
+        foreign.setTopicId("other_topic");
+        foreign.setQuestion("Not part of this title?");
+        foreign = questionRepository.save(foreign);
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setTitleName(TITLE);
+        attempt.setTotalQuestions(3);
+        attempt.setQuestionIds(List.of(first.getId(), first.getId(), foreign.getId(), second.getId(),
+                third.getId()));
+
+        // When
+        questionStatsService.onAttemptsStored(new QuizAttemptsStoredEvent(List.of(attempt)));
+        int flushed = questionStatsService.flush();
+
+        // Then
+        assertEquals(2, flushed, "Only ids of the title within the quiz size should be counted");
+        assertEquals(1, questionStatsRepository.findById(first.getId()).orElseThrow().getAnswered(),
+                "A repeated id should be counted once");
+        assertTrue(questionStatsRepository.findById(second.getId()).isPresent(), "Ids of the title should be counted");
+        assertFalse(questionStatsRepository.findById(foreign.getId()).isPresent(),
+                "Questions of other titles should not be counted");
+        assertFalse(questionStatsRepository.findById(third.getId()).isPresent(),
+                "Ids beyond the quiz size should not be counted");
+    }
+
+    @Test
+    void testEmpiricalDifficulty_ShouldNeedMinimumAnswers() {
+        // Given
+        Question easy = questions.get(0);
+        Question hard = questions.get(1);
+        questionStatsService.onAttemptsStored(event(19, List.of(easy, hard), List.of(hard)));
+        questionStatsService.flush();
+        assertEquals(JsonDifficultyService.DIFFICULTY_UNKNOWN, questionStatsService.getEmpiricalDifficulty(easy.getId()),
+                "Too few answers should not give an empirical difficulty");
+
+        // When
+        questionStatsService.onAttemptsStored(event(1, List.of(easy, hard), List.of(hard)));
+        questionStatsService.flush();
+
+        // Then
+        byte[] ordinals = difficultyService.getDifficultyOrdinals();
+        assertEquals(ordinals[0], questionStatsService.getEmpiricalDifficulty(easy.getId()),
+                "Always correctly answered question should be the easiest level");
+        assertEquals(ordinals[ordinals.length - 1], questionStatsService.getEmpiricalDifficulty(hard.getId()),
+                "Never correctly answered question should be the hardest level");
+    }
+
+    @Test
+    void testEmpiricalDifficulty_ShouldSplitCorrectRateIntoBands() {
+        // Given
+        byte[] ordinals = { 1, 2, 3 };
+
+        // When / Then
+        assertEquals(1, QuestionStatsService.empiricalDifficulty(stats(100, 80), ordinals), "80% correct is easy");
+        assertEquals(2, QuestionStatsService.empiricalDifficulty(stats(100, 50), ordinals), "50% correct is medium");
+        assertEquals(3, QuestionStatsService.empiricalDifficulty(stats(100, 20), ordinals), "20% correct is hard");
+        assertEquals(3, QuestionStatsService.empiricalDifficulty(stats(100, 0), ordinals), "0% correct is hard");
+        assertEquals(JsonDifficultyService.DIFFICULTY_UNKNOWN,
+                QuestionStatsService.empiricalDifficulty(stats(0, 0), ordinals), "No answers has no difficulty");
+    }
+
+    @Test
+    void testEmpiricalSource_ShouldOverrideAuthoredDifficultyInIndex() {
+        // Given a question not labelled with the hardest level, always answered wrong
+        byte[] ordinals = difficultyService.getDifficultyOrdinals();
+        byte hardest = ordinals[ordinals.length - 1];
+        Question question = questions.stream()
+                .filter(q -> difficultyService.getDifficultyOrdinal(q.getDifficulty()) != hardest)
+                .findFirst()
+                .orElseThrow();
+        questionStatsService.onAttemptsStored(event(20, List.of(question), List.of(question)));
+        questionStatsService.flush();
+        QuestionIndexService authored = new QuestionIndexService(topicRepository, questionRepository,
+                difficultyService, questionStatsService, QuizConstants.DIFFICULTY_SOURCE_AUTHORED);
+        QuestionIndexService empirical = new QuestionIndexService(topicRepository, questionRepository,
+                difficultyService, questionStatsService, QuizConstants.DIFFICULTY_SOURCE_EMPIRICAL);
+
+        // When
+        TitleQuestionIndex authoredIndex = authored.getIndex(TITLE);
+        TitleQuestionIndex empiricalIndex = empirical.getIndex(TITLE);
+
+        // Then
+        int position = positionOf(empiricalIndex, question.getId());
+        assertEquals(difficultyService.getDifficultyOrdinal(question.getDifficulty()),
+                authoredIndex.difficulty(positionOf(authoredIndex, question.getId())),
+                "Authored source should keep the label of the question file");
+        assertEquals(hardest, empiricalIndex.difficulty(position),
+                "Empirical source should use the observed difficulty");
+        Question other = questions.stream()
+                .filter(q -> !q.getId().equals(question.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(difficultyService.getDifficultyOrdinal(other.getDifficulty()),
+                empiricalIndex.difficulty(positionOf(empiricalIndex, other.getId())),
+                "Questions without enough answers should keep their label");
+    }
+
+    private static int positionOf(TitleQuestionIndex index, String questionId) {
+        return IntStream.range(0, index.size())
+                .filter(i -> index.questionId(i).equals(questionId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static QuestionStats stats(long answered, long correct) {
+        QuestionStats stats = new QuestionStats();
+        stats.setAnswered(answered);
+        stats.setCorrect(correct);
+        return stats;
+    }
+
+    private static QuizAttemptsStoredEvent event(int count, List<Question> played, List<Question> wrong) {
+        List<QuizAttempt> attempts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            QuizAttempt attempt = new QuizAttempt();
+            attempt.setTitleName(TITLE);
+            attempt.setTotalQuestions(played.size());
+            attempt.setQuestionIds(played.stream().map(Question::getId).toList());
+            attempt.setWrongQuestionIds(wrong.stream().map(Question::getId).toList());
+            attempts.add(attempt);
+        }
+        return new QuizAttemptsStoredEvent(attempts);
+    }
+}